@@ -0,0 +1,17 @@
+-- Flyway migration script for Application keyset pagination
+-- Version: V2__Add_Application_Keyset_Indexes.sql
+-- Description: Composite indexes ending with application_key so that every
+--              supported sort order (and the owner / management group filters)
+--              can be served by an index range scan with a seek predicate
+
+-- Filters: equality on the filtered column, then keyset on application_key.
+-- These supersede the single-column indexes created in V1.
+CREATE INDEX idx_application_owner_id_key ON application(owner_id, application_key);
+CREATE INDEX idx_application_management_group_id_key ON application(management_group_id, application_key);
+
+DROP INDEX idx_application_owner_id;
+DROP INDEX idx_application_management_group_id;
+
+-- Sort orders: sort column followed by the application_key tiebreaker
+CREATE INDEX idx_application_name_key ON application(name, application_key);
+CREATE INDEX idx_application_created_at_key ON application(created_at, application_key);
@@ -0,0 +1,8 @@
+-- Flyway migration script for Application optimistic concurrency
+-- Version: V3__Add_Application_Version.sql
+-- Description: Add a version column incremented by every write, used for
+--              If-Match preconditions and conditional UPDATE/DELETE statements
+
+ALTER TABLE application ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN application.version IS 'Revision of the application, incremented on every update';
@@ -0,0 +1,20 @@
+-- Flyway migration script for Application name search
+-- Version: V4__Add_Application_Search_Indexes.sql
+-- Description: Indexes backing the case-insensitive name filter and the
+--              prefix, substring and full-text search modes of the list endpoint
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Case-insensitive equality (name filter, name uniqueness checks) and prefix
+-- search: text_pattern_ops serves both = and LIKE 'abc%' whatever the collation.
+CREATE INDEX idx_application_lower_name ON application (lower(name) text_pattern_ops);
+
+-- Substring search: trigram indexes serve ILIKE '%abc%' anywhere in the value
+CREATE INDEX idx_application_name_trgm ON application USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_application_description_trgm ON application USING GIN (description gin_trgm_ops);
+
+-- Full-text search over the name (weight A) and the description (weight B).
+-- Queries must repeat this expression exactly for the index to be used.
+CREATE INDEX idx_application_search ON application USING GIN ((
+    setweight(to_tsvector('simple', name), 'A')
+    || setweight(to_tsvector('simple', coalesce(description, '')), 'B')));
@@ -0,0 +1,26 @@
+-- Flyway migration script for the application change feed
+-- Version: V5__Add_Application_Change_Feed.sql
+-- Description: Keyset index over the last write of every application and
+--              tombstones of deleted applications, read by the change feed
+
+-- Every write stamps updated_at; rows from before that was the case only
+-- carry their creation time.
+UPDATE application SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE application ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX idx_application_updated_at_key ON application (updated_at, application_key);
+
+-- One tombstone per deleted key, holding its latest deletion. A tombstone
+-- whose key has been created again is ignored by the feed.
+CREATE TABLE application_tombstone (
+    application_key VARCHAR(255) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_application_tombstone PRIMARY KEY (application_key)
+);
+
+CREATE INDEX idx_application_tombstone_deleted_at_key
+    ON application_tombstone (deleted_at, application_key);
+
+COMMENT ON TABLE application_tombstone IS 'Deleted application keys, kept for the change feed until purged';
+COMMENT ON COLUMN application_tombstone.deleted_at IS 'Time of the latest deletion of the key';
@@ -0,0 +1,33 @@
+-- Flyway migration script for the application change feed
+-- Version: V6__Stamp_Application_Changes_With_Database_Clock.sql
+-- Description: Order the change feed by stamps taken from the database clock
+--              while the row is written, instead of the application clock
+
+-- Set by a trigger on every insert and update, whatever the write path, so
+-- stamps never come from the clock of an application instance. A stamp is
+-- never earlier than the start of its transaction, which the feed relies on
+-- to hold back the changes of transactions still in progress.
+ALTER TABLE application ADD COLUMN changed_at TIMESTAMPTZ;
+UPDATE application SET changed_at = updated_at;
+ALTER TABLE application ALTER COLUMN changed_at SET NOT NULL;
+ALTER TABLE application ALTER COLUMN changed_at SET DEFAULT clock_timestamp();
+
+CREATE FUNCTION application_stamp_changed_at() RETURNS trigger AS $$
+BEGIN
+    NEW.changed_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_application_changed_at
+    BEFORE INSERT OR UPDATE ON application
+    FOR EACH ROW EXECUTE FUNCTION application_stamp_changed_at();
+
+CREATE INDEX idx_application_changed_at_key ON application (changed_at, application_key);
+DROP INDEX idx_application_updated_at_key;
+
+-- Tombstones are stamped by the statement writing them, with the same clock.
+ALTER TABLE application_tombstone ALTER COLUMN deleted_at TYPE TIMESTAMPTZ;
+ALTER TABLE application_tombstone ALTER COLUMN deleted_at SET DEFAULT clock_timestamp();
+
+COMMENT ON COLUMN application.changed_at IS 'Database time of the latest write, ordering the change feed';
@@ -0,0 +1,29 @@
+-- Flyway migration script for the application change feed
+-- Version: V7__Assign_Transaction_Ids_Before_Stamping_Changes.sql
+-- Description: Make every transaction stamping a change hold a transaction id
+--              before it takes the stamp
+
+-- The horizon of the feed only waits for transactions holding an id, which
+-- a transaction otherwise gets once its first row is written, after the
+-- BEFORE trigger has stamped it. Taking the id first leaves no moment in
+-- which a stamped change belongs to a transaction the horizon ignores.
+CREATE OR REPLACE FUNCTION application_stamp_changed_at() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_current_xact_id();
+    NEW.changed_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Tombstones are stamped the same way, instead of by the statement writing them.
+CREATE FUNCTION application_tombstone_stamp_deleted_at() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_current_xact_id();
+    NEW.deleted_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_application_tombstone_deleted_at
+    BEFORE INSERT OR UPDATE ON application_tombstone
+    FOR EACH ROW EXECUTE FUNCTION application_tombstone_stamp_deleted_at();
@@ -0,0 +1,70 @@
+package vvu.centrauthz.benchmarks;
+
+import java.util.List;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.Application;
+
+/**
+ * Entity/DTO conversions done on every read and write.
+ *
+ * <p>{@code toDtoList} is measured at the default and maximum page sizes.</p>
+ */
+@State(Scope.Benchmark)
+public class ApplicationMapperBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private ApplicationMapper mapper;
+    private ApplicationEntity entity;
+    private Application application;
+    private List<ApplicationEntity> page;
+
+    /**
+     * Builds the mapper and its inputs.
+     */
+    @Setup
+    public void setup() {
+        mapper = Mappers.getMapper(ApplicationMapper.class);
+        entity = Fixtures.entity(1);
+        application = Fixtures.application(1);
+        page = Fixtures.entities(pageSize);
+    }
+
+    /**
+     * Entity to DTO, as on every read.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public Application toDto() {
+        return mapper.toDto(entity);
+    }
+
+    /**
+     * DTO to entity, as on every create.
+     *
+     * @return the entity
+     */
+    @Benchmark
+    public ApplicationEntity toEntity() {
+        return mapper.toEntity(application);
+    }
+
+    /**
+     * A page of entities to DTOs, as on every list.
+     *
+     * @return the DTOs
+     */
+    @Benchmark
+    public List<Application> toDtoList() {
+        return mapper.toDtoList(page);
+    }
+}
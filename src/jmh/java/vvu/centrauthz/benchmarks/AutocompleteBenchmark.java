@@ -0,0 +1,86 @@
+package vvu.centrauthz.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import vvu.centrauthz.utilities.PrefixIndex;
+
+/**
+ * Autocomplete lookups and writes on the in-memory prefix index, up to the
+ * size of a large catalog.
+ */
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+
+    @Param({"10000", "100000", "2000000"})
+    private int applications;
+
+    private PrefixIndex index;
+    private PrefixIndex written;
+    private String[] keys;
+    private int writes;
+
+    /**
+     * Indexes the keys and names of the fixture applications.
+     */
+    @Setup
+    public void setUp() {
+        var names = new HashMap<String, String>();
+        keys = new String[applications];
+        for (int i = 0; i < applications; i++) {
+            var application = Fixtures.application(i);
+            keys[i] = application.applicationKey();
+            names.put(application.applicationKey(), application.name());
+        }
+        index = PrefixIndex.of(names);
+        written = index;
+    }
+
+    /**
+     * A short prefix matching every application, cut at a page of ten.
+     *
+     * @return the suggestions
+     */
+    @Benchmark
+    public List<PrefixIndex.Match> findShortPrefix() {
+        return index.find("bench", 10);
+    }
+
+    /**
+     * A prefix narrowed down to a handful of applications.
+     *
+     * @return the suggestions
+     */
+    @Benchmark
+    public List<PrefixIndex.Match> findLongPrefix() {
+        return index.find("Benchmark application 4242", 10);
+    }
+
+    /**
+     * Renaming an application in the freshly built index.
+     *
+     * @return the new index
+     */
+    @Benchmark
+    public PrefixIndex rename() {
+        return index.with("benchmark-application-42", "Renamed application");
+    }
+
+    /**
+     * A stream of renames spread over the catalog, each applied to the index
+     * left by the previous one, so that the merges of the written keys into
+     * the sorted arrays are part of the measured cost.
+     *
+     * @return the new index
+     */
+    @Benchmark
+    public PrefixIndex renameStream() {
+        var i = writes++ % applications;
+        written = written.with(keys[(int) (i * 7919L % applications)], "Renamed application");
+        return written;
+    }
+}
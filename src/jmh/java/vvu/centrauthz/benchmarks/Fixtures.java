@@ -0,0 +1,60 @@
+package vvu.centrauthz.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.models.Application;
+
+/**
+ * Representative applications shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private static final UUID OWNER = UUID.fromString("5f0c2a8e-1d3b-4c6f-9a7e-2b8d4e6f1a3c");
+    private static final UUID GROUP = UUID.fromString("8a1e4c7b-3f2d-4b9a-8c5e-7d1f3a9b2e6c");
+    private static final long NOW = 1_760_000_000_000L;
+
+    private Fixtures() {
+        throw new IllegalStateException();
+    }
+
+    static Application application(int i) {
+        return Application.builder()
+                .applicationKey("benchmark-application-" + i)
+                .name("Benchmark application " + i)
+                .description("An application used to measure the cost of per-request work")
+                .ownerId(OWNER)
+                .managementGroupId(GROUP)
+                .createdAt(NOW)
+                .createdBy(OWNER)
+                .updatedAt(NOW + i)
+                .updatedBy(OWNER)
+                .version((long) i)
+                .build();
+    }
+
+    static ApplicationEntity entity(int i) {
+        var e = new ApplicationEntity();
+        e.setApplicationKey("benchmark-application-" + i);
+        e.setName("Benchmark application " + i);
+        e.setDescription("An application used to measure the cost of per-request work");
+        e.setOwnerId(OWNER);
+        e.setManagementGroupId(GROUP);
+        e.setCreatedAt(Instant.ofEpochMilli(NOW));
+        e.setCreatedBy(OWNER);
+        e.setUpdatedAt(Instant.ofEpochMilli(NOW + i));
+        e.setUpdatedBy(OWNER);
+        e.setVersion((long) i);
+        return e;
+    }
+
+    static List<ApplicationEntity> entities(int count) {
+        return IntStream.range(0, count).mapToObj(Fixtures::entity).toList();
+    }
+
+    static List<Application> applications(int count) {
+        return IntStream.range(0, count).mapToObj(Fixtures::application).toList();
+    }
+}
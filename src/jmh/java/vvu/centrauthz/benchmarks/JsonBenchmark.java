@@ -0,0 +1,126 @@
+package vvu.centrauthz.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.models.Error;
+import vvu.centrauthz.models.Page;
+import vvu.centrauthz.utilities.JsonTools;
+
+/**
+ * Jackson (de)serialization of the response and request bodies through
+ * {@link JsonTools#mapper()}.
+ */
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private static final TypeReference<Page<Application, String>> PAGE =
+            new TypeReference<>() { };
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private ObjectMapper mapper;
+    private Application application;
+    private Page<Application, String> page;
+    private Error error;
+    private String applicationJson;
+    private String pageJson;
+    private String errorJson;
+
+    /**
+     * Builds the objects and their JSON forms.
+     *
+     * @throws JsonProcessingException never
+     */
+    @Setup
+    public void setup() throws JsonProcessingException {
+        mapper = JsonTools.mapper();
+        application = Fixtures.application(1);
+        page = Page.<Application, String>builder()
+                .data(Fixtures.applications(pageSize))
+                .next("eyJrIjoiYmVuY2htYXJrLWFwcGxpY2F0aW9uLTk5In0")
+                .build();
+        error = Error.builder()
+                .code("NOT_FOUND")
+                .message("benchmark-application-1 is not found")
+                .details(Map.of("applicationKey", "benchmark-application-1"))
+                .build();
+        applicationJson = mapper.writeValueAsString(application);
+        pageJson = mapper.writeValueAsString(page);
+        errorJson = mapper.writeValueAsString(error);
+    }
+
+    /**
+     * Serializes an application, as for GET of a single application.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException never
+     */
+    @Benchmark
+    public byte[] writeApplication() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(application);
+    }
+
+    /**
+     * Deserializes an application, as for POST and PUT.
+     *
+     * @return the application
+     * @throws JsonProcessingException never
+     */
+    @Benchmark
+    public Application readApplication() throws JsonProcessingException {
+        return mapper.readValue(applicationJson, Application.class);
+    }
+
+    /**
+     * Serializes a page, as for list requests.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException never
+     */
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Deserializes a page, as clients of list requests do.
+     *
+     * @return the page
+     * @throws JsonProcessingException never
+     */
+    @Benchmark
+    public Page<Application, String> readPage() throws JsonProcessingException {
+        return mapper.readValue(pageJson, PAGE);
+    }
+
+    /**
+     * Serializes an error response.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException never
+     */
+    @Benchmark
+    public byte[] writeError() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(error);
+    }
+
+    /**
+     * Deserializes an error response.
+     *
+     * @return the error
+     * @throws JsonProcessingException never
+     */
+    @Benchmark
+    public Error readError() throws JsonProcessingException {
+        return mapper.readValue(errorJson, Error.class);
+    }
+}
@@ -0,0 +1,66 @@
+package vvu.centrauthz.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
+import vvu.centrauthz.models.Patcher;
+
+/**
+ * Application of PATCH requests, to a locked entity through
+ * {@link Patcher#having} and to a DTO through {@link ApplicationPatcher#patch}.
+ */
+@State(Scope.Benchmark)
+public class PatcherBenchmark {
+
+    private Patcher<ApplicationPatcher> patcher;
+    private ApplicationEntity entity;
+    private Application application;
+
+    /**
+     * Builds a patch of two of the four patchable fields.
+     */
+    @Setup
+    public void setup() {
+        patcher = Patcher.<ApplicationPatcher>builder()
+                .fields(List.of("name", "ownerId"))
+                .data(ApplicationPatcher.builder()
+                        .name("Patched application")
+                        .ownerId(UUID.fromString("0b6d3f1e-7a2c-4e8b-9d5f-1c3a7e9b2d4f"))
+                        .build())
+                .build();
+        entity = Fixtures.entity(1);
+        application = Fixtures.application(1);
+    }
+
+    /**
+     * Patches an entity in place, as ApplicationService.patch does.
+     *
+     * @return the patched entity
+     */
+    @Benchmark
+    public ApplicationEntity having() {
+        var e = entity;
+        patcher
+                .having("name", d -> e.setName(d.name()))
+                .having("description", d -> e.setDescription(d.description()))
+                .having("ownerId", d -> e.setOwnerId(d.ownerId()))
+                .having("managementGroupId", d -> e.setManagementGroupId(d.managementGroupId()));
+        return e;
+    }
+
+    /**
+     * Patches a DTO into a new one.
+     *
+     * @return the patched DTO
+     */
+    @Benchmark
+    public Application patch() {
+        return ApplicationPatcher.patch(application, patcher);
+    }
+}
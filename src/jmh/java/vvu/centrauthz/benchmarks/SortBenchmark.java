@@ -0,0 +1,37 @@
+package vvu.centrauthz.benchmarks;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import vvu.centrauthz.domains.common.models.Sort;
+
+/**
+ * Parsing of the {@code sort} query parameter of list requests.
+ */
+@State(Scope.Benchmark)
+public class SortBenchmark {
+
+    private String single = "name:desc";
+    private String multiple = "name:DESC, createdAt:asc,applicationKey";
+
+    /**
+     * A single field with a direction.
+     *
+     * @return the parsed sort
+     */
+    @Benchmark
+    public Sort from() {
+        return Sort.from(single);
+    }
+
+    /**
+     * Several comma-separated fields, with and without directions.
+     *
+     * @return the parsed sorts
+     */
+    @Benchmark
+    public List<Sort> list() {
+        return Sort.list(multiple);
+    }
+}
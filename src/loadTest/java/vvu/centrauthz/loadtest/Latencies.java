@@ -0,0 +1,60 @@
+package vvu.centrauthz.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Fixed-size recorder of request latencies.
+ *
+ * <p>Each request owns one slot, so concurrent clients record without
+ * coordination. Percentiles are computed once, after the run.</p>
+ */
+final class Latencies {
+
+    private final long[] nanos;
+
+    Latencies(int size) {
+        this.nanos = new long[size];
+    }
+
+    void record(int index, long elapsedNanos) {
+        nanos[index] = elapsedNanos;
+    }
+
+    /**
+     * Summarizes the recorded latencies.
+     *
+     * @param elapsed the wall-clock duration of the run
+     * @return the summary
+     */
+    Summary summarize(Duration elapsed) {
+        var sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return new Summary(
+                sorted.length,
+                sorted.length / Math.max(elapsed.toNanos() / 1e9, 1e-9),
+                percentile(sorted, 50),
+                percentile(sorted, 99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    /**
+     * Latency summary of a run.
+     *
+     * @param requests the number of requests
+     * @param throughput requests per second
+     * @param p50 median latency in nanoseconds
+     * @param p99 99th percentile latency in nanoseconds
+     * @param max maximum latency in nanoseconds
+     */
+    record Summary(int requests, double throughput, long p50, long p99, long max) {
+    }
+}
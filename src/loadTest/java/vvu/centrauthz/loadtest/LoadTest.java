@@ -0,0 +1,321 @@
+package vvu.centrauthz.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives a mix of requests against the application at fixed arrival rates.
+ *
+ * <p>A {@link LocalDatabase} is started and seeded with
+ * {@code --applications} applications, then the packaged application is
+ * started against it. For each rate of {@code --rates} (requests per second),
+ * requests are issued on schedule for {@code --warmup} seconds, whose results
+ * are discarded, then for {@code --duration} seconds. Requests are sent on
+ * schedule whether or not earlier ones have completed, and latency is
+ * measured from the scheduled time, so that a slow server shows up as
+ * latency instead of as a lower request rate.</p>
+ *
+ * <p>The operations are picked at random with the weights of {@code --mix},
+ * such as {@code GET=60,LIST=10,POST=10,PUT=10,PATCH=5,DELETE=5}. GET, PUT
+ * and PATCH target seeded applications, and DELETE removes applications
+ * created by POST during the run (or, when there are none left, a key that
+ * does not exist).</p>
+ *
+ * <p>Other options: {@code --jar <path>}, {@code --port <port>},
+ * {@code --page-size <size>} of LIST, {@code --jdbc-url <url>} to use an
+ * existing database and {@code --migrations <directory>}.</p>
+ */
+public final class LoadTest {
+
+    private static final String PREFIX = "load-test-";
+    private static final String DEFAULT_MIX = "GET=60,LIST=10,POST=10,PUT=10,PATCH=5,DELETE=5";
+    private static final String USER = UUID.randomUUID().toString();
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ConcurrentLinkedQueue<String> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+
+    private URI base;
+    private URI collection;
+    private URI list;
+    private int applications;
+    private int pageSize;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args the command line options
+     * @throws Exception if the database or the application cannot be started
+     */
+    public static void main(String[] args) throws Exception {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        applications = Integer.parseInt(option("applications", "10000"));
+        pageSize = Integer.parseInt(option("page-size", "20"));
+        var mix = Mix.parse(option("mix", DEFAULT_MIX));
+        var rates = Arrays.stream(option("rates", "100,500,1000").split(","))
+                .map(String::trim)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        var warmup = Duration.ofSeconds(Long.parseLong(option("warmup", "10")));
+        var duration = Duration.ofSeconds(Long.parseLong(option("duration", "30")));
+
+        try (var database = LocalDatabase.start(options.get("jdbc-url"),
+                Path.of(option("migrations", "flyway/db/migration")))) {
+            database.seed(PREFIX, applications);
+            try (var application = LocalApplication.start(
+                    option("jar", "build/quarkus-app/quarkus-run.jar"),
+                    option("port", "3000"),
+                    database.properties(),
+                    "load-test",
+                    client)) {
+                base = application.base();
+                collection = URI.create(base.toString().replaceFirst("/$", ""));
+                list = URI.create(collection + "?pageSize=" + pageSize);
+
+                System.out.printf("%8s %-7s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                        "rate", "op", "requests", "req/s",
+                        "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+                for (var rate : rates) {
+                    drive(mix, rate, warmup);
+                    drive(mix, rate, duration).print(rate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends requests at a fixed rate for a duration and waits for all of them
+     * to complete.
+     */
+    private Stage drive(Mix mix, double rate, Duration duration) {
+        var stage = new Stage();
+        var interval = (long) (1e9 / rate);
+        var requests = duration.toNanos() / interval;
+
+        var started = System.nanoTime();
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                var scheduled = started + i * interval;
+                for (var delay = scheduled - System.nanoTime(); delay > 0;
+                        delay = scheduled - System.nanoTime()) {
+                    LockSupport.parkNanos(delay);
+                }
+                var operation = mix.next();
+                clients.submit(() -> {
+                    var succeeded = send(operation);
+                    stage.record(operation, System.nanoTime() - scheduled, succeeded);
+                });
+            }
+        }
+        stage.elapsed = Duration.ofNanos(System.nanoTime() - started);
+        return stage;
+    }
+
+    /**
+     * Sends one request of an operation.
+     *
+     * @return whether the response had the expected status
+     */
+    private boolean send(Operation operation) {
+        try {
+            return switch (operation) {
+                case GET -> send(HttpRequest.newBuilder(base.resolve(seeded())).GET(), 200);
+                case LIST -> send(HttpRequest.newBuilder(list).GET(), 200);
+                case POST -> {
+                    var key = PREFIX + run + "-" + sequence.incrementAndGet();
+                    var ok = send(HttpRequest.newBuilder(collection)
+                            .POST(json(application(key))), 201);
+                    if (ok) {
+                        created.add(key);
+                    }
+                    yield ok;
+                }
+                case PUT -> {
+                    var key = seeded();
+                    yield send(HttpRequest.newBuilder(base.resolve(key))
+                            .PUT(json(application(key))), 204);
+                }
+                case PATCH -> send(HttpRequest.newBuilder(base.resolve(seeded()))
+                        .method("PATCH", json("{\"fields\":[\"description\"],"
+                                + "\"data\":{\"description\":\"Patched at "
+                                + System.nanoTime() + "\"}}")), 204);
+                case DELETE -> {
+                    var key = created.poll();
+                    yield Objects.isNull(key)
+                            ? send(HttpRequest.newBuilder(base.resolve(PREFIX + "missing"))
+                                    .DELETE(), 404)
+                            : send(HttpRequest.newBuilder(base.resolve(key)).DELETE(), 204);
+                }
+            };
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean send(HttpRequest.Builder request, int expected)
+            throws IOException, InterruptedException {
+        var response = client.send(request
+                        .header("Content-Type", "application/json")
+                        .header("X-Auth-Request-User-Id", USER)
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() == expected;
+    }
+
+    private String seeded() {
+        return PREFIX + ThreadLocalRandom.current().nextInt(applications);
+    }
+
+    private static String application(String key) {
+        return "{\"applicationKey\":\"" + key + "\","
+                + "\"name\":\"Load test application " + key + "\","
+                + "\"description\":\"Written by the load test harness\","
+                + "\"ownerId\":\"" + USER + "\"}";
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Request types of the mix.
+     */
+    enum Operation { GET, LIST, POST, PUT, PATCH, DELETE }
+
+    /**
+     * Weighted random choice of operations.
+     */
+    private record Mix(Operation[] operations, int[] cumulative) {
+
+        /**
+         * Parses weights such as {@code GET=80,PUT=20}; omitted operations are
+         * never picked.
+         */
+        static Mix parse(String weights) {
+            var parsed = new EnumMap<Operation, Integer>(Operation.class);
+            for (var weight : weights.split(",")) {
+                var parts = weight.trim().split("=", 2);
+                parsed.put(Operation.valueOf(parts[0].trim().toUpperCase()),
+                        Integer.parseInt(parts[1].trim()));
+            }
+
+            var operations = parsed.keySet().toArray(Operation[]::new);
+            var cumulative = new int[operations.length];
+            var total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += parsed.get(operations[i]);
+                cumulative[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException(
+                        "The mix must have a positive weight: " + weights);
+            }
+            return new Mix(operations, cumulative);
+        }
+
+        Operation next() {
+            var pick = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (pick < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Latencies, in microseconds, and failures of one rate.
+     */
+    private static final class Stage {
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+        private final Histogram all = new ConcurrentHistogram(3);
+        private final LongAdder failed = new LongAdder();
+        private Duration elapsed;
+
+        Stage() {
+            for (var operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(3));
+                failures.put(operation, new LongAdder());
+            }
+        }
+
+        void record(Operation operation, long nanos, boolean succeeded) {
+            var micros = Math.max(nanos / 1000, 1);
+            latencies.get(operation).recordValue(micros);
+            all.recordValue(micros);
+            if (!succeeded) {
+                failures.get(operation).increment();
+                failed.increment();
+            }
+        }
+
+        void print(double rate) {
+            for (var operation : Operation.values()) {
+                var histogram = latencies.get(operation);
+                if (histogram.getTotalCount() > 0) {
+                    print(rate, operation.name(), histogram, failures.get(operation).sum());
+                }
+            }
+            print(rate, "ALL", all, failed.sum());
+        }
+
+        private void print(double rate, String operation, Histogram histogram, long errors) {
+            System.out.printf("%8.0f %-7s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    rate,
+                    operation,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / (elapsed.toNanos() / 1e9),
+                    histogram.getValueAtPercentile(50) / 1e3,
+                    histogram.getValueAtPercentile(90) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3,
+                    histogram.getMaxValue() / 1e3,
+                    errors);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package vvu.centrauthz.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * The packaged application, started as a child process.
+ *
+ * <p>Its output goes to {@code build/loadtest/<name>.log}.</p>
+ */
+final class LocalApplication implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final Process process;
+    private final URI base;
+
+    private LocalApplication(Process process, URI base) {
+        this.process = process;
+        this.base = base;
+    }
+
+    /**
+     * Starts the application and waits until it serves requests.
+     *
+     * @param jar the path of {@code quarkus-run.jar}
+     * @param port the HTTP port
+     * @param properties system properties overriding the configuration
+     * @param name the name of the log file
+     * @param client the client used to poll for readiness
+     * @return the running application
+     * @throws IOException if the process cannot be started
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static LocalApplication start(String jar,
+                                  String port,
+                                  Map<String, String> properties,
+                                  String name,
+                                  HttpClient client)
+            throws IOException, InterruptedException {
+        var logs = Path.of("build", "loadtest");
+        Files.createDirectories(logs);
+
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dquarkus.http.port=" + port);
+        properties.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add("-jar");
+        command.add(jar);
+
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logs.resolve(name + ".log").toFile())
+                .start();
+        var application = new LocalApplication(
+                process, URI.create("http://localhost:" + port + "/v0/applications/"));
+        try {
+            application.awaitStartup(client);
+        } catch (RuntimeException | InterruptedException e) {
+            application.close();
+            throw e;
+        }
+        return application;
+    }
+
+    /**
+     * Returns the base URI of the applications resource, with a trailing slash.
+     *
+     * @return the base URI
+     */
+    URI base() {
+        return base;
+    }
+
+    private void awaitStartup(HttpClient client) throws InterruptedException {
+        var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(
+                        "Application exited with " + process.exitValue() + ", see build/loadtest");
+            }
+            try {
+                client.send(HttpRequest.newBuilder(base).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException expected) {
+                Thread.sleep(250);
+            }
+        }
+        throw new IllegalStateException("Application did not start within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        process.waitFor();
+    }
+}
@@ -0,0 +1,177 @@
+package vvu.centrauthz.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL database the application under load runs against.
+ *
+ * <p>By default an embedded PostgreSQL server is started from the binaries
+ * bundled with the harness, and the Flyway migrations of the project are
+ * applied to a fresh {@code application} database. When the embedded server
+ * can not be started (for instance on a platform without bundled binaries),
+ * or with {@code --jdbc-url}, the database configured through
+ * {@code DB_USERNAME} and {@code DB_PASSWORD} is used instead; it must
+ * already be migrated.</p>
+ */
+final class LocalDatabase implements AutoCloseable {
+
+    private static final Pattern MIGRATION = Pattern.compile("V(\\d+)__.*\\.sql");
+    private static final String DATABASE = "application";
+
+    private final EmbeddedPostgres embedded;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private LocalDatabase(EmbeddedPostgres embedded,
+                          String url,
+                          String username,
+                          String password) {
+        this.embedded = embedded;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Starts an embedded database, or falls back to an external one.
+     *
+     * @param jdbcUrl the URL of an external database to use, or null to start
+     *                an embedded one
+     * @param migrations the directory of the Flyway migrations
+     * @return the database
+     * @throws IOException if the migrations can not be read
+     * @throws SQLException if the migrations fail
+     */
+    static LocalDatabase start(String jdbcUrl, Path migrations) throws IOException, SQLException {
+        if (Objects.isNull(jdbcUrl)) {
+            try {
+                return embedded(migrations);
+            } catch (IOException | IllegalStateException e) {
+                System.err.println("Embedded PostgreSQL is not available (" + e
+                        + "), using the database configured through DB_USERNAME");
+            }
+        }
+        return new LocalDatabase(null,
+                Objects.requireNonNullElse(jdbcUrl, "jdbc:postgresql://localhost:5432/" + DATABASE),
+                System.getenv("DB_USERNAME"),
+                System.getenv("DB_PASSWORD"));
+    }
+
+    private static LocalDatabase embedded(Path migrations) throws IOException, SQLException {
+        var postgres = EmbeddedPostgres.builder().start();
+        try {
+            try (var connection = postgres.getPostgresDatabase().getConnection();
+                 var statement = connection.createStatement()) {
+                statement.execute("CREATE DATABASE " + DATABASE);
+            }
+            var database = new LocalDatabase(postgres,
+                    postgres.getJdbcUrl("postgres", DATABASE), "postgres", "postgres");
+            database.migrate(migrations);
+            return database;
+        } catch (IOException | SQLException | RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the versioned migrations of a directory in version order.
+     */
+    private void migrate(Path migrations) throws IOException, SQLException {
+        try (var files = Files.list(migrations);
+             var connection = connect();
+             var statement = connection.createStatement()) {
+            var scripts = files
+                    .filter(f -> MIGRATION.matcher(f.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(LocalDatabase::version))
+                    .toList();
+            for (var script : scripts) {
+                statement.execute(Files.readString(script));
+            }
+        }
+    }
+
+    private static int version(Path script) {
+        var matcher = MIGRATION.matcher(script.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(script.toString());
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * Inserts {@code count} generated applications, keyed {@code prefix}
+     * followed by their index, unless they already exist.
+     *
+     * @param prefix the key prefix
+     * @param count the number of applications
+     * @throws SQLException if the inserts fail
+     */
+    void seed(String prefix, int count) throws SQLException {
+        var now = Timestamp.from(Instant.now());
+        try (var connection = connect()) {
+            connection.setAutoCommit(false);
+            try (var insert = connection.prepareStatement("""
+                         INSERT INTO application (application_key, name, description, owner_id,
+                             created_at, created_by, updated_at, updated_by, version)
+                         VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+                         ON CONFLICT (application_key) DO NOTHING
+                         """)) {
+                for (int i = 0; i < count; i++) {
+                    var owner = UUID.randomUUID();
+                    insert.setString(1, prefix + i);
+                    insert.setString(2, "Load test application " + i);
+                    insert.setString(3, "Seeded by the load test harness");
+                    insert.setObject(4, owner);
+                    insert.setTimestamp(5, now);
+                    insert.setObject(6, owner);
+                    insert.setTimestamp(7, now);
+                    insert.setObject(8, owner);
+                    insert.addBatch();
+                    if ((i + 1) % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * Returns the configuration pointing the application to this database.
+     *
+     * @return the datasource properties
+     */
+    Map<String, String> properties() {
+        return Map.of(
+                "quarkus.datasource.jdbc.url", url,
+                "quarkus.datasource.username", Objects.requireNonNullElse(username, ""),
+                "quarkus.datasource.password", Objects.requireNonNullElse(password, ""));
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(embedded)) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package vvu.centrauthz.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the per-request cost of the read path.
+ *
+ * <p>A {@link LocalDatabase} is seeded and the packaged application is
+ * started against it with the cache disabled, so that every GET reaches the
+ * database. Closed-loop GETs of random keys and then LISTs are driven
+ * against it. For each phase, throughput and latency are printed, together
+ * with the Hibernate and connection pool counters of {@code /q/metrics}
+ * divided by the number of requests: entities loaded, flushes, transactions
+ * and connections acquired per request.</p>
+ *
+ * <p>With {@code --baseline-jar <path>}, a previous build is measured the same
+ * way first and printed above the current one, which shows what a change to
+ * the read path saves.</p>
+ *
+ * <p>Other options: {@code --jar <path>}, {@code --port <port>},
+ * {@code --applications <count>}, {@code --requests <count>},
+ * {@code --concurrency <clients>}, {@code --jdbc-url <url>} and
+ * {@code --migrations <directory>}.</p>
+ */
+public final class ReadPathBenchmark {
+
+    private static final String PREFIX = "read-path-";
+
+    /**
+     * Counters reported per request, by Prometheus name.
+     */
+    private static final Map<String, String> COUNTERS = new LinkedHashMap<>();
+
+    static {
+        COUNTERS.put("hibernate_entities_loads_total", "loads");
+        COUNTERS.put("hibernate_flushes_total", "flushes");
+        COUNTERS.put("hibernate_transactions_total", "txs");
+        COUNTERS.put("agroal_acquire_count_total", "acquires");
+    }
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private ReadPathBenchmark(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the command line options
+     * @throws Exception if the database or the application cannot be started
+     */
+    public static void main(String[] args) throws Exception {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new ReadPathBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        var jars = new LinkedHashMap<String, String>();
+        if (options.containsKey("baseline-jar")) {
+            jars.put("baseline", options.get("baseline-jar"));
+        }
+        jars.put("current", option("jar", "build/quarkus-app/quarkus-run.jar"));
+
+        var applications = Integer.parseInt(option("applications", "1000"));
+        var results = new ArrayList<String>();
+        try (var database = LocalDatabase.start(options.get("jdbc-url"),
+                Path.of(option("migrations", "flyway/db/migration")))) {
+            database.seed(PREFIX, applications);
+            for (var jar : jars.entrySet()) {
+                results.addAll(measure(jar.getKey(), jar.getValue(), database, applications));
+            }
+        }
+
+        var header = new StringBuilder(String.format("%-10s %-6s %10s %10s %10s",
+                "build", "op", "req/s", "p50 ms", "p99 ms"));
+        COUNTERS.values().forEach(name -> header.append(String.format(" %10s", name + "/req")));
+        System.out.println(header);
+        results.forEach(System.out::println);
+    }
+
+    private List<String> measure(String build,
+                                 String jar,
+                                 LocalDatabase database,
+                                 int applications) throws Exception {
+        var properties = new HashMap<>(database.properties());
+        properties.put("centrauthz.applications.cache.enabled", "false");
+
+        try (var application = LocalApplication.start(
+                jar, option("port", "3000"), properties, "read-path-" + build, client)) {
+            var base = application.base();
+            var list = URI.create(base.toString().replaceFirst("/$", "?pageSize=20"));
+            var requests = Integer.parseInt(option("requests", "20000"));
+            var concurrency = Integer.parseInt(option("concurrency", "50"));
+
+            IntFunction<URI> get = i -> base.resolve(
+                    PREFIX + ThreadLocalRandom.current().nextInt(applications));
+            IntFunction<URI> page = i -> list;
+
+            drive(get, Math.max(requests / 10, 1), concurrency);
+            return List.of(
+                    phase(build, "GET", base, get, requests, concurrency),
+                    phase(build, "LIST", base, page, requests, concurrency));
+        }
+    }
+
+    private String phase(String build,
+                         String operation,
+                         URI base,
+                         IntFunction<URI> target,
+                         int requests,
+                         int concurrency) throws IOException, InterruptedException {
+        var before = counters(base);
+        var summary = drive(target, requests, concurrency);
+        var after = counters(base);
+
+        var line = new StringBuilder(String.format("%-10s %-6s %10.1f %10.2f %10.2f",
+                build, operation, summary.throughput(), summary.p50() / 1e6, summary.p99() / 1e6));
+        for (var name : COUNTERS.keySet()) {
+            var delta = after.getOrDefault(name, 0.0) - before.getOrDefault(name, 0.0);
+            line.append(String.format(" %10.2f", delta / requests));
+        }
+        return line.toString();
+    }
+
+    private Latencies.Summary drive(IntFunction<URI> target, int requests, int concurrency) {
+        var latencies = new Latencies(requests);
+        var next = new AtomicInteger();
+        var failures = new AtomicInteger();
+
+        var started = System.nanoTime();
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        var request = HttpRequest.newBuilder(target.apply(i))
+                                .header("X-Auth-Request-User-Id", UUID.randomUUID().toString())
+                                .GET()
+                                .build();
+                        var sent = System.nanoTime();
+                        try {
+                            var response = client.send(request,
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies.record(i, System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        if (failures.get() > 0) {
+            System.err.println(failures.get() + " of " + requests + " requests failed");
+        }
+        return latencies.summarize(elapsed);
+    }
+
+    /**
+     * Scrapes the reported counters, summed over all their tags.
+     */
+    private Map<String, Double> counters(URI base) throws IOException, InterruptedException {
+        var metrics = client.send(
+                HttpRequest.newBuilder(base.resolve("/q/metrics")).GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        var values = new HashMap<String, Double>();
+        metrics.body()
+                .filter(line -> !line.startsWith("#"))
+                .forEach(line -> {
+                    var name = line.split("[{ ]", 2)[0];
+                    if (COUNTERS.containsKey(name)) {
+                        var value = Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+                        values.merge(name, value, Double::sum);
+                    }
+                });
+        return values;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
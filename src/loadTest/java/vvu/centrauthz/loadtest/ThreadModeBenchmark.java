@@ -0,0 +1,151 @@
+package vvu.centrauthz.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the platform-thread and virtual-thread execution modes.
+ *
+ * <p>The packaged application is started once per mode, with
+ * {@code quarkus.virtual-threads.enabled} set accordingly, against the
+ * database configured through the usual {@code DB_*} environment variables.
+ * A closed-loop load of concurrent GET requests is then driven against it,
+ * and throughput and latency percentiles of both runs are printed side by
+ * side.</p>
+ *
+ * <p>Options: {@code --jar <path>}, {@code --port <port>},
+ * {@code --requests <count>}, {@code --concurrency <clients>} and
+ * {@code --path <path>}, relative to {@code /v0/applications/}. The default
+ * path reads a single application, which is mostly served from the cache;
+ * a list such as {@code ?pageSize=100} exercises the database on every
+ * request.</p>
+ */
+public final class ThreadModeBenchmark {
+
+    private static final String APPLICATION_KEY = "thread-mode-benchmark";
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private ThreadModeBenchmark(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the command line options
+     * @throws Exception if the application cannot be started or driven
+     */
+    public static void main(String[] args) throws Exception {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new ThreadModeBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        var results = new ArrayList<String>();
+        for (var virtualThreads : List.of(false, true)) {
+            var summary = measure(virtualThreads);
+            results.add(String.format("%-16s %10d %12.1f %10.2f %10.2f %10.2f",
+                    virtualThreads ? "virtual" : "platform",
+                    summary.requests(),
+                    summary.throughput(),
+                    summary.p50() / 1e6,
+                    summary.p99() / 1e6,
+                    summary.max() / 1e6));
+        }
+
+        System.out.printf("%-16s %10s %12s %10s %10s %10s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "max ms");
+        results.forEach(System.out::println);
+    }
+
+    private Latencies.Summary measure(boolean virtualThreads) throws Exception {
+        try (var application = LocalApplication.start(
+                option("jar", "build/quarkus-app/quarkus-run.jar"),
+                option("port", "3000"),
+                Map.of("quarkus.virtual-threads.enabled", Boolean.toString(virtualThreads)),
+                "thread-mode-" + virtualThreads,
+                client)) {
+            var base = application.base();
+            seed(base);
+
+            var requests = Integer.parseInt(option("requests", "20000"));
+            var concurrency = Integer.parseInt(option("concurrency", "200"));
+            var target = base.resolve(option("path", APPLICATION_KEY));
+            drive(target, Math.max(requests / 10, 1), concurrency);
+            return drive(target, requests, concurrency);
+        }
+    }
+
+    private void seed(URI base) throws IOException, InterruptedException {
+        var body = "{\"applicationKey\":\"" + APPLICATION_KEY + "\","
+                + "\"name\":\"Thread mode benchmark\","
+                + "\"ownerId\":\"" + UUID.randomUUID() + "\"}";
+        var uri = base.resolve(APPLICATION_KEY + "?force=true");
+        var response = client.send(HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .header("X-Auth-Request-User-Id", UUID.randomUUID().toString())
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+        }
+    }
+
+    private Latencies.Summary drive(URI uri, int requests, int concurrency) {
+        var latencies = new Latencies(requests);
+        var next = new AtomicInteger();
+        var failures = new AtomicInteger();
+        var request = HttpRequest.newBuilder(uri).GET().build();
+
+        var started = System.nanoTime();
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        var sent = System.nanoTime();
+                        try {
+                            var response = client.send(request,
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies.record(i, System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        if (failures.get() > 0) {
+            System.err.println(failures.get() + " of " + requests + " requests failed");
+        }
+        return latencies.summarize(elapsed);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
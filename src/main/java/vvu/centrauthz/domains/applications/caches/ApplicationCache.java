@@ -0,0 +1,371 @@
+package vvu.centrauthz.domains.applications.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.models.Application;
+
+/**
+ * Bounded, TTL-evicting, in-process cache of application DTOs keyed by
+ * application key.
+ *
+ * <p>Loads are single-flight: while an application is being loaded, other
+ * readers of the same key wait for that load instead of starting their own,
+ * whether the cache is enabled or not. This keeps the expiry of a popular
+ * entry from stampeding the database.</p>
+ *
+ * <p>Entries are invalidated once a write has committed. The invalidation
+ * also detaches the load in flight for the key, if any: later readers start a
+ * new load, and the detached one is not stored, so a load racing with a
+ * commit can not resurrect the old value. Loads that fill the cache after an
+ * invalidation read at a position taken after it, see {@link #fillToken}.</p>
+ *
+ * <p>Keys found not to exist are remembered for a short time in a separate
+ * negative cache, so repeated probes for a missing key do not reach the
+ * database either. A create invalidates the negative entry like any other
+ * write.</p>
+ *
+ * <p>Hit, miss and eviction counters are published through Micrometer under
+ * the {@code applications} and {@code applications.missing} cache names,
+ * along with the number of reads collapsed into another load.</p>
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
+public class ApplicationCache implements MeterBinder {
+
+    public static final String NAME = "applications";
+    public static final String MISSING_NAME = NAME + ".missing";
+
+    private final Cache<String, Application> cache;
+    private final Cache<String, Boolean> missing;
+    private final ConcurrentMap<String, CompletableFuture<Application>> loads =
+            new ConcurrentHashMap<>();
+    private final LongAdder collapsed = new LongAdder();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicReference<Fence> fence = new AtomicReference<>(new Fence(0L, null));
+
+    /**
+     * Creates the cache from the application configuration.
+     *
+     * @param config the applications configuration
+     */
+    @Inject
+    public ApplicationCache(ApplicationConfig config) {
+        this(config.cache().enabled(),
+                config.cache().maximumSize(),
+                config.cache().expireAfterWrite(),
+                config.cache().negativeExpireAfterWrite());
+    }
+
+    /**
+     * Creates the cache without negative caching.
+     *
+     * @param enabled whether caching is enabled; when false every read is a load
+     * @param maximumSize maximum number of entries
+     * @param expireAfterWrite time to live of an entry
+     */
+    public ApplicationCache(boolean enabled, long maximumSize, Duration expireAfterWrite) {
+        this(enabled, maximumSize, expireAfterWrite, Duration.ZERO);
+    }
+
+    /**
+     * Creates the cache.
+     *
+     * @param enabled whether caching is enabled; when false every read is a load
+     * @param maximumSize maximum number of entries, in each of the caches
+     * @param expireAfterWrite time to live of an entry
+     * @param negativeExpireAfterWrite time to live of a negative entry; zero
+     *                                 disables the negative cache
+     */
+    public ApplicationCache(boolean enabled,
+                            long maximumSize,
+                            Duration expireAfterWrite,
+                            Duration negativeExpireAfterWrite) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(expireAfterWrite)
+                    .recordStats()
+                    .<String, Application>build()
+                : null;
+        this.missing = enabled && negativeExpireAfterWrite.isPositive()
+                ? Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(negativeExpireAfterWrite)
+                    .recordStats()
+                    .<String, Boolean>build()
+                : null;
+    }
+
+    /**
+     * Returns the cached application, loading it on a miss.
+     *
+     * <p>Concurrent misses of the same key share one load. The loader returns
+     * null when the application does not exist, which is returned as is and
+     * remembered in the negative cache. Exceptions thrown by the loader propagate to every caller
+     * sharing the load and nothing is cached.</p>
+     *
+     * @param applicationKey the application key
+     * @param loader loads the application on a miss
+     * @return the application, or null if it does not exist
+     */
+    public Application get(String applicationKey, Function<String, Application> loader) {
+        if (Objects.nonNull(cache)) {
+            var cached = cache.getIfPresent(applicationKey);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+        }
+        if (isMissing(applicationKey)) {
+            return null;
+        }
+
+        var load = new CompletableFuture<Application>();
+        var inFlight = loads.putIfAbsent(applicationKey, load);
+        if (Objects.nonNull(inFlight)) {
+            collapsed.increment();
+            return await(inFlight);
+        }
+
+        try {
+            var application = loader.apply(applicationKey);
+            store(applicationKey, load, application);
+            load.complete(application);
+            return application;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(applicationKey, load);
+        }
+    }
+
+    /**
+     * Returns many applications, loading the uncached ones together.
+     *
+     * <p>Keys already being loaded, by {@link #get} or another bulk read, wait
+     * for that load; the others are passed to a single call of the loader.
+     * Applications loaded here are not put into the cache, while keys found
+     * missing are put into the negative cache.</p>
+     *
+     * @param applicationKeys the application keys
+     * @param loader loads the applications of the given keys, omitting the
+     *               ones that do not exist
+     * @return the existing applications by key
+     */
+    public Map<String, Application> getAll(
+            Collection<String> applicationKeys,
+            Function<Set<String>, Map<String, Application>> loader) {
+        var found = new HashMap<String, Application>();
+        var owned = new LinkedHashMap<String, CompletableFuture<Application>>();
+        var awaited = new LinkedHashMap<String, CompletableFuture<Application>>();
+
+        for (var key : applicationKeys) {
+            var cached = getIfPresent(key);
+            if (cached.isPresent()) {
+                found.put(key, cached.get());
+                continue;
+            }
+            if (isMissing(key)) {
+                continue;
+            }
+
+            var load = new CompletableFuture<Application>();
+            var inFlight = loads.putIfAbsent(key, load);
+            if (Objects.isNull(inFlight)) {
+                owned.put(key, load);
+            } else if (!owned.containsKey(key) && Objects.isNull(awaited.put(key, inFlight))) {
+                collapsed.increment();
+            }
+        }
+
+        // Complete the own loads before awaiting others, so that two bulk
+        // reads sharing keys can not wait for each other.
+        if (!owned.isEmpty()) {
+            try {
+                var loaded = loader.apply(owned.keySet());
+                owned.forEach((key, load) -> {
+                    var application = loaded.get(key);
+                    if (Objects.nonNull(application)) {
+                        found.put(key, application);
+                    } else {
+                        storeMissing(key, load);
+                    }
+                    load.complete(application);
+                });
+            } catch (RuntimeException | Error e) {
+                owned.values().forEach(load -> load.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(loads::remove);
+            }
+        }
+
+        awaited.forEach((key, load) -> {
+            var application = await(load);
+            if (Objects.nonNull(application)) {
+                found.put(key, application);
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Returns the cached application without loading it.
+     *
+     * @param applicationKey the application key
+     * @return the cached application, if any
+     */
+    public Optional<Application> getIfPresent(String applicationKey) {
+        if (Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(applicationKey));
+    }
+
+    /**
+     * Drops the entry of an application.
+     *
+     * @param applicationKey the application key
+     */
+    public void invalidate(String applicationKey) {
+        // Counted before the load is detached, so every load that may still
+        // be stored sees the invalidation in fillToken.
+        invalidations.incrementAndGet();
+        loads.remove(applicationKey);
+        if (Objects.nonNull(cache)) {
+            cache.invalidate(applicationKey);
+        }
+        if (Objects.nonNull(missing)) {
+            missing.invalidate(applicationKey);
+        }
+    }
+
+    /**
+     * Returns the consistency token the loads filling the cache must observe.
+     *
+     * <p>An entry invalidated by a write must not be filled again from a read
+     * replica that has not replayed the write yet: the old value, or a key
+     * missing after its creation, would then be cached for a whole time to
+     * live. Fills therefore read at a position taken after the last
+     * invalidation. The position is asked for at most once per burst of
+     * invalidations and shared by the fills that follow; fills before the
+     * first invalidation need no token.</p>
+     *
+     * @param position returns the current position of the primary, or empty
+     *                 when reads are not routed to a replica
+     * @return the token, or null when fills may read from anywhere
+     */
+    public String fillToken(Supplier<Optional<String>> position) {
+        var seen = invalidations.get();
+        var current = fence.get();
+        if (current.invalidations() >= seen) {
+            return current.token();
+        }
+
+        var token = position.get().orElse(null);
+        fence.accumulateAndGet(new Fence(seen, token),
+                (a, b) -> a.invalidations() >= b.invalidations() ? a : b);
+        return token;
+    }
+
+    /**
+     * Invalidates the changed application once its transaction has committed.
+     *
+     * @param event the change event
+     */
+    void onChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ApplicationChangedEvent event) {
+        invalidate(event.applicationKey());
+    }
+
+    private boolean isMissing(String applicationKey) {
+        return Objects.nonNull(missing) && Objects.nonNull(missing.getIfPresent(applicationKey));
+    }
+
+    /**
+     * Stores the result of a load unless the load has been detached by an
+     * invalidation in the meantime. The check runs inside the compute of the
+     * entry, which {@link #invalidate} serializes with after detaching.
+     */
+    private void store(String applicationKey,
+                       CompletableFuture<Application> load,
+                       Application application) {
+        if (Objects.isNull(application)) {
+            storeMissing(applicationKey, load);
+        } else if (Objects.nonNull(cache)) {
+            cache.asMap().compute(applicationKey,
+                    (k, current) -> loads.get(k) == load ? application : current);
+        }
+    }
+
+    private void storeMissing(String applicationKey, CompletableFuture<Application> load) {
+        if (Objects.nonNull(missing)) {
+            missing.asMap().compute(applicationKey,
+                    (k, current) -> loads.get(k) == load ? Boolean.TRUE : current);
+        }
+    }
+
+    /**
+     * Position taken after a number of invalidations.
+     */
+    private record Fence(long invalidations, String token) {
+    }
+
+    private static Application await(CompletableFuture<Application> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (Objects.nonNull(cache)) {
+            CaffeineCacheMetrics.monitor(registry, cache, NAME);
+        }
+        if (Objects.nonNull(missing)) {
+            CaffeineCacheMetrics.monitor(registry, missing, MISSING_NAME);
+        }
+        FunctionCounter
+                .builder("cache.loads.collapsed", collapsed, LongAdder::doubleValue)
+                .tag("cache", NAME)
+                .description("Reads that waited for a load of the same key in flight")
+                .register(registry);
+    }
+}
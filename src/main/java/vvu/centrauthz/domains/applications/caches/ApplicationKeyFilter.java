@@ -0,0 +1,221 @@
+package vvu.centrauthz.domains.applications.caches;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.repositories.ApplicationHorizon;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.utilities.BloomFilter;
+
+/**
+ * In-memory Bloom filter of the existing application keys.
+ *
+ * <p>A key the filter has never seen does not exist as of its last sync, so
+ * lookups of it can be answered as missing without querying the database.
+ * The filter is built from the database at startup and on every
+ * {@code key-filter.rebuild-every}, and follows the change feed on every
+ * {@code key-filter.sync-every}, which brings in the keys created by other
+ * instances. Keys created through this instance are added as soon as their
+ * transaction has committed. Deleted keys stay in the filter until the next
+ * rebuild, which only costs a query for them.</p>
+ *
+ * <p>A sync covers the changes up to the horizon of the feed, which trails
+ * the transactions still in progress. The filter only rules keys out while
+ * its last sync covers every change committed less than
+ * {@code key-filter.max-staleness} ago, the same window in which a negative
+ * cache entry may hide a key created elsewhere. Until the first build has
+ * completed, when syncs fall behind, and whenever the filter is disabled,
+ * every key is reported as possibly existing.</p>
+ */
+@Slf4j
+@ApplicationScoped
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
+public class ApplicationKeyFilter {
+
+    private final ApplicationRepo repo;
+    private final boolean enabled;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final long maxStaleness;
+
+    private volatile Synced keys;
+    private volatile BloomFilter building;
+
+    /**
+     * Creates the filter from the application configuration.
+     *
+     * @param repo the application repository the filter is built from
+     * @param config the applications configuration
+     */
+    @Inject
+    public ApplicationKeyFilter(ApplicationRepo repo, ApplicationConfig config) {
+        this(repo,
+                config.keyFilter().enabled(),
+                config.keyFilter().expectedKeys(),
+                config.keyFilter().falsePositiveRate(),
+                config.keyFilter().maxStaleness());
+    }
+
+    /**
+     * Creates the filter.
+     *
+     * @param repo the application repository the filter is built from
+     * @param enabled whether the filter is used
+     * @param expectedKeys number of keys the filter is sized for
+     * @param falsePositiveRate target false-positive rate
+     * @param maxStaleness how long after a create elsewhere the filter may
+     *                     still rule the key out
+     */
+    public ApplicationKeyFilter(ApplicationRepo repo,
+                                boolean enabled,
+                                long expectedKeys,
+                                double falsePositiveRate,
+                                Duration maxStaleness) {
+        this.repo = repo;
+        this.enabled = enabled;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxStaleness = maxStaleness.toNanos();
+    }
+
+    /**
+     * Tells whether an application may exist.
+     *
+     * @param applicationKey the application key
+     * @return false if the application did not exist as of a sync within
+     *         the maximum staleness
+     */
+    public boolean mightExist(String applicationKey) {
+        var current = keys;
+        return Objects.isNull(current)
+                || System.nanoTime() - current.freshAsOf() > maxStaleness
+                || current.filter().mightContain(applicationKey);
+    }
+
+    /**
+     * Rebuilds the filter from the keys in the database.
+     *
+     * <p>Keys created while the rebuild runs are added to both the current
+     * and the new filter, which replaces the current one once complete. The
+     * rebuild reads the horizon of the change feed first, from which the
+     * next sync resumes.</p>
+     */
+    @Transactional
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        var started = System.nanoTime();
+        var horizon = repo.horizon();
+        var filter = BloomFilter.create(
+                Math.max(expectedKeys, repo.count() * 2), falsePositiveRate);
+        building = filter;
+        try {
+            repo.forEachKey(filter::add);
+            keys = Synced.of(filter, horizon, started);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Adds the keys written since the last sync or rebuild, up to the
+     * current horizon of the change feed.
+     *
+     * <p>Does nothing until the filter has been built.</p>
+     */
+    @Transactional
+    public synchronized void sync() {
+        var current = keys;
+        if (!enabled || Objects.isNull(current)) {
+            return;
+        }
+
+        var started = System.nanoTime();
+        var horizon = repo.horizon();
+        repo.forEachKeyChanged(current.horizon(), horizon.at(), current.filter()::add);
+        keys = Synced.of(current.filter(), horizon, started);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        tryRebuild();
+    }
+
+    @Scheduled(every = "${centrauthz.applications.key-filter.rebuild-every:1h}",
+            delayed = "${centrauthz.applications.key-filter.rebuild-every:1h}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void onSchedule() {
+        tryRebuild();
+    }
+
+    @Scheduled(every = "${centrauthz.applications.key-filter.sync-every:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void onSync() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Could not sync the application key filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds created applications once their transaction has committed.
+     *
+     * @param event the change event
+     */
+    void onChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ApplicationChangedEvent event) {
+        if (event.type() != ApplicationChangeType.CREATED) {
+            return;
+        }
+        // Read the filter being built first: once it is null, it has either
+        // not started, so its snapshot includes the key, or it has replaced
+        // the current filter.
+        var next = building;
+        var current = keys;
+        if (Objects.nonNull(next)) {
+            next.add(event.applicationKey());
+        }
+        if (Objects.nonNull(current)) {
+            current.filter().add(event.applicationKey());
+        }
+    }
+
+    private void tryRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the application key filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Filter with the horizon of the change feed it covers.
+     *
+     * @param filter the keys
+     * @param horizon the horizon the next sync resumes from
+     * @param freshAsOf {@link System#nanoTime()} before which every committed
+     *                  change is covered: the start of the read of the
+     *                  horizon, less the time the horizon was held back
+     */
+    private record Synced(BloomFilter filter, Instant horizon, long freshAsOf) {
+
+        static Synced of(BloomFilter filter, ApplicationHorizon horizon, long started) {
+            return new Synced(filter, horizon.at(), started - horizon.lag().toNanos());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package vvu.centrauthz.domains.applications.caches;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.utilities.PrefixIndex;
+
+/**
+ * In-memory prefix index of the application keys and names.
+ *
+ * <p>Lookups are answered from an immutable {@link PrefixIndex} without
+ * touching the database. The index is built from the database at startup
+ * and on every {@code autocomplete.rebuild-every}, and applies the changes
+ * made through this instance once their transaction has committed, each in
+ * time sublinear in the size of the index. Changes
+ * committed while a rebuild reads the database are applied again to the new
+ * index before it replaces the current one.</p>
+ *
+ * <p>Until the first build has completed, and whenever the index is
+ * disabled, lookups find nothing to answer from.</p>
+ */
+@Slf4j
+@ApplicationScoped
+public class ApplicationNameIndex {
+
+    private final ApplicationRepo repo;
+    private final boolean enabled;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile PrefixIndex index;
+    private List<ApplicationChangedEvent> pending;
+
+    /**
+     * Creates the index from the application configuration.
+     *
+     * @param repo the application repository the index is built from
+     * @param config the applications configuration
+     */
+    @Inject
+    public ApplicationNameIndex(ApplicationRepo repo, ApplicationConfig config) {
+        this(repo, config.autocomplete().enabled());
+    }
+
+    /**
+     * Creates the index.
+     *
+     * @param repo the application repository the index is built from
+     * @param enabled whether the index is built
+     */
+    public ApplicationNameIndex(ApplicationRepo repo, boolean enabled) {
+        this.repo = repo;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Finds the applications whose key or name starts with a prefix,
+     * ignoring case.
+     *
+     * @param prefix the prefix
+     * @param limit maximum number of applications
+     * @return the applications, or empty if the index has not been built
+     */
+    public Optional<List<PrefixIndex.Match>> find(String prefix, int limit) {
+        var current = index;
+        return Objects.isNull(current)
+                ? Optional.empty()
+                : Optional.of(current.find(prefix, limit));
+    }
+
+    /**
+     * Rebuilds the index from the database.
+     */
+    @Transactional
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            var names = new HashMap<String, String>();
+            repo.forEachName(names::put);
+            var built = PrefixIndex.of(names);
+            lock.lock();
+            try {
+                for (var event : pending) {
+                    built = apply(built, event);
+                }
+                index = built;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            lock.lock();
+            try {
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        tryRebuild();
+    }
+
+    @Scheduled(every = "${centrauthz.applications.autocomplete.rebuild-every:10m}",
+            delayed = "${centrauthz.applications.autocomplete.rebuild-every:10m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void onSchedule() {
+        tryRebuild();
+    }
+
+    /**
+     * Applies committed changes to the index, and records them for the
+     * rebuild in progress if any.
+     *
+     * @param event the change event
+     */
+    void onChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ApplicationChangedEvent event) {
+        lock.lock();
+        try {
+            if (Objects.nonNull(pending)) {
+                pending.add(event);
+            }
+            var current = index;
+            if (Objects.nonNull(current)) {
+                index = apply(current, event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static PrefixIndex apply(PrefixIndex index, ApplicationChangedEvent event) {
+        if (event.type() == ApplicationChangeType.DELETED) {
+            return index.without(event.applicationKey());
+        }
+        // Updates that leave the name alone carry none
+        return Objects.isNull(event.name())
+                ? index
+                : index.with(event.applicationKey(), event.name());
+    }
+
+    private void tryRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the application name index: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package vvu.centrauthz.domains.applications.configs;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/**
+ * Runtime configuration of the applications domain.
+ *
+ * <p>Bound from the {@code centrauthz.applications} prefix.</p>
+ */
+@ConfigMapping(prefix = "centrauthz.applications")
+public interface ApplicationConfig {
+
+    /**
+     * Read-through cache of application DTOs.
+     *
+     * @return cache configuration
+     */
+    Cache cache();
+
+    /**
+     * Bloom filter of existing application keys.
+     *
+     * @return key filter configuration
+     */
+    KeyFilter keyFilter();
+
+    /**
+     * Concurrency control of writes.
+     *
+     * @return concurrency configuration
+     */
+    Concurrency concurrency();
+
+    /**
+     * Batch endpoints.
+     *
+     * @return batch configuration
+     */
+    Batch batch();
+
+    /**
+     * Export endpoint.
+     *
+     * @return export configuration
+     */
+    Export export();
+
+    /**
+     * Autocomplete endpoint.
+     *
+     * @return autocomplete configuration
+     */
+    Autocomplete autocomplete();
+
+    /**
+     * Change feed.
+     *
+     * @return change feed configuration
+     */
+    Changes changes();
+
+    /**
+     * Server-sent events stream of changes.
+     *
+     * @return stream configuration
+     */
+    Stream stream();
+
+    /**
+     * Cache configuration.
+     */
+    interface Cache {
+
+        /**
+         * Whether reads by key go through the in-process cache.
+         *
+         * @return true if the cache is enabled
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of cached applications.
+         *
+         * @return maximum size
+         */
+        @WithDefault("10000")
+        long maximumSize();
+
+        /**
+         * Time after which an entry is evicted regardless of access.
+         *
+         * @return time to live
+         */
+        @WithDefault("30s")
+        Duration expireAfterWrite();
+
+        /**
+         * Time for which a key found not to exist is answered as missing
+         * without a load; zero disables the negative cache.
+         *
+         * @return time to live of a negative entry
+         */
+        @WithDefault("5s")
+        Duration negativeExpireAfterWrite();
+    }
+
+    /**
+     * Key filter configuration.
+     */
+    interface KeyFilter {
+
+        /**
+         * Whether lookups of keys absent from the filter skip the database.
+         *
+         * <p>Keys created through other instances or processes are learned
+         * from the change feed, see {@link #syncEvery()}.</p>
+         *
+         * @return true if the key filter is enabled
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Number of keys the filter is sized for; the filter grows to twice
+         * the number of existing keys when that is larger.
+         *
+         * @return expected number of keys
+         */
+        @WithDefault("1000000")
+        long expectedKeys();
+
+        /**
+         * Target probability that a missing key is reported as possibly
+         * existing.
+         *
+         * @return false-positive rate
+         */
+        @WithDefault("0.01")
+        double falsePositiveRate();
+
+        /**
+         * Interval at which the filter is rebuilt from the database, which
+         * drops the keys of deleted applications.
+         *
+         * @return rebuild interval
+         */
+        @WithDefault("1h")
+        Duration rebuildEvery();
+
+        /**
+         * Interval at which the filter adds the keys written since its last
+         * sync, read from the change feed on the primary.
+         *
+         * @return sync interval
+         */
+        @WithDefault("1s")
+        Duration syncEvery();
+
+        /**
+         * How far the last sync may trail the database for the filter to rule
+         * keys out; beyond it, every key is looked up. A key created through
+         * another instance may be reported missing for up to this long.
+         *
+         * @return maximum staleness
+         */
+        @WithDefault("5s")
+        Duration maxStaleness();
+    }
+
+    /**
+     * Concurrency configuration.
+     */
+    interface Concurrency {
+
+        /**
+         * How concurrent writes to the same application are serialized.
+         *
+         * @return the concurrency mode
+         */
+        @WithDefault("PESSIMISTIC")
+        ConcurrencyMode mode();
+    }
+
+    /**
+     * Batch configuration.
+     */
+    interface Batch {
+
+        /**
+         * Number of applications written per multi-row insert statement.
+         *
+         * @return rows per statement
+         */
+        @WithDefault("100")
+        int size();
+
+        /**
+         * Maximum number of items accepted in a single batch request.
+         *
+         * @return maximum number of items
+         */
+        @WithDefault("1000")
+        int maxItems();
+    }
+
+    /**
+     * Export configuration.
+     */
+    interface Export {
+
+        /**
+         * Number of rows fetched from the database cursor at a time.
+         *
+         * @return JDBC fetch size
+         */
+        @WithDefault("500")
+        int fetchSize();
+    }
+
+    /**
+     * Autocomplete configuration.
+     */
+    interface Autocomplete {
+
+        /**
+         * Whether application keys and names are held in memory and served
+         * by the autocomplete endpoint.
+         *
+         * @return true if autocomplete is enabled
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Interval at which the index is rebuilt from the database, which
+         * picks up applications written by other instances.
+         *
+         * @return rebuild interval
+         */
+        @WithDefault("10m")
+        Duration rebuildEvery();
+    }
+
+    /**
+     * Change feed configuration.
+     */
+    interface Changes {
+
+        /**
+         * Time for which tombstones of deleted applications are kept; older
+         * cursors are rejected, since deletions before them may be lost.
+         *
+         * @return tombstone retention
+         */
+        @WithDefault("7d")
+        Duration tombstoneRetention();
+
+        /**
+         * Interval at which expired tombstones are purged.
+         *
+         * @return purge interval
+         */
+        @WithDefault("1h")
+        Duration purgeEvery();
+    }
+
+    /**
+     * Server-sent events stream configuration.
+     */
+    interface Stream {
+
+        /**
+         * Maximum number of connected subscribers; further ones are refused.
+         *
+         * @return subscriber limit
+         */
+        @WithDefault("1000")
+        int maxSubscribers();
+
+        /**
+         * Number of events held for a subscriber that has not received them
+         * yet; a subscriber falling further behind is disconnected. As many
+         * recent events are kept to resume reconnecting subscribers from
+         * their Last-Event-ID.
+         *
+         * @return per-subscriber buffer size
+         */
+        @WithDefault("256")
+        int bufferSize();
+    }
+}
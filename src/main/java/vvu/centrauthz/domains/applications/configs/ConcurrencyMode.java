@@ -0,0 +1,16 @@
+package vvu.centrauthz.domains.applications.configs;
+
+/**
+ * Strategy used to serialize concurrent writes to the same application.
+ */
+public enum ConcurrencyMode {
+    /**
+     * Writes lock the row with SELECT ... FOR UPDATE, then modify the entity.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Writes run a single conditional UPDATE/DELETE guarded by the version column.
+     */
+    OPTIMISTIC
+}
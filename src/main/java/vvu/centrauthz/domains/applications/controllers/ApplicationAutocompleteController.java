@@ -0,0 +1,55 @@
+package vvu.centrauthz.domains.applications.controllers;
+
+import io.micrometer.core.annotation.Timed;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import vvu.centrauthz.domains.applications.services.ApplicationAutocompleteService;
+
+/**
+ * REST Controller completing typed prefixes into applications.
+ *
+ * <p>Unlike the other application endpoints, autocomplete never blocks: it is
+ * answered from memory, so it runs on the I/O thread that received the
+ * request instead of being dispatched to a virtual or worker thread.</p>
+ *
+ * <p>It is served by both stacks. On the reactive stack, the index behind it
+ * is still loaded through the JDBC datasource, on a scheduler thread.</p>
+ */
+@Path("/v0/applications:autocomplete")
+@Produces(MediaType.APPLICATION_JSON)
+public class ApplicationAutocompleteController {
+
+    private static final String TIMER = "applications.controller";
+
+    private final ApplicationAutocompleteService service;
+
+    /**
+     * Application Autocomplete Controller.
+     *
+     * @param service Application Autocomplete Service.
+     */
+    public ApplicationAutocompleteController(ApplicationAutocompleteService service) {
+        this.service = service;
+    }
+
+    /**
+     * Suggest applications for a typed prefix.
+     * GET /v0/applications:autocomplete
+     *
+     * @param prefix the start of an application key or name, matched ignoring case
+     * @param pageSize maximum number of suggestions
+     * @return HTTP 200 OK with the suggestions
+     */
+    @GET
+    @NonBlocking
+    @Timed(value = TIMER, histogram = true)
+    public Response autocomplete(@QueryParam("prefix") String prefix,
+                                 @QueryParam("pageSize") Integer pageSize) {
+        return Response.ok(service.suggest(prefix, pageSize)).build();
+    }
+}
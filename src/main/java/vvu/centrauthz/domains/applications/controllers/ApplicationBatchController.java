@@ -0,0 +1,186 @@
+package vvu.centrauthz.domains.applications.controllers;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.List;
+import java.util.UUID;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationKeys;
+import vvu.centrauthz.domains.applications.services.ApplicationBatchService;
+import vvu.centrauthz.domains.applications.services.ApplicationChangeService;
+import vvu.centrauthz.domains.applications.services.ApplicationExportService;
+import vvu.centrauthz.replicas.ConsistencyTokens;
+import vvu.centrauthz.utilities.Context;
+
+/**
+ * REST Controller for batch operations on applications, their export and
+ * their change feed.
+ *
+ * <p>Batch operations, the export and the change feed are custom methods
+ * on the applications collection ({@code /v0/applications:<method>}), which
+ * is why this controller is rooted at {@code /v0} rather than at the collection itself. Like
+ * {@link ApplicationController}, it runs on virtual threads when they are
+ * enabled.</p>
+ *
+ * <p>Built into the blocking stack only: the reactive stack
+ * ({@code centrauthz.stack=reactive}) serves none of these methods.</p>
+ */
+@RunOnVirtualThread
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
+@Path("/v0")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class ApplicationBatchController {
+
+    private static final String TIMER = "applications.controller";
+
+    /**
+     * Newline-delimited JSON: one application per line.
+     */
+    static final String NDJSON = "application/x-ndjson";
+
+    private final ApplicationBatchService service;
+    private final ApplicationExportService exports;
+    private final ApplicationChangeService changes;
+
+    /**
+     * Application Batch Controller.
+     *
+     * @param service Application Batch Service.
+     * @param exports Application Export Service.
+     * @param changes Application Change Service.
+     */
+    public ApplicationBatchController(ApplicationBatchService service,
+                                      ApplicationExportService exports,
+                                      ApplicationChangeService changes) {
+        this.service = service;
+        this.exports = exports;
+        this.changes = changes;
+    }
+
+    /**
+     * Create or upsert applications in bulk.
+     * POST /v0/applications:batch
+     *
+     * <p>Items are validated one by one rather than by the framework, so the
+     * response reports invalid items alongside created and conflicting ones.
+     * Like the other writes, the response carries the consistency token of
+     * the batch.</p>
+     *
+     * @param userId the ID of the user making the request
+     * @param force whether existing applications are replaced
+     * @param applications the applications to write
+     * @return HTTP 200 OK with the result of each item
+     */
+    @POST
+    @Path("/applications:batch")
+    @Timed(value = TIMER, histogram = true)
+    public Response createApplications(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @QueryParam("force") Boolean force,
+            List<Application> applications) {
+        return Context
+                .of(userId)
+                .execute(context -> {
+                    var result = service.createAll(applications, force, context);
+                    var response = Response.ok().entity(result);
+                    service.consistencyToken()
+                            .ifPresent(token -> response.header(ConsistencyTokens.HEADER, token));
+                    return response.build();
+                });
+    }
+
+    /**
+     * Retrieve applications in bulk.
+     * POST /v0/applications:batchGet
+     *
+     * @param userId the ID of the user making the request
+     * @param consistencyToken the token of a write the read must observe
+     * @param keys the keys of the applications to retrieve
+     * @return HTTP 200 OK with the applications found and the missing keys
+     */
+    @POST
+    @Path("/applications:batchGet")
+    @Timed(value = TIMER, histogram = true)
+    public Response getApplications(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @HeaderParam(ConsistencyTokens.HEADER) String consistencyToken,
+            @Valid @NotNull ApplicationKeys keys) {
+        return Context
+                .of(userId)
+                .withConsistencyToken(consistencyToken)
+                .execute(context -> Response
+                        .ok()
+                        .entity(service.getAll(keys.keys(), context))
+                        .build());
+    }
+
+    /**
+     * Export all applications.
+     * GET /v0/applications:export
+     *
+     * <p>The applications are streamed in key order while they are read from
+     * the database, so the response is never buffered whatever the number of
+     * applications.</p>
+     *
+     * @param userId the ID of the user making the request
+     * @param consistencyToken the token of a write the export must observe
+     * @return HTTP 200 OK with one application per line
+     */
+    @GET
+    @Path("/applications:export")
+    @Produces(NDJSON)
+    @Timed(value = TIMER, histogram = true)
+    public Response exportApplications(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @HeaderParam(ConsistencyTokens.HEADER) String consistencyToken) {
+        return Context
+                .of(userId)
+                .withConsistencyToken(consistencyToken)
+                .execute(context -> Response
+                        .ok((StreamingOutput) output -> exports.export(output, context))
+                        .build());
+    }
+
+    /**
+     * List the changes made to the applications since a cursor.
+     * GET /v0/applications:changes
+     *
+     * <p>Creates, updates and deletes come in the order they were made. The
+     * response carries the cursor to pass back as {@code since} to resume
+     * after them, including when there are no changes yet.</p>
+     *
+     * @param userId the ID of the user making the request
+     * @param since the cursor of the previous page, or none to start from the beginning
+     * @param pageSize maximum number of changes
+     * @return HTTP 200 OK with the changes and the next cursor
+     */
+    @GET
+    @Path("/applications:changes")
+    @Timed(value = TIMER, histogram = true)
+    public Response listChanges(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @QueryParam("since") String since,
+            @QueryParam("pageSize") Integer pageSize) {
+        return Context
+                .of(userId)
+                .execute(context -> Response
+                        .ok()
+                        .entity(changes.changes(since, pageSize))
+                        .build());
+    }
+}
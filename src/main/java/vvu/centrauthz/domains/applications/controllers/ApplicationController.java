@@ -1,7 +1,11 @@
 package vvu.centrauthz.domains.applications.controllers;
 
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.Objects;
@@ -9,21 +13,42 @@ import java.util.UUID;
 import vvu.centrauthz.domains.applications.models.Application;
 import vvu.centrauthz.domains.applications.models.ApplicationFilter;
 import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
+import vvu.centrauthz.domains.applications.models.SearchMode;
 import vvu.centrauthz.domains.applications.services.ApplicationService;
 import vvu.centrauthz.domains.common.models.Sort;
 import vvu.centrauthz.errors.ErrorUtils;
 import vvu.centrauthz.models.Patcher;
+import vvu.centrauthz.replicas.ConsistencyTokens;
 import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.ETags;
 
 /**
  * REST Controller for Application management.
  * Generated from OpenAPI specification: applications.oas.yml
+ *
+ * <p>Endpoints block on the database, so they are dispatched to virtual
+ * threads when {@code quarkus.virtual-threads.enabled} is true and to the
+ * worker pool otherwise. The {@link Context} is passed explicitly and the
+ * transactions of {@link ApplicationService} are bound to the thread running
+ * the request, so both behave the same in either mode.</p>
+ *
+ * <p>Responses to writes carry the consistency token of the write in
+ * {@code X-Consistency-Token} when reads are routed to a replica; reads
+ * accept it back in the same header to observe that write.</p>
+ *
+ * <p>Replaced by {@code ApplicationReactiveController} when the application
+ * is built with the reactive stack ({@code centrauthz.stack=reactive}).</p>
  */
+@RunOnVirtualThread
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
 @Path("/v0/applications")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ApplicationController {
 
+    private static final String TIMER = "applications.controller";
+
     private final ApplicationService service;
 
     /**
@@ -36,6 +61,16 @@ public class ApplicationController {
         this.service = service;
     }
 
+    /**
+     * Builds the response to a write that has returned, and therefore
+     * committed, with its consistency token.
+     */
+    private Response committed(Response.ResponseBuilder response) {
+        service.consistencyToken()
+                .ifPresent(token -> response.header(ConsistencyTokens.HEADER, token));
+        return response.build();
+    }
+
     /**
      * Create a new application.
      * POST /v0/applications
@@ -45,15 +80,18 @@ public class ApplicationController {
      * @return HTTP 201 Created
      */
     @POST
+    @Timed(value = TIMER, histogram = true)
     public Response createApplication(
             @Valid @HeaderParam("X-Auth-Request-User-Id") java.util.UUID userId,
             @Valid Application application) {
         return Context
                 .of(userId)
-                .execute(context -> Response
-                        .status(Response.Status.CREATED)
-                        .entity(service.create(application, context))
-                        .build());
+                .execute(context -> {
+                    var created = service.create(application, context);
+                    return committed(Response
+                            .status(Response.Status.CREATED)
+                            .entity(created));
+                });
     }
 
 
@@ -68,9 +106,14 @@ public class ApplicationController {
      * @param managementGroupId filter applications by the management group's UUID
      * @param name filter applications by application name
      * @param sortOrder sort direction
+     * @param includeDescription whether the applications carry their description
+     * @param search text to search the applications for, ranking them by relevance
+     * @param searchMode how the search text is matched: prefix, substring or full_text
+     * @param consistencyToken the token of a write the list must observe
      * @return HTTP 200 OK with a list of applications
      */
     @GET
+    @Timed(value = TIMER, histogram = true)
     public Response listApplications(
             @HeaderParam("X-Auth-Request-User-Id") UUID userId,
             @QueryParam("pageSize") Integer pageSize,
@@ -78,7 +121,11 @@ public class ApplicationController {
             @QueryParam("ownerId") UUID ownerId,
             @QueryParam("managementGroupId") UUID managementGroupId,
             @QueryParam("name") String name,
-            @QueryParam("sort") String sortOrder) {
+            @QueryParam("sort") String sortOrder,
+            @QueryParam("includeDescription") Boolean includeDescription,
+            @QueryParam("search") String search,
+            @QueryParam("searchMode") String searchMode,
+            @HeaderParam(ConsistencyTokens.HEADER) String consistencyToken) {
 
         var builder = ApplicationFilter
                 .builder()
@@ -86,7 +133,10 @@ public class ApplicationController {
                 .pageToken(pageToken)
                 .ownerId(ownerId)
                 .name(name)
-                .managementGroupId(managementGroupId);
+                .managementGroupId(managementGroupId)
+                .includeDescription(includeDescription)
+                .search(search)
+                .searchMode(SearchMode.of(searchMode));
 
         if (Objects.nonNull(sortOrder)) {
             builder.sortOrder(Sort.list(sortOrder));
@@ -96,6 +146,7 @@ public class ApplicationController {
 
         return Context
                 .of(userId)
+                .withConsistencyToken(consistencyToken)
                 .execute(context -> Response
                         .ok()
                         .entity(service.list(filter, context))
@@ -106,22 +157,46 @@ public class ApplicationController {
      * Retrieve an application by its key.
      * GET /v0/applications/{applicationKey}
      *
+     * <p>The response carries a strong ETag. When If-None-Match matches the
+     * current tag, 304 Not Modified is returned without loading or
+     * serializing the application.</p>
+     *
      * @param userId the ID of the user making the request
      * @param applicationKey the unique key of the application
-     * @return HTTP 200 OK with the application data
+     * @param ifNoneMatch entity tags the client already holds
+     * @param consistencyToken the token of a write the read must observe
+     * @return HTTP 200 OK with the application data, or HTTP 304 Not Modified
      */
     @GET
     @Path("/{applicationKey}")
+    @Timed(value = TIMER, histogram = true)
     public Response getApplication(
             @HeaderParam("X-Auth-Request-User-Id") @Valid UUID userId,
-            @PathParam("applicationKey") String applicationKey) {
+            @PathParam("applicationKey") String applicationKey,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+            @HeaderParam(ConsistencyTokens.HEADER) String consistencyToken) {
 
         return Context
                 .of(userId)
-                .execute(context -> Response
-                        .ok()
-                        .entity(service.get(applicationKey, context))
-                        .build());
+                .withConsistencyToken(consistencyToken)
+                .execute(context -> {
+                    if (Objects.nonNull(ifNoneMatch)) {
+                        var etag = service.findETag(applicationKey, context);
+                        if (etag.filter(t -> ETags.matches(ifNoneMatch, t)).isPresent()) {
+                            return Response
+                                    .notModified()
+                                    .header(HttpHeaders.ETAG, etag.get())
+                                    .build();
+                        }
+                    }
+
+                    var application = service.get(applicationKey, context);
+                    return Response
+                            .ok()
+                            .header(HttpHeaders.ETAG, service.etag(application))
+                            .entity(application)
+                            .build();
+                });
     }
 
     /**
@@ -130,15 +205,19 @@ public class ApplicationController {
      *
      * @param userId the ID of the user making the request
      * @param applicationKey the unique key of the application
+     * @param force whether to create the application if it doesn't exist
+     * @param ifMatch entity tags the update is conditional on
      * @param application the new application data
      * @return HTTP 200 OK
      */
     @PUT
     @Path("/{applicationKey}")
+    @Timed(value = TIMER, histogram = true)
     public Response updateApplication(
             @HeaderParam("X-Auth-Request-User-Id") UUID userId,
             @PathParam("applicationKey") String applicationKey,
             @QueryParam("force") Boolean force,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @Valid Application application) {
 
         if (!Objects.equals(applicationKey, application.applicationKey())) {
@@ -148,10 +227,8 @@ public class ApplicationController {
         return Context
                 .of(userId)
                 .execute(context -> {
-                    service.update(applicationKey, application, force, context);
-                    return Response
-                            .noContent()
-                            .build();
+                    service.update(applicationKey, application, force, ifMatch, context);
+                    return committed(Response.noContent());
                 });
     }
 
@@ -161,22 +238,23 @@ public class ApplicationController {
      *
      * @param userId the ID of the user making the request
      * @param applicationKey the unique key of the application
+     * @param ifMatch entity tags the update is conditional on
      * @param patcher the set of fields and values to update
      * @return HTTP 204 OK
      */
     @PATCH
     @Path("/{applicationKey}")
+    @Timed(value = TIMER, histogram = true)
     public Response patchApplication(
             @HeaderParam("X-Auth-Request-User-Id") java.util.UUID userId,
             @PathParam("applicationKey") String applicationKey,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @Valid Patcher<ApplicationPatcher> patcher) {
         return Context
                 .of(userId)
                 .execute(context -> {
-                    service.patch(applicationKey, patcher, context);
-                    return Response
-                            .noContent()
-                            .build();
+                    service.patch(applicationKey, patcher, ifMatch, context);
+                    return committed(Response.noContent());
                 });
     }
 
@@ -187,20 +265,21 @@ public class ApplicationController {
      *
      * @param userId the ID of the user making the request
      * @param applicationKey the unique key of the application
+     * @param ifMatch entity tags the deletion is conditional on
      * @return HTTP 200 OK
      */
     @DELETE
     @Path("/{applicationKey}")
+    @Timed(value = TIMER, histogram = true)
     public Response deleteApplication(
             @HeaderParam("X-Auth-Request-User-Id") UUID userId,
-            @PathParam("applicationKey") String applicationKey) {
+            @PathParam("applicationKey") String applicationKey,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         return Context
                 .of(userId)
                 .execute(context -> {
-                    service.delete(applicationKey, context);
-                    return Response
-                            .noContent()
-                            .build();
+                    service.delete(applicationKey, ifMatch, context);
+                    return committed(Response.noContent());
                 });
     }
 }
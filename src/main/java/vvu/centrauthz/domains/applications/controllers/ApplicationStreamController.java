@@ -0,0 +1,76 @@
+package vvu.centrauthz.domains.applications.controllers;
+
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import java.util.Objects;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeBroadcaster;
+import vvu.centrauthz.domains.applications.models.ApplicationNotification;
+
+/**
+ * REST Controller streaming application changes as server-sent events.
+ *
+ * <p>The stream is fed from memory and never blocks, so like autocomplete
+ * it runs on the I/O thread that received the request. It is served by
+ * both stacks, from the change events of their writes.</p>
+ */
+@Path("/v0/applications:stream")
+public class ApplicationStreamController {
+
+    /**
+     * Data of the reset event.
+     */
+    static final String RESET = "Changes were missed, catch up from GET /v0/applications:changes";
+
+    private final ApplicationChangeBroadcaster broadcaster;
+
+    /**
+     * Application Stream Controller.
+     *
+     * @param broadcaster Application Change Broadcaster.
+     */
+    public ApplicationStreamController(ApplicationChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Stream the changes made to the applications.
+     * GET /v0/applications:stream
+     *
+     * <p>Each {@code change} event carries the key of the application, the
+     * kind of change and the new version. Clients reconnecting with
+     * Last-Event-ID receive the changes they missed, or a {@code reset}
+     * event when those are no longer kept.</p>
+     *
+     * @param lastEventId the id of the last event received, when reconnecting
+     * @param sse the server-sent events factory
+     * @return the events
+     */
+    @GET
+    @NonBlocking
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> stream(
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @Context Sse sse) {
+        return broadcaster.subscribe(lastEventId).map(message -> toEvent(sse, message));
+    }
+
+    static OutboundSseEvent toEvent(Sse sse, ApplicationChangeBroadcaster.Message message) {
+        var event = sse.newEventBuilder().id(message.id()).name(message.name());
+        if (Objects.isNull(message.data())) {
+            return event.mediaType(MediaType.TEXT_PLAIN_TYPE).data(String.class, RESET).build();
+        }
+        return event
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(ApplicationNotification.class, message.data())
+                .build();
+    }
+}
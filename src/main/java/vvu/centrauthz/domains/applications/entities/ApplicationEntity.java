@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -44,6 +45,10 @@ public class ApplicationEntity extends AuditEntity {
     @Column(name = "management_group_id", columnDefinition = "UUID")
     private UUID managementGroupId;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public ApplicationEntity() {
         super();
     }
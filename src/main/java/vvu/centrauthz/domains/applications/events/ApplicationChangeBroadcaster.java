@@ -0,0 +1,234 @@
+package vvu.centrauthz.domains.applications.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.models.ApplicationNotification;
+import vvu.centrauthz.errors.ErrorUtils;
+
+/**
+ * Fans the committed application changes out to stream subscribers.
+ *
+ * <p>Every change committed through this instance is numbered and handed to
+ * each subscriber without blocking the writer: a subscriber holds up to
+ * {@code stream.buffer-size} events it has not received yet, and is
+ * disconnected when it falls further behind, so a slow consumer neither
+ * holds back the others nor grows the memory of the server. Events are
+ * delivered to subscribers on a worker thread.</p>
+ *
+ * <p>As many recent events are kept to resume a reconnecting subscriber
+ * after its Last-Event-ID. A subscriber that has missed more, or whose
+ * event id was issued before the last restart, first receives a
+ * {@value #RESET} event, after which it should catch up from the change
+ * feed.</p>
+ */
+@Slf4j
+@ApplicationScoped
+public class ApplicationChangeBroadcaster {
+
+    /**
+     * Name of the events carrying a change.
+     */
+    public static final String CHANGE = "change";
+
+    /**
+     * Name of the event telling a subscriber that it missed changes.
+     */
+    public static final String RESET = "reset";
+
+    private static final String SUBSCRIBERS = "centrauthz.applications.stream.subscribers";
+    private static final String EVICTIONS = "centrauthz.applications.stream.evictions";
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final Executor executor;
+    private final Counter evictions;
+    private final Set<MultiEmitter<? super Message>> subscribers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Prefix of the event ids, telling the ids issued since this start apart.
+     */
+    private final String generation;
+
+    private final Message[] history;
+    private long sequence;
+
+    /**
+     * Event sent to a subscriber.
+     *
+     * @param id the event id, sent back as Last-Event-ID to resume after it
+     * @param name {@value #CHANGE} or {@value #RESET}
+     * @param data the change, or null for a reset
+     */
+    public record Message(String id, String name, ApplicationNotification data) {
+    }
+
+    /**
+     * Creates the broadcaster from the application configuration.
+     *
+     * @param config the applications configuration
+     * @param registry the registry the stream metrics are registered with
+     */
+    @Inject
+    public ApplicationChangeBroadcaster(ApplicationConfig config, MeterRegistry registry) {
+        this(config.stream().maxSubscribers(), config.stream().bufferSize(),
+                Infrastructure.getDefaultExecutor(), registry);
+    }
+
+    /**
+     * Creates the broadcaster.
+     *
+     * @param maxSubscribers maximum number of subscribers
+     * @param bufferSize events held per subscriber, and kept to resume
+     * @param executor the executor events are delivered on
+     * @param registry the registry the stream metrics are registered with
+     */
+    ApplicationChangeBroadcaster(int maxSubscribers,
+                                 int bufferSize,
+                                 Executor executor,
+                                 MeterRegistry registry) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+        this.history = new Message[bufferSize];
+        this.generation = Long.toString(System.currentTimeMillis(), 36);
+        this.evictions = registry.counter(EVICTIONS);
+        registry.gaugeCollectionSize(SUBSCRIBERS, Tags.empty(), subscribers);
+    }
+
+    /**
+     * Subscribes to the changes committed from now on.
+     *
+     * @param lastEventId the id of the last event received before
+     *                    reconnecting, or null for a new subscriber
+     * @return the events, which never fail: they complete when the
+     *         subscriber is disconnected for falling behind
+     * @throws vvu.centrauthz.errors.ServiceUnavailableError if the maximum
+     *         number of subscribers is reached
+     */
+    public Multi<Message> subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw ErrorUtils.createServiceUnavailableError("Too many stream subscribers");
+        }
+        return Multi.createFrom()
+                .<Message>emitter(emitter -> register(emitter, lastEventId))
+                .onOverflow().buffer(bufferSize)
+                .onFailure(BackPressureFailure.class).invoke(e -> {
+                    evictions.increment();
+                    log.debug("Disconnected a stream subscriber more than {} events behind",
+                            bufferSize);
+                })
+                .onFailure(BackPressureFailure.class).recoverWithCompletion()
+                .emitOn(executor);
+    }
+
+    /**
+     * Number of connected subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Pushes applied changes once their transaction has committed.
+     *
+     * @param event the change event
+     */
+    void onChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ApplicationChangedEvent event) {
+        publish(ApplicationNotification.builder()
+                .applicationKey(event.applicationKey())
+                .type(event.type())
+                .version(event.version())
+                .build());
+    }
+
+    void publish(ApplicationNotification notification) {
+        lock.lock();
+        try {
+            sequence++;
+            var message = new Message(id(sequence), CHANGE, notification);
+            history[(int) (sequence % bufferSize)] = message;
+            for (var subscriber : subscribers) {
+                subscriber.emit(message);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replays what a subscriber missed and adds it to the subscribers, under
+     * the lock so that no event is published in between.
+     */
+    private void register(MultiEmitter<? super Message> emitter, String lastEventId) {
+        lock.lock();
+        try {
+            if (subscribers.size() >= maxSubscribers) {
+                emitter.complete();
+                return;
+            }
+            if (Objects.nonNull(lastEventId)) {
+                var missed = missed(lastEventId);
+                if (Objects.isNull(missed)) {
+                    emitter.emit(new Message(id(sequence), RESET, null));
+                } else {
+                    missed.forEach(emitter::emit);
+                }
+            }
+            emitter.onTermination(() -> subscribers.remove(emitter));
+            subscribers.add(emitter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the events after an event id, or null when they are no longer
+     * all kept.
+     */
+    private List<Message> missed(String lastEventId) {
+        var separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !generation.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last < 0 || last > sequence || sequence - last > bufferSize) {
+            return null;
+        }
+        var missed = new ArrayList<Message>((int) (sequence - last));
+        for (var s = last + 1; s <= sequence; s++) {
+            missed.add(history[(int) (s % bufferSize)]);
+        }
+        return missed;
+    }
+
+    private String id(long sequence) {
+        return generation + "-" + sequence;
+    }
+}
@@ -0,0 +1,8 @@
+package vvu.centrauthz.domains.applications.events;
+
+/**
+ * Kind of change applied to an application.
+ */
+public enum ApplicationChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,21 @@
+package vvu.centrauthz.domains.applications.events;
+
+import lombok.Builder;
+
+/**
+ * CDI event fired by the application service for every write.
+ *
+ * <p>Observers interested in committed state only should observe it with
+ * {@code during = TransactionPhase.AFTER_SUCCESS}.</p>
+ *
+ * @param applicationKey the key of the changed application
+ * @param type the kind of change
+ * @param name the name of the application after the change, or null when it
+ *             was deleted or its name was left unchanged
+ * @param version the version of the application after the change, or null
+ *                when it was deleted
+ */
+@Builder(toBuilder = true)
+public record ApplicationChangedEvent(
+        String applicationKey, ApplicationChangeType type, String name, Long version) {
+}
@@ -9,6 +9,7 @@ import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
 import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRow;
 
 /**
  * Mapper for converting between Application and ApplicationEntity.
@@ -42,6 +43,31 @@ public interface ApplicationMapper {
                 .toList();
     }
 
+    /**
+     * Converts a projected row to an Application DTO.
+     *
+     * @param row the row to convert
+     * @return the converted DTO
+     */
+    @Mapping(target = "createdAt", source = "createdAt", qualifiedByName = "toEpochMilli")
+    @Mapping(target = "updatedAt", source = "updatedAt", qualifiedByName = "toEpochMilli")
+    Application toDto(ApplicationRow row);
+
+    /**
+     * Converts a list of projected rows to a list of Application DTOs.
+     *
+     * @param rows the list of rows to convert
+     * @return a list of converted DTOs
+     */
+    default List<Application> rowsToDtoList(List<ApplicationRow> rows) {
+        if (rows == null) {
+            return List.of();
+        }
+        return rows.stream()
+                .map(this::toDto)
+                .toList();
+    }
+
     /**
      * Converts an Application DTO to an ApplicationEntity.
      *
@@ -50,6 +76,7 @@ public interface ApplicationMapper {
      */
     @Mapping(target = "createdAt", source = "createdAt", qualifiedByName = "toInstant")
     @Mapping(target = "updatedAt", source = "updatedAt", qualifiedByName = "toInstant")
+    @Mapping(target = "version", ignore = true) // Version is owned by the persistence layer
     ApplicationEntity toEntity(Application dto);
 
     /**
@@ -61,6 +88,7 @@ public interface ApplicationMapper {
     @Mapping(target = "createdAt", source = "createdAt", qualifiedByName = "toInstant")
     @Mapping(target = "updatedAt", source = "updatedAt", qualifiedByName = "toInstant")
     @Mapping(target = "applicationKey", ignore = true) // Application key should not be updated
+    @Mapping(target = "version", ignore = true) // Version is owned by the persistence layer
     void updateEntity(Application dto, @MappingTarget ApplicationEntity entity);
 
     /**
@@ -36,6 +36,8 @@ public record Application(
 
         Long updatedAt,
 
-        UUID updatedBy
+        UUID updatedBy,
+
+        Long version
 ) {
 }
@@ -0,0 +1,28 @@
+package vvu.centrauthz.domains.applications.models;
+
+import java.util.List;
+import java.util.Objects;
+import lombok.Builder;
+
+/**
+ * Result of a batch read.
+ *
+ * @param items the applications found, in the order their keys were requested
+ * @param missing the requested keys that do not exist
+ */
+@Builder(toBuilder = true)
+public record ApplicationBatchGetResult(List<Application> items, List<String> missing) {
+
+    /**
+     * Compact constructor that validates required fields.
+     */
+    public ApplicationBatchGetResult {
+        if (Objects.isNull(items)) {
+            throw new IllegalArgumentException("items is required");
+        }
+
+        if (Objects.isNull(missing)) {
+            throw new IllegalArgumentException("missing is required");
+        }
+    }
+}
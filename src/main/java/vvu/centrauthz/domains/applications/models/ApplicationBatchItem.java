@@ -0,0 +1,23 @@
+package vvu.centrauthz.domains.applications.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import vvu.centrauthz.models.Error;
+
+/**
+ * Result of a single item of a batch write.
+ *
+ * @param index the position of the item in the request
+ * @param applicationKey the key of the application, if any
+ * @param status the outcome of the item
+ * @param error why the item was rejected, absent on success
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Builder(toBuilder = true)
+public record ApplicationBatchItem(
+        int index,
+        String applicationKey,
+        ApplicationBatchStatus status,
+        Error error
+) {
+}
@@ -0,0 +1,23 @@
+package vvu.centrauthz.domains.applications.models;
+
+import java.util.List;
+import java.util.Objects;
+import lombok.Builder;
+
+/**
+ * Per-item results of a batch write, in request order.
+ *
+ * @param items the result of each item
+ */
+@Builder(toBuilder = true)
+public record ApplicationBatchResult(List<ApplicationBatchItem> items) {
+
+    /**
+     * Compact constructor that validates required fields.
+     */
+    public ApplicationBatchResult {
+        if (Objects.isNull(items)) {
+            throw new IllegalArgumentException("items is required");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package vvu.centrauthz.domains.applications.models;
+
+/**
+ * Outcome of a single item of a batch write.
+ */
+public enum ApplicationBatchStatus {
+    CREATED,
+    UPDATED,
+    CONFLICT,
+    INVALID
+}
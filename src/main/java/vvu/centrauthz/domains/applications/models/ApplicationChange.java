@@ -0,0 +1,24 @@
+package vvu.centrauthz.domains.applications.models;
+
+import lombok.Builder;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+
+/**
+ * Entry of the application change feed.
+ *
+ * <p>An application written several times since the cursor appears once,
+ * with its current state: CREATED if it has not been updated since its
+ * creation, UPDATED otherwise.</p>
+ *
+ * @param applicationKey the key of the changed application
+ * @param type the kind of change
+ * @param changedAt the time of the change, in epoch milliseconds
+ * @param application the application as it is now, or null if it has been deleted
+ */
+@Builder(toBuilder = true)
+public record ApplicationChange(
+        String applicationKey,
+        ApplicationChangeType type,
+        Long changedAt,
+        Application application) {
+}
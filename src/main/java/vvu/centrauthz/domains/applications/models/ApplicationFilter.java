@@ -14,15 +14,23 @@ import vvu.centrauthz.domains.common.models.Sort;
  * name-based searching, and configurable sorting options.</p>
  *
  * <p>Default values are automatically applied in the compact constructor:
- * pageSize defaults to 10 if null or less than 1, and sortOrder defaults
- * to an empty list if null.</p>
+ * pageSize defaults to 10 if null or less than 1 and is capped at 1000,
+ * sortOrder defaults to an empty list if null, includeDescription
+ * defaults to true if null, a blank search is dropped, and searchMode
+ * defaults to {@link SearchMode#FULL_TEXT} when searching.</p>
  *
- * @param pageSize the number of results per page (defaults to 10, minimum 1)
+ * <p>With a search text, results are ranked by relevance instead of sorted,
+ * and only the first page is returned.</p>
+ *
+ * @param pageSize the number of results per page (defaults to 10, minimum 1, maximum 1000)
  * @param pageToken the pagination token for retrieving the next page of results
  * @param ownerId the UUID of the application owner to filter by
  * @param managementGroupId the UUID of the management group to filter by
- * @param name the application name to search for (partial matching may be supported)
+ * @param name the application name to match (case-insensitive)
  * @param sortOrder the list of sort criteria to apply to the results
+ * @param includeDescription whether the results carry their description (defaults to true)
+ * @param search the text to search names, or names and descriptions, for
+ * @param searchMode how the search text is matched (defaults to FULL_TEXT)
  *
  * @since 1.0
  */
@@ -33,21 +41,44 @@ public record ApplicationFilter(
         UUID ownerId,
         UUID managementGroupId,
         String name,
-        List<Sort> sortOrder) {
+        List<Sort> sortOrder,
+        Boolean includeDescription,
+        String search,
+        SearchMode searchMode) {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 1000;
 
     /**
      * Compact constructor that applies default values and validation.
      *
-     * <p>Ensures pageSize is at least 1 (defaults to 10) and sortOrder
-     * is never null (defaults to empty list).</p>
+     * <p>Ensures pageSize is between 1 (defaults to 10) and 1000, sortOrder
+     * and includeDescription are never null (default to an empty list and
+     * true), and a search always has a mode.</p>
      */
     public ApplicationFilter {
         if (Objects.isNull(sortOrder)) {
             sortOrder = List.of();
         }
 
+        if (Objects.isNull(includeDescription)) {
+            includeDescription = true;
+        }
+
+        if (Objects.nonNull(search) && search.isBlank()) {
+            search = null;
+        }
+
+        if (Objects.nonNull(search) && Objects.isNull(searchMode)) {
+            searchMode = SearchMode.FULL_TEXT;
+        }
+
         if (Objects.isNull(pageSize) || pageSize < 1) {
-            pageSize = 10;
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+
+        if (pageSize > MAX_PAGE_SIZE) {
+            pageSize = MAX_PAGE_SIZE;
         }
     }
 }
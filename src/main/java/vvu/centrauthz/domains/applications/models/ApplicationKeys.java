@@ -0,0 +1,14 @@
+package vvu.centrauthz.domains.applications.models;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * List of application keys addressed by a batch read.
+ *
+ * @param keys the application keys
+ */
+@Builder(toBuilder = true)
+public record ApplicationKeys(@NotNull List<String> keys) {
+}
@@ -0,0 +1,19 @@
+package vvu.centrauthz.domains.applications.models;
+
+import lombok.Builder;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+
+/**
+ * Change pushed to the subscribers of the application stream.
+ *
+ * @param applicationKey the key of the changed application
+ * @param type the kind of change
+ * @param version the version of the application after the change, or null
+ *                when it was deleted
+ */
+@Builder(toBuilder = true)
+public record ApplicationNotification(
+        String applicationKey,
+        ApplicationChangeType type,
+        Long version) {
+}
@@ -0,0 +1,13 @@
+package vvu.centrauthz.domains.applications.models;
+
+import lombok.Builder;
+
+/**
+ * Application proposed for a typed prefix by the autocomplete endpoint.
+ *
+ * @param applicationKey the application key
+ * @param name the application name
+ */
+@Builder(toBuilder = true)
+public record ApplicationSuggestion(String applicationKey, String name) {
+}
@@ -0,0 +1,46 @@
+package vvu.centrauthz.domains.applications.models;
+
+import java.util.Locale;
+import java.util.Objects;
+import vvu.centrauthz.errors.ErrorUtils;
+
+/**
+ * How the search text of an {@link ApplicationFilter} is matched.
+ */
+public enum SearchMode {
+    /**
+     * Names starting with the text, ignoring case; shorter names rank first.
+     */
+    PREFIX,
+
+    /**
+     * Names or descriptions containing the text, ignoring case; names most
+     * similar to the text rank first.
+     */
+    SUBSTRING,
+
+    /**
+     * Names or descriptions matching the words of the text, in web search
+     * syntax; matches in the name rank above matches in the description.
+     */
+    FULL_TEXT;
+
+    /**
+     * Parses a search mode, ignoring case.
+     *
+     * @param value the mode name, may be null
+     * @return the mode, or null if the value is null
+     * @throws vvu.centrauthz.errors.BadRequestError if the value names no mode
+     */
+    public static SearchMode of(String value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw ErrorUtils.createBadRequestError("Invalid search mode: " + value
+                    + ". Must be PREFIX, SUBSTRING or FULL_TEXT");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import vvu.centrauthz.domains.applications.models.Application;
+
+/**
+ * Multi-row insert of applications, compiled into a single statement.
+ *
+ * <p>The rows are bound as one array per column and expanded with
+ * {@code unnest}, so the statement text does not depend on the number of
+ * rows. Each row is inserted with {@code ON CONFLICT}: a taken key is either
+ * skipped or, with upsert, updated as in {@link ApplicationRepo#upsert}.
+ * {@code RETURNING} reports the rows the statement wrote, whether each was
+ * inserted and the version it now has, so the outcome is decided by the same statement that
+ * resolves the conflicts and can not race with concurrent writers. A key
+ * must not appear twice in the same statement.</p>
+ */
+final class ApplicationBulkInsert {
+
+    private static final String SELECT = " SELECT t.application_key, t.name, t.description,"
+            + " t.owner_id, t.management_group_id, ?, ?, ?, NULL, 0"
+            + " FROM unnest(?::text[], ?::text[], ?::text[], ?::uuid[], ?::uuid[])"
+            + " AS t(application_key, name, description, owner_id, management_group_id)";
+
+    private static final String RETURNING = " RETURNING application_key, (xmax = 0), version";
+
+    private final List<Application> applications;
+    private final UUID userId;
+    private final Timestamp now;
+    private final String sql;
+
+    private ApplicationBulkInsert(List<Application> applications,
+                                  UUID userId,
+                                  Instant now,
+                                  boolean upsert) {
+        this.applications = applications;
+        this.userId = userId;
+        this.now = Timestamp.from(now);
+        var conflict = upsert
+                ? ApplicationRepo.ON_CONFLICT_UPDATE
+                : ApplicationRepo.ON_CONFLICT_NOTHING;
+        this.sql = ApplicationRepo.INSERT + SELECT + conflict + RETURNING;
+    }
+
+    /**
+     * Compiles the insert of a list of applications.
+     *
+     * @param applications the applications, with distinct keys
+     * @param userId the user performing the write
+     * @param now the write timestamp
+     * @param upsert whether existing applications are replaced
+     * @return the compiled insert
+     */
+    static ApplicationBulkInsert of(List<Application> applications,
+                                    UUID userId,
+                                    Instant now,
+                                    boolean upsert) {
+        return new ApplicationBulkInsert(applications, userId, now, upsert);
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    /**
+     * Runs the insert.
+     *
+     * @param connection the connection to write on
+     * @return the rows written, in no particular order; skipped keys are
+     *         missing
+     * @throws SQLException if the write fails
+     */
+    List<ApplicationWrite> execute(Connection connection) throws SQLException {
+        var size = applications.size();
+        var keys = new String[size];
+        var names = new String[size];
+        var descriptions = new String[size];
+        var owners = new UUID[size];
+        var groups = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            var application = applications.get(i);
+            keys[i] = application.applicationKey();
+            names[i] = application.name();
+            descriptions[i] = application.description();
+            owners[i] = application.ownerId();
+            groups[i] = application.managementGroupId();
+        }
+
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, now);
+            statement.setObject(2, userId, Types.OTHER);
+            statement.setTimestamp(3, now);
+            statement.setArray(4, connection.createArrayOf("text", keys));
+            statement.setArray(5, connection.createArrayOf("text", names));
+            statement.setArray(6, connection.createArrayOf("text", descriptions));
+            statement.setArray(7, connection.createArrayOf("uuid", owners));
+            statement.setArray(8, connection.createArrayOf("uuid", groups));
+
+            var written = new ArrayList<ApplicationWrite>(size);
+            try (var result = statement.executeQuery()) {
+                while (result.next()) {
+                    written.add(ApplicationWrite.builder()
+                            .applicationKey(result.getString(1))
+                            .inserted(result.getBoolean(2))
+                            .version(result.getLong(3))
+                            .build());
+                }
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.time.Instant;
+import lombok.Builder;
+
+/**
+ * Entry of the change feed: the current state of a written application, or
+ * the tombstone of a deleted one.
+ *
+ * @param applicationKey the key of the changed application
+ * @param changedAt the time of the change, its last update or its deletion
+ * @param row the application as it is now, or null if it has been deleted
+ */
+@Builder(toBuilder = true)
+public record ApplicationChangeRow(String applicationKey, Instant changedAt, ApplicationRow row) {
+}
@@ -0,0 +1,232 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Page;
+import vvu.centrauthz.models.PageToken;
+
+/**
+ * Page of the change feed, compiled from a cursor.
+ *
+ * <p>The feed merges two keyset scans in {@code (changed_at, application_key)}
+ * order: applications by {@code (changed_at, application_key)} and
+ * tombstones by {@code (deleted_at, application_key)}, each served by an
+ * index of the change feed migrations. A page
+ * therefore reads at most twice its size, whatever the size of the table.
+ * Tombstones of keys that exist again are skipped: the application itself
+ * is in the feed at or after its re-creation.</p>
+ *
+ * <p>Only changes stamped before a horizon are returned. Writes are stamped
+ * by the database before they commit, so a change may become visible after
+ * later stamped ones. The {@link #HORIZON} is the start of the oldest
+ * transaction that may still commit a change, which no stamp of that
+ * transaction precedes; stopping there keeps the cursor from moving past a
+ * change that has not committed yet, however long its transaction runs.</p>
+ */
+final class ApplicationChanges {
+
+    /**
+     * Sort signature of the cursors, telling them apart from page tokens.
+     */
+    static final String SIGNATURE = "changes";
+
+    /**
+     * Records the deletion of a key, replacing an earlier tombstone of it.
+     */
+    static final String TOMBSTONE = "INSERT INTO application_tombstone (application_key)"
+            + " VALUES (:applicationKey)"
+            + " ON CONFLICT (application_key) DO UPDATE SET deleted_at = EXCLUDED.deleted_at";
+
+    /**
+     * Horizon of the feed, read on the primary: the start of the oldest
+     * other transaction holding a transaction id, and the current time when
+     * there is none, followed by the current time. The stamping triggers
+     * take an id before the stamp, so a transaction without one has stamped
+     * nothing and will stamp its writes later than now; read-only
+     * transactions, however long, never hold the horizon back. Sessions of
+     * other database roles are only seen with {@code pg_read_all_stats}, see
+     * {@link #SEES_ALL_TRANSACTIONS}.
+     */
+    static final String HORIZON = "SELECT LEAST(statement_timestamp(), MIN(xact_start)),"
+            + " statement_timestamp() FROM pg_stat_activity"
+            + " WHERE datname = current_database() AND pid <> pg_backend_pid()"
+            + " AND backend_type = 'client backend'"
+            + " AND backend_xid IS NOT NULL";
+
+    /**
+     * Tells whether the {@link #HORIZON} sees the transactions of every
+     * database role, which the current role needs {@code pg_read_all_stats},
+     * or superuser, for.
+     */
+    static final String SEES_ALL_TRANSACTIONS =
+            "SELECT pg_has_role(current_user, 'pg_read_all_stats', 'USAGE')";
+
+    private static final String SQL = "SELECT application_key, changed_at, deleted, name,"
+            + " description, owner_id, management_group_id, created_at, created_by, updated_at,"
+            + " updated_by, version FROM ("
+            + "(SELECT application_key, changed_at, FALSE AS deleted, name,"
+            + " description, owner_id, management_group_id, created_at, created_by, updated_at,"
+            + " updated_by, version FROM application"
+            + " WHERE (changed_at, application_key) > (?, ?) AND changed_at < ?"
+            + " ORDER BY changed_at, application_key LIMIT ?)"
+            + " UNION ALL "
+            + "(SELECT t.application_key, t.deleted_at, TRUE, NULL, NULL, NULL, NULL, NULL, NULL,"
+            + " NULL, NULL, NULL FROM application_tombstone t"
+            + " WHERE (t.deleted_at, t.application_key) > (?, ?) AND t.deleted_at < ?"
+            + " AND NOT EXISTS (SELECT 1 FROM application a"
+            + " WHERE a.application_key = t.application_key)"
+            + " ORDER BY t.deleted_at, t.application_key LIMIT ?)"
+            + ") c ORDER BY changed_at, application_key LIMIT ?";
+
+    private final Instant afterAt;
+    private final String afterKey;
+    private final List<Object> params;
+
+    private ApplicationChanges(Instant afterAt, String afterKey, Instant before, int limit) {
+        this.afterAt = afterAt;
+        this.afterKey = afterKey;
+        var after = Timestamp.from(afterAt);
+        var horizon = Timestamp.from(before);
+        this.params = List.of(after, afterKey, horizon, limit,
+                after, afterKey, horizon, limit, limit);
+    }
+
+    /**
+     * Compiles the page of the feed following a cursor.
+     *
+     * @param cursor the cursor returned with the previous page, or null to
+     *               start from the beginning
+     * @param retainedSince time since which tombstones are retained
+     * @param before horizon: only changes stamped before it are returned
+     * @param limit maximum number of changes
+     * @return the compiled page
+     * @throws vvu.centrauthz.errors.BadRequestError if the cursor is malformed,
+     *         or older than the retained tombstones
+     */
+    static ApplicationChanges of(String cursor, Instant retainedSince, Instant before, int limit) {
+        if (Objects.isNull(cursor)) {
+            return new ApplicationChanges(Instant.EPOCH, "", before, limit);
+        }
+
+        var token = PageToken.decode(cursor);
+        if (!SIGNATURE.equals(token.sort()) || token.values().size() != 2) {
+            throw ErrorUtils.createBadRequestError("Invalid change cursor");
+        }
+        Instant afterAt;
+        try {
+            afterAt = Instant.parse(token.values().getFirst());
+        } catch (DateTimeParseException e) {
+            throw ErrorUtils.createBadRequestError("Invalid change cursor");
+        }
+        if (afterAt.isBefore(retainedSince)) {
+            throw ErrorUtils.createBadRequestError(
+                    "The change cursor has expired, list the applications again");
+        }
+        return new ApplicationChanges(afterAt, token.values().getLast(), before, limit);
+    }
+
+    /**
+     * Encodes the cursor pointing after a change.
+     */
+    static String cursor(Instant changedAt, String applicationKey) {
+        return PageToken.builder()
+                .sort(SIGNATURE)
+                .values(List.of(changedAt.toString(), applicationKey))
+                .build()
+                .encode();
+    }
+
+    String sql() {
+        return SQL;
+    }
+
+    List<Object> params() {
+        return params;
+    }
+
+    /**
+     * Binds the parameters of the page to a statement of {@link #sql()}.
+     *
+     * @param statement the statement
+     * @throws SQLException if a parameter can not be bound
+     */
+    void bind(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            statement.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Reads the horizon of the feed.
+     *
+     * @param connection the connection to the primary
+     * @return the horizon
+     * @throws SQLException if the read fails
+     */
+    static ApplicationHorizon horizon(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement();
+             var result = statement.executeQuery(HORIZON)) {
+            result.next();
+            var at = result.getTimestamp(1).toInstant();
+            var now = result.getTimestamp(2).toInstant();
+            return ApplicationHorizon.builder().at(at).lag(Duration.between(at, now)).build();
+        }
+    }
+
+    /**
+     * Reads the page.
+     *
+     * @param connection the connection to read it on
+     * @return the changes in feed order, with the cursor to resume after
+     *         them; the cursor is the one given when there are none
+     * @throws SQLException if the read fails
+     */
+    Page<ApplicationChangeRow, String> execute(Connection connection) throws SQLException {
+        try (var statement = connection.prepareStatement(SQL)) {
+            bind(statement);
+            var changes = new ArrayList<ApplicationChangeRow>();
+            try (var result = statement.executeQuery()) {
+                while (result.next()) {
+                    changes.add(change(result));
+                }
+            }
+            var next = changes.isEmpty()
+                    ? cursor(afterAt, afterKey)
+                    : cursor(changes.getLast().changedAt(), changes.getLast().applicationKey());
+            return Page.<ApplicationChangeRow, String>builder().data(changes).next(next).build();
+        }
+    }
+
+    private static ApplicationChangeRow change(ResultSet result) throws SQLException {
+        var key = result.getString(1);
+        var changedAt = result.getTimestamp(2).toInstant();
+        var row = result.getBoolean(3) ? null : ApplicationRow.builder()
+                .applicationKey(key)
+                .name(result.getString(4))
+                .description(result.getString(5))
+                .ownerId(result.getObject(6, UUID.class))
+                .managementGroupId(result.getObject(7, UUID.class))
+                .createdAt(result.getTimestamp(8).toInstant())
+                .createdBy(result.getObject(9, UUID.class))
+                .updatedAt(result.getTimestamp(10).toInstant())
+                .updatedBy(result.getObject(11, UUID.class))
+                .version(result.getLong(12))
+                .build();
+        return ApplicationChangeRow.builder()
+                .applicationKey(key)
+                .changedAt(changedAt)
+                .row(row)
+                .build();
+    }
+}
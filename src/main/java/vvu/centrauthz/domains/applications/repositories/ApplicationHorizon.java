@@ -0,0 +1,17 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.Builder;
+
+/**
+ * Horizon of the change feed, as returned by {@link ApplicationRepo#horizon()}.
+ *
+ * @param at every change stamped before this time has committed, in the
+ *           clock of the database
+ * @param lag how far the horizon trails the statement reading it, held back
+ *            by the transactions still in progress
+ */
+@Builder(toBuilder = true)
+public record ApplicationHorizon(Instant at, Duration lag) {
+}
@@ -0,0 +1,146 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import vvu.centrauthz.domains.common.models.Sort;
+import vvu.centrauthz.domains.common.models.SortDirection;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.PageToken;
+
+/**
+ * Keyset (seek) pagination over applications.
+ *
+ * <p>The requested sort order is resolved against {@link ApplicationSortField}
+ * and always terminated by {@code applicationKey}, which makes the ordering
+ * total. A page token then carries the sort-key tuple of the last row, and the
+ * next page is selected with a predicate strictly after that tuple, so page N
+ * costs the same as page 1.</p>
+ */
+final class ApplicationKeyset {
+
+    private static final String PARAM_PREFIX = "k";
+
+    private final List<Key> keys;
+
+    private ApplicationKeyset(List<Key> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Resolves a keyset for the requested sort order.
+     *
+     * @param sortOrder the requested sort order, may be empty
+     * @return keyset terminated by the application key tiebreaker
+     */
+    static ApplicationKeyset of(List<Sort> sortOrder) {
+        var keys = new ArrayList<Key>();
+        for (var sort : sortOrder) {
+            var field = ApplicationSortField.from(sort.field());
+            if (keys.stream().anyMatch(k -> k.field() == field)) {
+                throw ErrorUtils.createBadRequestError("Duplicate sort field: " + sort.field());
+            }
+            var direction = Objects.requireNonNullElse(sort.direction(), SortDirection.ASC);
+            keys.add(new Key(field, direction));
+        }
+
+        if (keys.stream().noneMatch(k -> k.field() == ApplicationSortField.APPLICATION_KEY)) {
+            keys.add(new Key(ApplicationSortField.APPLICATION_KEY, SortDirection.ASC));
+        }
+
+        return new ApplicationKeyset(List.copyOf(keys));
+    }
+
+    /**
+     * Returns the sort signature tokens are bound to.
+     */
+    String signature() {
+        return keys.stream()
+                .map(k -> k.field().getField() + ":" + k.direction())
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Returns the ORDER BY clause (without the keywords).
+     */
+    String orderBy() {
+        return keys.stream()
+                .map(k -> k.field().getField() + " " + k.direction())
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Builds the seek predicate selecting rows strictly after the token.
+     *
+     * <p>When every key is sorted in the same direction a row-value comparison
+     * is emitted, which PostgreSQL can satisfy with a single index range scan.
+     * Mixed directions fall back to the expanded OR form.</p>
+     *
+     * @param token the decoded page token
+     * @param params the query parameters to populate
+     * @return the HQL predicate
+     * @throws vvu.centrauthz.errors.BadRequestError if the token does not match
+     *         this keyset
+     */
+    String after(PageToken token, Map<String, Object> params) {
+        if (!Objects.equals(signature(), token.sort()) || token.values().size() != keys.size()) {
+            throw ErrorUtils.createBadRequestError("Page token does not match the sort order");
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            params.put(PARAM_PREFIX + i, keys.get(i).field().parse(token.values().get(i)));
+        }
+
+        var direction = keys.getFirst().direction();
+        if (keys.stream().allMatch(k -> k.direction() == direction)) {
+            return "(" + join(keys.size(), i -> keys.get(i).field().getField()) + ") "
+                    + operator(direction) + " ("
+                    + join(keys.size(), i -> ":" + PARAM_PREFIX + i) + ")";
+        }
+
+        var disjunction = new ArrayList<String>();
+        for (int i = 0; i < keys.size(); i++) {
+            var conjunction = new ArrayList<String>();
+            for (int j = 0; j < i; j++) {
+                conjunction.add(keys.get(j).field().getField() + " = :" + PARAM_PREFIX + j);
+            }
+            var key = keys.get(i);
+            conjunction.add(key.field().getField() + " "
+                    + operator(key.direction()) + " :" + PARAM_PREFIX + i);
+            disjunction.add("(" + String.join(" and ", conjunction) + ")");
+        }
+        return "(" + String.join(" or ", disjunction) + ")";
+    }
+
+    /**
+     * Builds the token pointing after the given row.
+     *
+     * @param last the last row of the current page
+     * @return the encoded page token
+     */
+    String next(ApplicationRow last) {
+        return PageToken.builder()
+                .sort(signature())
+                .values(keys.stream().map(k -> k.field().valueOf(last)).toList())
+                .build()
+                .encode();
+    }
+
+    private static String operator(SortDirection direction) {
+        return direction == SortDirection.DESC ? "<" : ">";
+    }
+
+    private static String join(int size, IntFunction<String> element) {
+        var parts = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            parts.add(element.apply(i));
+        }
+        return String.join(", ", parts);
+    }
+
+    private record Key(ApplicationSortField field, SortDirection direction) {
+    }
+}
@@ -0,0 +1,134 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.models.Page;
+import vvu.centrauthz.models.PageToken;
+
+/**
+ * Keyset-paginated application query compiled from a filter.
+ *
+ * <p>Shared by the blocking and reactive repositories, which only differ in
+ * how they execute it: fetch {@link #limit()} {@link ApplicationRow}s of
+ * {@link #hql()} with {@link #params()} and hand them to
+ * {@link #page(List)}.</p>
+ *
+ * <p>The query selects the columns straight into {@link ApplicationRow}
+ * instead of loading entities. Without
+ * {@link ApplicationFilter#includeDescription()} the description column is
+ * not read at all, which spares fetching and decompressing large
+ * descriptions for every row.</p>
+ */
+final class ApplicationQuery {
+
+    private static final String SELECT = "SELECT new " + ApplicationRow.class.getName()
+            + "(applicationKey, name, %s, ownerId, managementGroupId,"
+            + " createdAt, createdBy, updatedAt, updatedBy, version)";
+
+    private static final String NO_DESCRIPTION = "CAST(NULL AS String)";
+
+    private final ApplicationKeyset keyset;
+    private final String hql;
+    private final Map<String, Object> params;
+    private final int pageSize;
+
+    private ApplicationQuery(ApplicationKeyset keyset,
+                             String hql,
+                             Map<String, Object> params,
+                             int pageSize) {
+        this.keyset = keyset;
+        this.hql = hql;
+        this.params = params;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Compiles a filter into a query.
+     *
+     * @param filter the search and pagination criteria
+     * @return the compiled query
+     * @throws vvu.centrauthz.errors.BadRequestError if the sort order or page
+     *         token is invalid
+     */
+    static ApplicationQuery of(ApplicationFilter filter) {
+        var keyset = ApplicationKeyset.of(filter.sortOrder());
+        var conditions = new ArrayList<String>();
+        var params = new HashMap<String, Object>();
+
+        if (Objects.nonNull(filter.ownerId())) {
+            conditions.add("ownerId = :ownerId");
+            params.put("ownerId", filter.ownerId());
+        }
+
+        if (Objects.nonNull(filter.managementGroupId())) {
+            conditions.add("managementGroupId = :managementGroupId");
+            params.put("managementGroupId", filter.managementGroupId());
+        }
+
+        if (Objects.nonNull(filter.name())) {
+            conditions.add("LOWER(name) = LOWER(:name)");
+            params.put("name", filter.name());
+        }
+
+        if (Objects.nonNull(filter.pageToken())) {
+            conditions.add(keyset.after(PageToken.decode(filter.pageToken()), params));
+        }
+
+        var query = new StringBuilder(select(filter.includeDescription()));
+        query.append(" FROM ApplicationEntity");
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        query.append(" ORDER BY ").append(keyset.orderBy());
+
+        return new ApplicationQuery(keyset, query.toString(), params, filter.pageSize());
+    }
+
+    /**
+     * Returns the clause selecting applications into {@link ApplicationRow}.
+     *
+     * @param includeDescription whether the description is read, or left null
+     * @return the SELECT clause, without FROM
+     */
+    static String select(boolean includeDescription) {
+        return String.format(SELECT, includeDescription ? "description" : NO_DESCRIPTION);
+    }
+
+    String hql() {
+        return hql;
+    }
+
+    Map<String, Object> params() {
+        return params;
+    }
+
+    /**
+     * Returns the number of rows to fetch: one more than the page size, to
+     * find out whether a next page exists.
+     */
+    int limit() {
+        return pageSize + 1;
+    }
+
+    /**
+     * Builds the page from the fetched rows.
+     *
+     * @param rows at most {@link #limit()} rows
+     * @return the page with the next page token, if any
+     */
+    Page<ApplicationRow, String> page(List<ApplicationRow> rows) {
+        if (rows.size() <= pageSize) {
+            return Page.<ApplicationRow, String>builder().data(rows).build();
+        }
+
+        var data = rows.subList(0, pageSize);
+        return Page.<ApplicationRow, String>builder()
+                .data(data)
+                .next(keyset.next(data.getLast()))
+                .build();
+    }
+}
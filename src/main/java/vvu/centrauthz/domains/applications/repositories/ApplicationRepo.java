@@ -1,49 +1,187 @@
 package vvu.centrauthz.domains.applications.repositories;
 
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.models.Application;
 import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
+import vvu.centrauthz.models.Page;
+import vvu.centrauthz.models.Patcher;
+import vvu.centrauthz.replicas.ReadRouter;
 
 /**
  * Repository for managing ApplicationEntity persistence operations.
+ *
+ * <p>Writes and the lookups made on their behalf run in the current
+ * transaction on the primary. Plain reads (rows, versions and the export
+ * cursor) go through the {@link ReadRouter}, which may serve them from the
+ * read replica; they take the consistency token the read must observe.</p>
  */
 @ApplicationScoped
 public class ApplicationRepo implements PanacheRepository<ApplicationEntity> {
 
+    private static final String TIMER = "applications.repository";
+    private static final String LOCK_TIMER = "applications.lock";
+
     private static final String APPLICATION_KEY = "applicationKey";
 
+    /**
+     * Maximum number of bind values in a single IN list.
+     */
+    static final int IN_CHUNK_SIZE = 1000;
+
+    static final String INSERT = "INSERT INTO application (application_key, name,"
+            + " description, owner_id, management_group_id, created_at, created_by,"
+            + " updated_at, updated_by, version)";
+
+    /**
+     * Update branch of the upserts. Inserted rows are left without an updater;
+     * an updated row is stamped with the writer, which is the
+     * {@code created_by} of the row proposed for insertion.
+     */
+    static final String ON_CONFLICT_UPDATE = " ON CONFLICT (application_key) DO UPDATE SET"
+            + " name = EXCLUDED.name,"
+            + " description = COALESCE(EXCLUDED.description, application.description),"
+            + " owner_id = EXCLUDED.owner_id,"
+            + " management_group_id = COALESCE(EXCLUDED.management_group_id,"
+            + " application.management_group_id),"
+            + " updated_at = EXCLUDED.updated_at,"
+            + " updated_by = EXCLUDED.created_by,"
+            + " version = application.version + 1";
+
+    static final String ON_CONFLICT_NOTHING = " ON CONFLICT (application_key) DO NOTHING";
+
+    private static final String NATIVE_VALUES = " VALUES (:applicationKey, :name,"
+            + " CAST(:description AS TEXT), CAST(:ownerId AS UUID),"
+            + " CAST(:managementGroupId AS UUID), :now, CAST(:userId AS UUID), :now, NULL, 0)";
+
+    private final ReadRouter reads;
+
+    /**
+     * Constructs a new ApplicationRepo.
+     *
+     * @param reads the router picking the database, and the stateless session,
+     *              reads run in
+     */
+    public ApplicationRepo(ReadRouter reads) {
+        this.reads = reads;
+    }
+
+    /**
+     * Returns the consistency token covering the writes committed so far.
+     *
+     * @return the token, or empty when reads are not routed to a replica
+     */
+    public Optional<String> consistencyToken() {
+        return reads.position();
+    }
+
     /**
      * Query applications matching the specified filter criteria.
      *
+     * <p>Pagination is keyset based: the page token carries the sort-key tuple
+     * of the previous page's last row and the query seeks strictly after it,
+     * so every page costs the same regardless of its depth. One extra row is
+     * fetched to find out whether a next page exists.</p>
+     *
+     * <p>Rows are projected into {@link ApplicationRow} through the stateless
+     * session, so no entity is instantiated, snapshotted or flushed.</p>
+     *
+     * <p>A filter with a search text is answered by an {@link ApplicationSearch}
+     * instead: a single page of rows ranked by relevance.</p>
+     *
      * @param filter the search and pagination criteria
-     * @return list of matching application entities
+     * @param consistencyToken the consistency token the read must observe, may be null
+     * @return page of matching application rows with the next page token
      */
-    public List<ApplicationEntity> query(ApplicationFilter filter) {
-        return List.of();
+    @Timed(value = TIMER, histogram = true)
+    public Page<ApplicationRow, String> query(ApplicationFilter filter, String consistencyToken) {
+        if (Objects.nonNull(filter.search())) {
+            var search = ApplicationSearch.of(filter);
+            return reads.read(consistencyToken,
+                    session -> session.doReturningWork(search::execute));
+        }
+
+        var query = ApplicationQuery.of(filter);
+        return reads.read(consistencyToken, session -> {
+            var select = session
+                    .createSelectionQuery(query.hql(), ApplicationRow.class)
+                    .setMaxResults(query.limit());
+            query.params().forEach(select::setParameter);
+            return query.page(select.getResultList());
+        });
     }
 
 
     /**
-     * Find an application by its key.
+     * Find an application by its key, for reading only.
+     *
+     * <p>Runs on a stateless session: the row is projected without an
+     * entity, a snapshot or a flush, and outside a transaction the statement
+     * commits on its own instead of costing a BEGIN and a COMMIT.</p>
      *
      * @param applicationKey the application key to search for
+     * @param consistencyToken the consistency token the read must observe, may be null
      * @return an Optional containing the found application, or empty if not found
      */
-    public Optional<ApplicationEntity> findByKey(String applicationKey) {
-        return find(APPLICATION_KEY, applicationKey).firstResultOptional();
+    @Timed(value = TIMER, histogram = true)
+    public Optional<ApplicationRow> findRowByKey(String applicationKey, String consistencyToken) {
+        return reads.read(consistencyToken, session -> session
+                .createSelectionQuery(ApplicationQuery.select(true)
+                        + " FROM ApplicationEntity WHERE applicationKey = :applicationKey",
+                        ApplicationRow.class)
+                .setParameter(APPLICATION_KEY, applicationKey)
+                .uniqueResultOptional());
+    }
+
+    /**
+     * Find the version of an application without hydrating it.
+     *
+     * <p>Runs on a stateless session, like {@link #findRowByKey(String, String)}.</p>
+     *
+     * @param applicationKey the application key to search for
+     * @param consistencyToken the consistency token the read must observe, may be null
+     * @return an Optional containing the version, or empty if not found
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Optional<Long> findVersionByKey(String applicationKey, String consistencyToken) {
+        return reads.read(consistencyToken, session -> session
+                .createSelectionQuery("SELECT version FROM ApplicationEntity"
+                        + " WHERE applicationKey = :applicationKey", Long.class)
+                .setParameter(APPLICATION_KEY, applicationKey)
+                .uniqueResultOptional());
     }
 
     /**
      * Find an application by its key, locking the record for write
      * to prevent concurrent modifications.
      *
+     * <p>Timed separately as {@code applications.lock}, since this is where
+     * concurrent writers of the same key queue up.</p>
+     *
      * @param applicationKey the application key to search for
      * @return an Optional containing the found application, or empty if not found
      */
+    @Timed(value = LOCK_TIMER, histogram = true)
     public Optional<ApplicationEntity> findByKeyWithLock(String applicationKey) {
         return find(APPLICATION_KEY, applicationKey)
                 .withLock(LockModeType.PESSIMISTIC_WRITE)
@@ -56,6 +194,7 @@ public class ApplicationRepo implements PanacheRepository<ApplicationEntity> {
      * @param applicationKey the application key to check
      * @return true if an application with the key exists, false otherwise
      */
+    @Timed(value = TIMER, histogram = true)
     public boolean existsByKey(String applicationKey) {
         return count(APPLICATION_KEY, applicationKey) > 0;
     }
@@ -66,10 +205,469 @@ public class ApplicationRepo implements PanacheRepository<ApplicationEntity> {
      * @param applicationKey the application key to delete
      * @return true if the application was deleted, false if not found
      */
+    @Timed(value = TIMER, histogram = true)
     public boolean deleteByKey(String applicationKey) {
         return delete(APPLICATION_KEY, applicationKey) > 0;
     }
 
+    /**
+     * Replace the mutable fields of an application with a single UPDATE,
+     * optionally guarded by its version.
+     *
+     * <p>As with {@code ApplicationMapper.updateEntity}, null description and
+     * management group values leave the stored values unchanged.</p>
+     *
+     * @param applicationKey the application key to update
+     * @param application the new application data
+     * @param updatedBy the user performing the update
+     * @param updatedAt the update timestamp
+     * @param versions acceptable current versions, or null for an unconditional update
+     * @return the version the update wrote, or empty if no row was updated
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Optional<Long> updateByKey(String applicationKey,
+                                      Application application,
+                                      UUID updatedBy,
+                                      Instant updatedAt,
+                                      List<Long> versions) {
+        var params = new HashMap<String, Object>();
+        params.put(APPLICATION_KEY, applicationKey);
+        params.put("name", application.name());
+        params.put("description", application.description());
+        params.put("ownerId", application.ownerId());
+        params.put("managementGroupId", application.managementGroupId());
+
+        return updateReturningVersion("name = :name,"
+                + " description = COALESCE(CAST(:description AS TEXT), description),"
+                + " owner_id = CAST(:ownerId AS UUID),"
+                + " management_group_id = COALESCE(CAST(:managementGroupId AS UUID),"
+                + " management_group_id)", updatedBy, updatedAt, versions, params);
+    }
+
+    /**
+     * Insert an application, or replace its mutable fields if the key is
+     * already taken, in a single statement.
+     *
+     * <p>{@code ON CONFLICT} resolves concurrent writers on the primary key
+     * inside PostgreSQL, so two racing calls never surface a constraint
+     * violation. The update branch follows {@link #updateByKey} semantics
+     * for null description and management group values.</p>
+     *
+     * @param application the application data
+     * @param userId the user performing the write
+     * @param now the write timestamp
+     * @return whether the row was inserted, and the version written
+     */
+    @Timed(value = TIMER, histogram = true)
+    public ApplicationWrite upsert(Application application, UUID userId, Instant now) {
+        var row = (Object[]) bindValues(getEntityManager()
+                .createNativeQuery(INSERT + NATIVE_VALUES + ON_CONFLICT_UPDATE
+                        + " RETURNING (xmax = 0), version"), application, userId, now)
+                .getSingleResult();
+        return ApplicationWrite.builder()
+                .applicationKey(application.applicationKey())
+                .inserted(Boolean.TRUE.equals(row[0]))
+                .version(((Number) row[1]).longValue())
+                .build();
+    }
+
+    /**
+     * Insert an application unless its key is already taken, in a single
+     * statement.
+     *
+     * <p>A taken key is reported through the row count rather than a
+     * constraint violation, so it neither throws nor aborts the surrounding
+     * transaction. As with {@code persist}, the row is stamped as created by
+     * the user and left without an updater.</p>
+     *
+     * @param application the application data
+     * @param userId the user performing the write
+     * @param now the write timestamp
+     * @return true if the row was inserted, false if the key is already taken
+     */
+    @Timed(value = TIMER, histogram = true)
+    public boolean insert(Application application, UUID userId, Instant now) {
+        return bindValues(getEntityManager()
+                .createNativeQuery(INSERT + NATIVE_VALUES + ON_CONFLICT_NOTHING),
+                application, userId, now)
+                .executeUpdate() > 0;
+    }
+
+    private static Query bindValues(Query query,
+                                    Application application,
+                                    UUID userId,
+                                    Instant now) {
+        return query
+                .setParameter(APPLICATION_KEY, application.applicationKey())
+                .setParameter("name", application.name())
+                .setParameter("description", application.description())
+                .setParameter("ownerId", application.ownerId())
+                .setParameter("managementGroupId", application.managementGroupId())
+                .setParameter("userId", userId)
+                .setParameter("now", now);
+    }
+
+    /**
+     * Insert many applications in one transaction, with one multi-row
+     * statement per {@code batchSize} applications.
+     *
+     * <p>Each row is inserted with {@code ON CONFLICT}, so a key that is
+     * already taken never aborts the batch: without upsert the row is skipped,
+     * with upsert it is replaced as in {@link #upsert}. Whether a row was
+     * written, and whether it was inserted, is returned by the statement that
+     * wrote it, so a concurrent create or delete of the same key can not make
+     * the outcome wrong. See {@link ApplicationBulkInsert}.</p>
+     *
+     * @param applications the applications to insert, with distinct keys
+     * @param userId the user performing the write
+     * @param now the write timestamp
+     * @param upsert whether existing applications are replaced
+     * @param batchSize the number of rows per statement
+     * @return the rows written, in no particular order; skipped keys are
+     *         missing
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<ApplicationWrite> insertAll(List<Application> applications,
+                                            UUID userId,
+                                            Instant now,
+                                            boolean upsert,
+                                            int batchSize) {
+        var session = getEntityManager().unwrap(Session.class);
+        var written = new ArrayList<ApplicationWrite>(applications.size());
+        for (int from = 0; from < applications.size(); from += batchSize) {
+            var chunk = applications.subList(from, Math.min(from + batchSize, applications.size()));
+            var insert = ApplicationBulkInsert.of(chunk, userId, now, upsert);
+            written.addAll(session.doReturningWork(insert::execute));
+        }
+        return written;
+    }
+
+    /**
+     * Find the applications with the given keys, for reading only.
+     *
+     * <p>Keys are looked up with one {@code IN} query per
+     * {@link #IN_CHUNK_SIZE} distinct keys, projected on the stateless
+     * session like {@link #findRowByKey(String, String)}; the result is in no
+     * particular order and simply lacks the keys that do not exist.</p>
+     *
+     * @param applicationKeys the keys to look up
+     * @param consistencyToken the consistency token the read must observe, may be null
+     * @return the applications found
+     */
+    @Timed(value = TIMER, histogram = true)
+    public List<ApplicationRow> findRowsByKeys(Collection<String> applicationKeys,
+                                               String consistencyToken) {
+        return reads.read(consistencyToken, session -> {
+            var found = new ArrayList<ApplicationRow>();
+            for (var chunk : chunks(applicationKeys)) {
+                found.addAll(session
+                        .createSelectionQuery(ApplicationQuery.select(true)
+                                + " FROM ApplicationEntity"
+                                + " WHERE applicationKey IN :applicationKeys",
+                                ApplicationRow.class)
+                        .setParameter("applicationKeys", chunk)
+                        .getResultList());
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Stream the keys of all applications to a consumer.
+     *
+     * <p>Keys are fetched in chunks of {@link #IN_CHUNK_SIZE} rows from an
+     * open cursor, so this must run inside a transaction.</p>
+     *
+     * @param consumer receives every application key
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void forEachKey(Consumer<String> consumer) {
+        try (var keys = getEntityManager()
+                .createQuery("SELECT a.applicationKey FROM ApplicationEntity a", String.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, IN_CHUNK_SIZE)
+                .getResultStream()) {
+            keys.forEach(consumer);
+        }
+    }
+
+    /**
+     * Stream the keys of the applications written in a span of the change
+     * feed to a consumer.
+     *
+     * <p>Keys are read on the primary from the index of the feed, and fetched
+     * like {@link #forEachKey(Consumer)}, so this must run inside a
+     * transaction.</p>
+     *
+     * @param since keys stamped at or after this time are streamed
+     * @param before keys stamped before this time are streamed, usually the
+     *               {@link #horizon()} read beforehand
+     * @param consumer receives every key written in the span
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void forEachKeyChanged(Instant since, Instant before, Consumer<String> consumer) {
+        try (var keys = getEntityManager()
+                .unwrap(Session.class)
+                .createNativeQuery("SELECT application_key FROM application"
+                        + " WHERE changed_at >= :since AND changed_at < :before", String.class)
+                .setParameter("since", since)
+                .setParameter("before", before)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, IN_CHUNK_SIZE)
+                .getResultStream()) {
+            keys.forEach(consumer);
+        }
+    }
+
+    /**
+     * Stream the key and name of all applications to a consumer.
+     *
+     * <p>Rows are fetched like {@link #forEachKey(Consumer)}, so this must run
+     * inside a transaction.</p>
+     *
+     * @param consumer receives every application key with its name
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void forEachName(BiConsumer<String, String> consumer) {
+        try (var names = getEntityManager()
+                .createQuery("SELECT a.applicationKey, a.name FROM ApplicationEntity a",
+                        Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, IN_CHUNK_SIZE)
+                .getResultStream()) {
+            names.forEach(row -> consumer.accept((String) row[0], (String) row[1]));
+        }
+    }
+
+    /**
+     * Stream all applications in key order through a database cursor.
+     *
+     * <p>Rows are fetched {@code fetchSize} at a time and projected into
+     * {@link ApplicationRow} on a stateless session, so memory use does not
+     * grow with the number of applications. Must be called within a
+     * transaction, which PostgreSQL requires to keep the cursor open on the
+     * primary; on the replica the cursor gets a transaction of its own. Either
+     * transaction is switched to read only.</p>
+     *
+     * @param fetchSize number of rows fetched per round trip
+     * @param consistencyToken the consistency token the read must observe, may be null
+     * @param consumer receives each application
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void forEach(int fetchSize, String consistencyToken, Consumer<ApplicationRow> consumer) {
+        reads.scroll(consistencyToken, session -> {
+            session.createNativeMutationQuery("SET TRANSACTION READ ONLY").executeUpdate();
+            try (var rows = session
+                    .createSelectionQuery(ApplicationQuery.select(true)
+                            + " FROM ApplicationEntity ORDER BY applicationKey",
+                            ApplicationRow.class)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    consumer.accept(rows.get());
+                }
+            }
+        });
+    }
+
+    /**
+     * Split keys into IN lists of at most {@link #IN_CHUNK_SIZE} values.
+     */
+    static List<List<String>> chunks(Collection<String> keys) {
+        var distinct = List.copyOf(new LinkedHashSet<>(keys));
+        var chunks = new ArrayList<List<String>>();
+        for (int i = 0; i < distinct.size(); i += IN_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + IN_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Apply the patched fields of an application with a single UPDATE,
+     * optionally guarded by its version.
+     *
+     * <p>Only the columns listed in {@link Patcher#fields()} are assigned,
+     * together with the audit columns and the version.</p>
+     *
+     * @param applicationKey the application key to patch
+     * @param patcher the fields to update and their values
+     * @param updatedBy the user performing the update
+     * @param updatedAt the update timestamp
+     * @param versions acceptable current versions, or null for an unconditional update
+     * @return the version the patch wrote, or empty if no row was patched
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Optional<Long> patchByKey(String applicationKey,
+                                     Patcher<ApplicationPatcher> patcher,
+                                     UUID updatedBy,
+                                     Instant updatedAt,
+                                     List<Long> versions) {
+        var params = new HashMap<String, Object>();
+        var assignments = new ArrayList<String>();
+        params.put(APPLICATION_KEY, applicationKey);
+
+        patcher
+                .having("name", d -> assign(assignments, params,
+                        "name", "name", "TEXT", d.name()))
+                .having("description", d -> assign(assignments, params,
+                        "description", "description", "TEXT", d.description()))
+                .having("ownerId", d -> assign(assignments, params,
+                        "owner_id", "ownerId", "UUID", d.ownerId()))
+                .having("managementGroupId", d -> assign(assignments, params,
+                        "management_group_id", "managementGroupId", "UUID",
+                        d.managementGroupId()));
+
+        return updateReturningVersion(String.join(", ", assignments),
+                updatedBy, updatedAt, versions, params);
+    }
+
+    /**
+     * Delete an application by its key with a single DELETE, optionally
+     * guarded by its version.
+     *
+     * @param applicationKey the application key to delete
+     * @param versions acceptable current versions, or null for an unconditional delete
+     * @return the number of deleted rows
+     */
+    @Timed(value = TIMER, histogram = true)
+    public int deleteByKey(String applicationKey, List<Long> versions) {
+        var params = new HashMap<String, Object>();
+        params.put(APPLICATION_KEY, applicationKey);
+        return (int) delete("DELETE FROM ApplicationEntity a WHERE "
+                + byKey(versions, params), params);
+    }
+
+    /**
+     * Record the deletion of an application for the change feed.
+     *
+     * <p>Must run in the transaction deleting the application. The
+     * tombstone is stamped with the database clock, like the
+     * {@code changed_at} of the other writes.</p>
+     *
+     * @param applicationKey the key of the deleted application
+     */
+    @Timed(value = TIMER, histogram = true)
+    public void tombstone(String applicationKey) {
+        getEntityManager()
+                .createNativeQuery(ApplicationChanges.TOMBSTONE)
+                .setParameter(APPLICATION_KEY, applicationKey)
+                .executeUpdate();
+    }
+
+    /**
+     * Delete the tombstones of applications deleted before a given time.
+     *
+     * @param before the retention limit
+     * @return the number of purged tombstones
+     */
+    @Timed(value = TIMER, histogram = true)
+    public int purgeTombstones(Instant before) {
+        return getEntityManager()
+                .createNativeQuery("DELETE FROM application_tombstone WHERE deleted_at < :before")
+                .setParameter("before", before)
+                .executeUpdate();
+    }
+
+    /**
+     * Read the horizon of the change feed on the primary.
+     *
+     * <p>Every change stamped before the horizon has committed, and is seen
+     * by the statements that follow this read.</p>
+     *
+     * @return the horizon
+     */
+    @Timed(value = TIMER, histogram = true)
+    public ApplicationHorizon horizon() {
+        return getEntityManager()
+                .unwrap(Session.class)
+                .doReturningWork(ApplicationChanges::horizon);
+    }
+
+    /**
+     * Tell whether the horizon of the change feed sees the transactions of
+     * every database role.
+     *
+     * <p>Without {@code pg_read_all_stats}, the sessions of other roles hide
+     * their transactions, and the horizon would not wait for them.</p>
+     *
+     * @return true if the current role may read the activity of all roles
+     */
+    @Timed(value = TIMER, histogram = true)
+    public boolean seesAllTransactions() {
+        return (Boolean) getEntityManager()
+                .createNativeQuery(ApplicationChanges.SEES_ALL_TRANSACTIONS, Boolean.class)
+                .getSingleResult();
+    }
+
+    /**
+     * Read the page of the change feed following a cursor.
+     *
+     * <p>The horizon is first read on the primary, so that changes of
+     * transactions still in progress are left for a later page. The page is
+     * then read from the replica only if it has replayed every write
+     * committed so far, and from the primary otherwise, so that a lagging
+     * replica can not move the cursor past changes it has not seen yet.</p>
+     *
+     * @param cursor the cursor returned with the previous page, or null to
+     *               start from the beginning
+     * @param retainedSince time since which tombstones are retained
+     * @param limit maximum number of changes
+     * @return the changes, with the cursor to resume after them
+     * @throws vvu.centrauthz.errors.BadRequestError if the cursor is malformed
+     *         or has expired
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Page<ApplicationChangeRow, String> changes(String cursor,
+                                                      Instant retainedSince,
+                                                      int limit) {
+        var changes = ApplicationChanges.of(cursor, retainedSince, horizon().at(), limit);
+        return reads.read(reads.position().orElse(null),
+                session -> session.doReturningWork(changes::execute));
+    }
+
+    /**
+     * Runs a native UPDATE of an application, stamping the audit columns and
+     * bumping the version, and returns the version it wrote.
+     */
+    private Optional<Long> updateReturningVersion(String assignments,
+                                                  UUID updatedBy,
+                                                  Instant updatedAt,
+                                                  List<Long> versions,
+                                                  Map<String, Object> params) {
+        params.put("updatedBy", updatedBy);
+        params.put("updatedAt", updatedAt);
+        var where = "application_key = :applicationKey";
+        if (Objects.nonNull(versions)) {
+            params.put("versions", versions);
+            where += " AND version IN (:versions)";
+        }
+
+        var query = getEntityManager().createNativeQuery("UPDATE application SET "
+                + (assignments.isEmpty() ? "" : assignments + ", ")
+                + "updated_by = CAST(:updatedBy AS UUID), updated_at = :updatedAt,"
+                + " version = version + 1 WHERE " + where + " RETURNING version");
+        params.forEach(query::setParameter);
+        List<?> written = query.getResultList();
+        return written.stream()
+                .findFirst()
+                .map(v -> ((Number) v).longValue());
+    }
+
+    private static void assign(List<String> assignments,
+                               Map<String, Object> params,
+                               String column,
+                               String param,
+                               String type,
+                               Object value) {
+        assignments.add(column + " = CAST(:" + param + " AS " + type + ")");
+        params.put(param, value);
+    }
+
+    private static String byKey(List<Long> versions, Map<String, Object> params) {
+        if (Objects.isNull(versions)) {
+            return "a.applicationKey = :applicationKey";
+        }
+        params.put("versions", versions);
+        return "a.applicationKey = :applicationKey AND a.version IN (:versions)";
+    }
+
     /**
      * Check if an application with the given name exists (case-insensitive).
      *
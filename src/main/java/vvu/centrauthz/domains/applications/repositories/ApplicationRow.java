@@ -0,0 +1,38 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Builder;
+
+/**
+ * Read-only projection of an application row, as returned by list queries.
+ *
+ * <p>Unlike {@link vvu.centrauthz.domains.applications.entities.ApplicationEntity}
+ * it is not managed by a persistence context, so loading it costs neither an
+ * entity instance nor a dirty-checking snapshot. Timestamps keep the full
+ * precision of the database, which keyset pagination relies on.</p>
+ *
+ * @param applicationKey the unique key of the application
+ * @param name the name of the application
+ * @param description the description, or null when it was not selected
+ * @param ownerId the owner of the application
+ * @param managementGroupId the management group of the application
+ * @param createdAt the creation timestamp
+ * @param createdBy the user who created the application
+ * @param updatedAt the last update timestamp
+ * @param updatedBy the user who last updated the application
+ * @param version the revision of the application
+ */
+@Builder(toBuilder = true)
+public record ApplicationRow(
+        String applicationKey,
+        String name,
+        String description,
+        UUID ownerId,
+        UUID managementGroupId,
+        Instant createdAt,
+        UUID createdBy,
+        Instant updatedAt,
+        UUID updatedBy,
+        Long version) {
+}
@@ -0,0 +1,195 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Page;
+
+/**
+ * Relevance-ranked application search compiled from a filter.
+ *
+ * <p>Each {@link vvu.centrauthz.domains.applications.models.SearchMode} is
+ * written against one of the indexes of the
+ * {@code V4__Add_Application_Search_Indexes} migration:</p>
+ * <ul>
+ *   <li>{@code PREFIX}: {@code lower(name) LIKE 'text%'} on the
+ *       {@code text_pattern_ops} index of {@code lower(name)};</li>
+ *   <li>{@code SUBSTRING}: {@code ILIKE '%text%'} on the trigram indexes of
+ *       the name and the description, ranked by trigram similarity;</li>
+ *   <li>{@code FULL_TEXT}: {@code @@} on the weighted text search document,
+ *       ranked with {@code ts_rank}.</li>
+ * </ul>
+ *
+ * <p>The statement is native SQL, since HQL has no text search operator, and
+ * is run on a JDBC connection of the session. Ranked results are not keyset
+ * paginated: a search returns a single page of the best matches, so sort
+ * orders and page tokens are rejected.</p>
+ */
+final class ApplicationSearch {
+
+    private static final String SELECT = "SELECT application_key, name, %s, owner_id,"
+            + " management_group_id, created_at, created_by, updated_at, updated_by, version"
+            + " FROM application WHERE ";
+
+    /**
+     * Text search document, identical to the expression of
+     * {@code idx_application_search}: the planner only uses an expression
+     * index for the very same expression.
+     */
+    static final String DOCUMENT = "(setweight(to_tsvector('simple', name), 'A')"
+            + " || setweight(to_tsvector('simple', coalesce(description, '')), 'B'))";
+
+    private static final String QUERY = "websearch_to_tsquery('simple', ?)";
+
+    private final String sql;
+    private final List<Object> params;
+
+    private ApplicationSearch(String sql, List<Object> params) {
+        this.sql = sql;
+        this.params = params;
+    }
+
+    /**
+     * Compiles the search of a filter.
+     *
+     * @param filter the filter, with a search text
+     * @return the compiled search
+     * @throws vvu.centrauthz.errors.BadRequestError if the filter also has a
+     *         sort order or a page token
+     */
+    static ApplicationSearch of(ApplicationFilter filter) {
+        if (!filter.sortOrder().isEmpty()) {
+            throw ErrorUtils.createBadRequestError(
+                    "Search results are ranked by relevance and can not be sorted");
+        }
+        if (Objects.nonNull(filter.pageToken())) {
+            throw ErrorUtils.createBadRequestError("Search results are not paginated");
+        }
+
+        var text = filter.search();
+        var params = new ArrayList<Object>();
+        var query = new StringBuilder(String.format(SELECT,
+                filter.includeDescription() ? "description" : "CAST(NULL AS TEXT)"));
+        String rank;
+        var ranked = true;
+
+        switch (filter.searchMode()) {
+            case PREFIX -> {
+                query.append("lower(name) LIKE lower(?)");
+                params.add(escape(text) + "%");
+                rank = "length(name), lower(name)";
+                ranked = false;
+            }
+            case SUBSTRING -> {
+                query.append("(name ILIKE ? OR description ILIKE ?)");
+                params.add("%" + escape(text) + "%");
+                params.add("%" + escape(text) + "%");
+                rank = "similarity(name, ?) DESC";
+            }
+            default -> {
+                query.append(DOCUMENT).append(" @@ ").append(QUERY);
+                params.add(text);
+                rank = "ts_rank(" + DOCUMENT + ", " + QUERY + ") DESC";
+            }
+        }
+
+        if (Objects.nonNull(filter.ownerId())) {
+            query.append(" AND owner_id = ?");
+            params.add(filter.ownerId());
+        }
+
+        if (Objects.nonNull(filter.managementGroupId())) {
+            query.append(" AND management_group_id = ?");
+            params.add(filter.managementGroupId());
+        }
+
+        if (Objects.nonNull(filter.name())) {
+            query.append(" AND lower(name) = lower(?)");
+            params.add(filter.name());
+        }
+
+        query.append(" ORDER BY ").append(rank).append(", application_key LIMIT ?");
+        if (ranked) {
+            params.add(text);
+        }
+        params.add(filter.pageSize());
+
+        return new ApplicationSearch(query.toString(), List.copyOf(params));
+    }
+
+    /**
+     * Escapes the LIKE wildcards of a text, with PostgreSQL's default escape
+     * character.
+     */
+    static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    List<Object> params() {
+        return params;
+    }
+
+    /**
+     * Binds the parameters of the search to a statement of {@link #sql()}.
+     *
+     * @param statement the statement
+     * @throws SQLException if a parameter can not be bound
+     */
+    void bind(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            statement.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Runs the search.
+     *
+     * @param connection the connection to run it on
+     * @return the matching rows, best match first, without a next page
+     * @throws SQLException if the search fails
+     */
+    Page<ApplicationRow, String> execute(Connection connection) throws SQLException {
+        try (var statement = connection.prepareStatement(sql)) {
+            bind(statement);
+            var rows = new ArrayList<ApplicationRow>();
+            try (var result = statement.executeQuery()) {
+                while (result.next()) {
+                    rows.add(row(result));
+                }
+            }
+            return Page.<ApplicationRow, String>builder().data(rows).build();
+        }
+    }
+
+    private static ApplicationRow row(ResultSet result) throws SQLException {
+        return ApplicationRow.builder()
+                .applicationKey(result.getString(1))
+                .name(result.getString(2))
+                .description(result.getString(3))
+                .ownerId(result.getObject(4, UUID.class))
+                .managementGroupId(result.getObject(5, UUID.class))
+                .createdAt(instant(result.getTimestamp(6)))
+                .createdBy(result.getObject(7, UUID.class))
+                .updatedAt(instant(result.getTimestamp(8)))
+                .updatedBy(result.getObject(9, UUID.class))
+                .version(result.getLong(10))
+                .build();
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return Objects.isNull(timestamp) ? null : timestamp.toInstant();
+    }
+}
@@ -0,0 +1,84 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.Getter;
+import vvu.centrauthz.errors.ErrorUtils;
+
+/**
+ * Sortable application fields.
+ *
+ * <p>Only non-nullable columns are sortable, so that keyset predicates never
+ * have to deal with NULL ordering. Each field knows how to read its value from
+ * a row and how to parse it back from a page token.</p>
+ */
+public enum ApplicationSortField {
+    APPLICATION_KEY("applicationKey", "application_key",
+            ApplicationRow::applicationKey, s -> s),
+    NAME("name", "name",
+            ApplicationRow::name, s -> s),
+    OWNER_ID("ownerId", "owner_id",
+            ApplicationRow::ownerId, UUID::fromString),
+    CREATED_AT("createdAt", "created_at",
+            ApplicationRow::createdAt, Instant::parse);
+
+    @Getter
+    private final String field;
+    @Getter
+    private final String column;
+    private final Function<ApplicationRow, Object> extractor;
+    private final Function<String, Object> parser;
+
+    ApplicationSortField(String field,
+                         String column,
+                         Function<ApplicationRow, Object> extractor,
+                         Function<String, Object> parser) {
+        this.field = field;
+        this.column = column;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    /**
+     * Reads this field from a row and renders it for a page token.
+     *
+     * @param row the row to read from
+     * @return the string form of the value
+     */
+    public String valueOf(ApplicationRow row) {
+        return String.valueOf(extractor.apply(row));
+    }
+
+    /**
+     * Parses a page token value back into a query parameter.
+     *
+     * @param value the string form of the value
+     * @return the typed value
+     * @throws vvu.centrauthz.errors.BadRequestError if the value cannot be parsed
+     */
+    public Object parse(String value) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw ErrorUtils.createBadRequestError("Invalid page token");
+        }
+    }
+
+    /**
+     * Resolves a sortable field by its API name.
+     *
+     * @param field the API field name (e.g. "name")
+     * @return the matching sort field
+     * @throws vvu.centrauthz.errors.BadRequestError if the field is not sortable
+     */
+    public static ApplicationSortField from(String field) {
+        return Arrays.stream(values())
+                .filter(f -> Objects.equals(f.field, field))
+                .findFirst()
+                .orElseThrow(() -> ErrorUtils.createBadRequestError(
+                        "Unsupported sort field: " + field));
+    }
+}
@@ -0,0 +1,16 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import lombok.Builder;
+
+/**
+ * Outcome of writing one application with {@link ApplicationRepo#upsert} or
+ * {@link ApplicationRepo#insertAll}, as returned by the writing statement.
+ *
+ * @param applicationKey the key of the written application
+ * @param inserted true if the row was inserted, false if an existing row
+ *                 was updated
+ * @param version the version of the row after the write
+ */
+@Builder(toBuilder = true)
+public record ApplicationWrite(String applicationKey, boolean inserted, long version) {
+}
@@ -0,0 +1,69 @@
+package vvu.centrauthz.domains.applications.services;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.inject.Singleton;
+import java.util.Objects;
+import vvu.centrauthz.domains.applications.caches.ApplicationNameIndex;
+import vvu.centrauthz.domains.applications.models.ApplicationSuggestion;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Page;
+
+/**
+ * Service completing typed prefixes into applications.
+ *
+ * <p>Suggestions are answered from {@link ApplicationNameIndex} alone: the
+ * database is never queried, so a lookup costs a binary search and a short
+ * scan in memory. The index only reflects writes made through other
+ * instances once it has been rebuilt.</p>
+ */
+@Singleton
+public class ApplicationAutocompleteService {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String TIMER = "applications.service";
+
+    private final ApplicationNameIndex names;
+
+    /**
+     * Constructs a new ApplicationAutocompleteService.
+     *
+     * @param names the in-memory index of application keys and names
+     */
+    public ApplicationAutocompleteService(ApplicationNameIndex names) {
+        this.names = names;
+    }
+
+    /**
+     * Suggests the applications whose key or name starts with a prefix.
+     *
+     * @param prefix the typed prefix, matched ignoring case
+     * @param pageSize maximum number of suggestions (defaults to 10, maximum 100)
+     * @return the suggestions in the order of their matching key or name, without a next page
+     * @throws vvu.centrauthz.errors.BadRequestError if the prefix is missing or blank
+     * @throws vvu.centrauthz.errors.ServiceUnavailableError if the index has not been
+     *         built yet or is disabled
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Page<ApplicationSuggestion, String> suggest(String prefix, Integer pageSize) {
+        if (Objects.isNull(prefix) || prefix.isBlank()) {
+            throw ErrorUtils.createBadRequestError("prefix is required");
+        }
+
+        var limit = Objects.isNull(pageSize) || pageSize < 1
+                ? DEFAULT_PAGE_SIZE
+                : Math.min(pageSize, MAX_PAGE_SIZE);
+        var matches = names.find(prefix.strip(), limit).orElseThrow(() -> ErrorUtils
+                .createServiceUnavailableError("Autocomplete is not available"));
+
+        return Page.<ApplicationSuggestion, String>builder()
+                .data(matches.stream()
+                        .map(m -> ApplicationSuggestion.builder()
+                                .applicationKey(m.key())
+                                .name(m.name())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
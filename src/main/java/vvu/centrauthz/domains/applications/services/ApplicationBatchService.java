@@ -0,0 +1,313 @@
+package vvu.centrauthz.domains.applications.services;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Singleton;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import vvu.centrauthz.domains.applications.caches.ApplicationCache;
+import vvu.centrauthz.domains.applications.caches.ApplicationKeyFilter;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationBatchGetResult;
+import vvu.centrauthz.domains.applications.models.ApplicationBatchItem;
+import vvu.centrauthz.domains.applications.models.ApplicationBatchResult;
+import vvu.centrauthz.domains.applications.models.ApplicationBatchStatus;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.domains.applications.repositories.ApplicationWrite;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Error;
+import vvu.centrauthz.utilities.Context;
+
+/**
+ * Service for writing many applications in one request.
+ *
+ * <p>Items are validated individually, so an invalid item is reported
+ * instead of failing the whole request. The valid items are then written in
+ * a single transaction with multi-row statements, which also tell which items
+ * were inserted, updated or skipped, and every item gets its own result in
+ * request order.</p>
+ *
+ * <p>Batch reads resolve all keys not already cached with chunked
+ * {@code IN} queries instead of one lookup per key.</p>
+ */
+@Singleton
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
+public class ApplicationBatchService {
+
+    private static final String TIMER = "applications.service";
+
+    private final ApplicationRepo repo;
+    private final ApplicationMapper mapper;
+    private final ApplicationCache cache;
+    private final ApplicationKeyFilter keys;
+    private final Event<ApplicationChangedEvent> events;
+    private final Validator validator;
+    private final ApplicationConfig.Batch config;
+
+    /**
+     * Constructs a new ApplicationBatchService with the required dependencies.
+     *
+     * @param repo the application repository for data access operations
+     * @param mapper the mapper for converting between entities and DTOs
+     * @param cache the read-through cache of application DTOs
+     * @param keys the filter of existing application keys
+     * @param events the emitter of application change events
+     * @param validator the bean validator applied to each item
+     * @param config the applications configuration
+     */
+    public ApplicationBatchService(ApplicationRepo repo,
+                                   ApplicationMapper mapper,
+                                   ApplicationCache cache,
+                                   ApplicationKeyFilter keys,
+                                   Event<ApplicationChangedEvent> events,
+                                   Validator validator,
+                                   ApplicationConfig config) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.cache = cache;
+        this.keys = keys;
+        this.events = events;
+        this.validator = validator;
+        this.config = config.batch();
+    }
+
+    /**
+     * Creates, or with force upserts, a list of applications.
+     *
+     * <p>Without force an application whose key is already taken is reported
+     * as {@link ApplicationBatchStatus#CONFLICT} and left untouched. With force
+     * it is replaced and reported as {@link ApplicationBatchStatus#UPDATED}.
+     * A key repeated within the request is a conflict in both modes.</p>
+     *
+     * @param applications the applications to write
+     * @param force whether existing applications are replaced
+     * @param context the execution context containing user information
+     * @return the result of each item, in request order
+     * @throws vvu.centrauthz.errors.BadRequestError if the list is missing
+     *         or exceeds the configured maximum number of items
+     */
+    @Transactional
+    @Timed(value = TIMER, histogram = true)
+    public ApplicationBatchResult createAll(List<Application> applications,
+                                            Boolean force,
+                                            Context context) {
+        if (Objects.isNull(applications)) {
+            throw ErrorUtils.createBadRequestError("applications are required");
+        }
+
+        if (applications.size() > config.maxItems()) {
+            throw ErrorUtils.createBadRequestError(
+                    "At most " + config.maxItems() + " applications are accepted per batch");
+        }
+
+        var upsert = Boolean.TRUE.equals(force);
+        var results = new ApplicationBatchItem[applications.size()];
+        var accepted = new ArrayList<Integer>();
+        var seen = new HashSet<String>();
+
+        for (int i = 0; i < applications.size(); i++) {
+            var application = applications.get(i);
+            var invalid = validate(i, application);
+            if (Objects.nonNull(invalid)) {
+                results[i] = invalid;
+            } else if (!seen.add(application.applicationKey())) {
+                results[i] = conflict(i, application.applicationKey(),
+                        "is duplicated in the batch");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        var batch = accepted.stream().map(applications::get).toList();
+        if (!batch.isEmpty()) {
+            var written = repo.insertAll(batch, context.user().userId(),
+                    Instant.ofEpochMilli(System.currentTimeMillis()), upsert, config.size())
+                    .stream()
+                    .collect(Collectors.toMap(ApplicationWrite::applicationKey, w -> w));
+
+            for (int j = 0; j < batch.size(); j++) {
+                var index = accepted.get(j);
+                var key = batch.get(j).applicationKey();
+                var name = batch.get(j).name();
+                var write = written.get(key);
+                if (Objects.isNull(write)) {
+                    results[index] = conflict(index, key, "already exists");
+                } else if (!write.inserted()) {
+                    results[index] = written(index, key, ApplicationBatchStatus.UPDATED);
+                    changed(key, name, ApplicationChangeType.UPDATED, write.version());
+                } else {
+                    results[index] = written(index, key, ApplicationBatchStatus.CREATED);
+                    changed(key, name, ApplicationChangeType.CREATED, write.version());
+                }
+            }
+        }
+
+        return ApplicationBatchResult.builder().items(Arrays.asList(results)).build();
+    }
+
+    /**
+     * Returns the consistency token of the writes that have returned so far.
+     *
+     * @return the token, or empty when reads are not routed to a replica
+     * @see ApplicationService#consistencyToken()
+     */
+    public Optional<String> consistencyToken() {
+        return repo.consistencyToken();
+    }
+
+    /**
+     * Retrieves many applications by key.
+     *
+     * <p>Cached applications are served from {@link ApplicationCache}; the
+     * remaining keys are resolved together through
+     * {@link ApplicationRepo#findRowsByKeys}, except for keys another read is
+     * already loading, whose result is shared. Applications loaded here are
+     * not put into the cache. A read carrying a consistency token goes to the
+     * repository for every key, past the cache and the key filter, like
+     * {@link ApplicationService#get}.</p>
+     *
+     * @param keys the application keys, duplicates are ignored
+     * @param context the execution context containing user information
+     * @return the applications found in request order, and the missing keys
+     * @throws vvu.centrauthz.errors.BadRequestError if the keys are missing
+     *         or exceed the configured maximum number of items
+     */
+    @Timed(value = TIMER, histogram = true)
+    public ApplicationBatchGetResult getAll(List<String> keys, Context context) {
+        if (Objects.isNull(keys) || keys.stream().anyMatch(Objects::isNull)) {
+            throw ErrorUtils.createBadRequestError("keys are required");
+        }
+
+        var distinct = List.copyOf(new LinkedHashSet<>(keys));
+        if (distinct.size() > config.maxItems()) {
+            throw ErrorUtils.createBadRequestError(
+                    "At most " + config.maxItems() + " keys are accepted per batch");
+        }
+
+        var token = context.consistencyToken();
+        var found = Objects.isNull(token)
+                ? cache.getAll(distinct, this::load)
+                : load(distinct, token);
+
+        var items = new ArrayList<Application>(found.size());
+        var missing = new ArrayList<String>();
+        for (var key : distinct) {
+            var application = found.get(key);
+            if (Objects.nonNull(application)) {
+                items.add(application);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        return ApplicationBatchGetResult.builder().items(items).missing(missing).build();
+    }
+
+    private Map<String, Application> load(Set<String> applicationKeys) {
+        var candidates = applicationKeys.stream().filter(keys::mightExist).toList();
+        if (candidates.isEmpty()) {
+            return new HashMap<>();
+        }
+        return load(candidates, null);
+    }
+
+    private Map<String, Application> load(Collection<String> applicationKeys,
+                                          String consistencyToken) {
+        var loaded = new HashMap<String, Application>();
+        for (var row : repo.findRowsByKeys(applicationKeys, consistencyToken)) {
+            loaded.put(row.applicationKey(), mapper.toDto(row));
+        }
+        return loaded;
+    }
+
+    private ApplicationBatchItem validate(int index, Application application) {
+        if (Objects.isNull(application)) {
+            return invalid(index, null, "application is required", null);
+        }
+
+        var violations = validator.validate(application);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        var details = violations.stream()
+                .collect(Collectors.toMap(
+                        v -> v.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage,
+                        (a, b) -> a + "; " + b,
+                        LinkedHashMap::new));
+        return invalid(index, application.applicationKey(), "application is invalid", details);
+    }
+
+    private static ApplicationBatchItem invalid(int index,
+                                                String applicationKey,
+                                                String message,
+                                                Map<String, String> details) {
+        return ApplicationBatchItem.builder()
+                .index(index)
+                .applicationKey(applicationKey)
+                .status(ApplicationBatchStatus.INVALID)
+                .error(Error.builder()
+                        .code(ApplicationBatchStatus.INVALID.name())
+                        .message(message)
+                        .details(details)
+                        .build())
+                .build();
+    }
+
+    private static ApplicationBatchItem conflict(int index, String applicationKey, String reason) {
+        return ApplicationBatchItem.builder()
+                .index(index)
+                .applicationKey(applicationKey)
+                .status(ApplicationBatchStatus.CONFLICT)
+                .error(Error.builder()
+                        .code(ApplicationBatchStatus.CONFLICT.name())
+                        .message(applicationKey + " " + reason)
+                        .build())
+                .build();
+    }
+
+    private static ApplicationBatchItem written(int index,
+                                                String applicationKey,
+                                                ApplicationBatchStatus status) {
+        return ApplicationBatchItem.builder()
+                .index(index)
+                .applicationKey(applicationKey)
+                .status(status)
+                .build();
+    }
+
+    private void changed(String applicationKey,
+                         String name,
+                         ApplicationChangeType type,
+                         Long version) {
+        events.fire(ApplicationChangedEvent
+                .builder()
+                .applicationKey(applicationKey)
+                .type(type)
+                .name(name)
+                .version(version)
+                .build());
+    }
+}
@@ -0,0 +1,139 @@
+package vvu.centrauthz.domains.applications.services;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+import jakarta.transaction.Transactional;
+import java.time.Instant;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.ApplicationChange;
+import vvu.centrauthz.domains.applications.repositories.ApplicationChangeRow;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.models.Page;
+
+/**
+ * Service for the incremental change feed of the application catalog.
+ *
+ * <p>Consumers start without a cursor, then pass back the cursor of every
+ * page to get the changes made since, until a page comes back shorter than
+ * requested. A page costs two index range scans bounded by its size, so
+ * keeping up with the catalog costs in proportion to the changes rather
+ * than to the number of applications.</p>
+ *
+ * <p>Deletions are recorded as tombstones, which are kept for
+ * {@code changes.tombstone-retention}; a cursor older than that is rejected
+ * and the consumer has to list the applications again.</p>
+ *
+ * <p>Left out of the reactive stack, whose writes still record tombstones
+ * for the blocking instances sharing the database, which serve the feed and
+ * purge them.</p>
+ */
+@Slf4j
+@Singleton
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
+public class ApplicationChangeService {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String TIMER = "applications.service";
+
+    private final ApplicationRepo repo;
+    private final ApplicationMapper mapper;
+    private final ApplicationConfig.Changes config;
+
+    /**
+     * Constructs a new ApplicationChangeService with the required dependencies.
+     *
+     * @param repo the application repository for data access operations
+     * @param mapper the mapper for converting between rows and DTOs
+     * @param config the applications configuration
+     */
+    public ApplicationChangeService(ApplicationRepo repo,
+                                    ApplicationMapper mapper,
+                                    ApplicationConfig config) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.config = config.changes();
+    }
+
+    /**
+     * Refuses to start when the database role can not see the transactions
+     * of other roles, which the horizon of the feed must wait for.
+     *
+     * @param event the startup event
+     * @throws IllegalStateException if the role lacks {@code pg_read_all_stats}
+     */
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (!repo.seesAllTransactions()) {
+            throw new IllegalStateException("The database role must be granted"
+                    + " pg_read_all_stats for the change feed to wait for the transactions"
+                    + " of other roles");
+        }
+    }
+
+    /**
+     * Lists the changes made after a cursor, in the order they were stamped.
+     *
+     * <p>Changes stamped after the start of the oldest write transaction
+     * still in progress are left for a later call, so that the cursor never
+     * moves past a write that has not committed yet.</p>
+     *
+     * @param since the cursor of the previous page, or null to start from the beginning
+     * @param pageSize maximum number of changes (defaults to 100, maximum 1000)
+     * @return the changes, with the cursor to pass back as {@code since}
+     * @throws vvu.centrauthz.errors.BadRequestError if the cursor is malformed or has expired
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Page<ApplicationChange, String> changes(String since, Integer pageSize) {
+        var now = Instant.ofEpochMilli(System.currentTimeMillis());
+        var limit = Objects.isNull(pageSize) || pageSize < 1
+                ? DEFAULT_PAGE_SIZE
+                : Math.min(pageSize, MAX_PAGE_SIZE);
+
+        var page = repo.changes(since, now.minus(config.tombstoneRetention()), limit);
+        return Page.<ApplicationChange, String>builder()
+                .data(page.data().stream().map(this::toChange).toList())
+                .next(page.next())
+                .build();
+    }
+
+    /**
+     * Purges the tombstones older than the retention.
+     */
+    @Transactional
+    @Scheduled(every = "${centrauthz.applications.changes.purge-every:1h}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purge() {
+        var now = Instant.ofEpochMilli(System.currentTimeMillis());
+        var purged = repo.purgeTombstones(now.minus(config.tombstoneRetention()));
+        log.debug("Purged {} application tombstones", purged);
+    }
+
+    private ApplicationChange toChange(ApplicationChangeRow change) {
+        var row = change.row();
+        ApplicationChangeType type;
+        if (Objects.isNull(row)) {
+            type = ApplicationChangeType.DELETED;
+        } else {
+            type = Objects.equals(row.version(), 0L)
+                    ? ApplicationChangeType.CREATED
+                    : ApplicationChangeType.UPDATED;
+        }
+        return ApplicationChange.builder()
+                .applicationKey(change.applicationKey())
+                .type(type)
+                .changedAt(change.changedAt().toEpochMilli())
+                .application(Objects.isNull(row) ? null : mapper.toDto(row))
+                .build();
+    }
+}
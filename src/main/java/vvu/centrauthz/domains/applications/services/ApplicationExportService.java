@@ -0,0 +1,91 @@
+package vvu.centrauthz.domains.applications.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import jakarta.inject.Singleton;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.JsonTools;
+
+/**
+ * Service for exporting the whole application catalog.
+ *
+ * <p>Applications are read through a database cursor and written one JSON
+ * document per line as they arrive, so neither the rows nor the response are
+ * held in memory. The cursor may be opened on the read replica.</p>
+ */
+@Singleton
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
+public class ApplicationExportService {
+
+    private static final String TIMER = "applications.service";
+
+    /**
+     * Writes each application without flushing, leaving it to the generator
+     * to write its buffer whenever it fills up.
+     */
+    private static final ObjectWriter WRITER = JsonTools.mapper()
+            .writerFor(Application.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final ApplicationRepo repo;
+    private final ApplicationMapper mapper;
+    private final ApplicationConfig.Export config;
+
+    /**
+     * Constructs a new ApplicationExportService with the required dependencies.
+     *
+     * @param repo the application repository for data access operations
+     * @param mapper the mapper for converting between rows and DTOs
+     * @param config the applications configuration
+     */
+    public ApplicationExportService(ApplicationRepo repo,
+                                    ApplicationMapper mapper,
+                                    ApplicationConfig config) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.config = config.export();
+    }
+
+    /**
+     * Writes all applications, in key order, as newline-delimited JSON.
+     *
+     * <p>The output is not closed. Once the first line has been written a
+     * failure can no longer be turned into an error response, so the output
+     * simply ends early.</p>
+     *
+     * @param output the stream to write to
+     * @param context the execution context containing user information
+     * @throws IOException if writing to the output fails
+     */
+    @Transactional
+    @Timed(value = TIMER, histogram = true)
+    public void export(OutputStream output, Context context) throws IOException {
+        try (var generator = JsonTools.mapper().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are terminated explicitly instead of separated by a space
+            generator.setRootValueSeparator(null);
+            repo.forEach(config.fetchSize(), context.consistencyToken(), row -> {
+                try {
+                    WRITER.writeValue(generator, mapper.toDto(row));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
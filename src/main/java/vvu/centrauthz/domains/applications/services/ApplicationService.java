@@ -1,21 +1,39 @@
 package vvu.centrauthz.domains.applications.services;
 
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import vvu.centrauthz.domains.applications.caches.ApplicationCache;
+import vvu.centrauthz.domains.applications.caches.ApplicationKeyFilter;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.configs.ConcurrencyMode;
 import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
 import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
 import vvu.centrauthz.domains.applications.models.Application;
 import vvu.centrauthz.domains.applications.models.ApplicationFilter;
 import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
 import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.errors.AppError;
 import vvu.centrauthz.errors.ErrorUtils;
-import vvu.centrauthz.errors.NotImplementedError;
 import vvu.centrauthz.models.Page;
 import vvu.centrauthz.models.Patcher;
 import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.ETags;
 
 /**
  * Service layer for managing application entities and business logic.
@@ -25,84 +43,268 @@ import vvu.centrauthz.utilities.Context;
  * All operations are performed within the security context and include
  * proper auditing of changes.</p>
  *
- * <p>The service handles entity locking for concurrent access safety and
- * provides both strict and force update modes. It automatically manages
- * audit fields like createdBy, updatedBy, and updatedAt.</p>
+ * <p>The service handles concurrent access safety and provides both strict
+ * and force update modes. It automatically manages audit fields like
+ * createdBy, updatedBy, and updatedAt.</p>
+ *
+ * <p>Concurrent writes are serialized according to
+ * {@link ConcurrencyMode}: either by locking the row before modifying the
+ * entity, or by a single UPDATE/DELETE guarded by the version column. In both
+ * modes writes honour If-Match preconditions and fail with
+ * {@code PreconditionFailedError} when the version has moved on.</p>
+ *
+ * <p>Reads (get, list and entity tags) run outside a transaction, on a
+ * stateless session: they neither hydrate entities nor flush. Reads by key
+ * are served through {@link ApplicationCache}. Every write fires an
+ * {@link ApplicationChangedEvent}, which observers such as the cache handle
+ * once the surrounding transaction has committed.</p>
+ *
+ * <p>Reads may be served by the read replica. Once a write has returned,
+ * {@link #consistencyToken()} tells its position; a read whose context
+ * carries that token observes the write, and bypasses the cache so that an
+ * entry loaded from a lagging replica can not answer it.</p>
  *
  * @since 1.0
  */
 @Singleton
+@UnlessBuildProperty(name = "centrauthz.stack", stringValue = "reactive",
+        enableIfMissing = true)
 public class ApplicationService {
 
+    private static final String TIMER = "applications.service";
+
     private final ApplicationRepo repo;
     private final ApplicationMapper mapper;
+    private final ApplicationCache cache;
+    private final ApplicationKeyFilter keys;
+    private final Event<ApplicationChangedEvent> events;
+    private final Validator validator;
+    private final boolean optimistic;
 
     /**
      * Constructs a new ApplicationService with the required dependencies.
      *
      * @param repo the application repository for data access operations
      * @param mapper the mapper for converting between entities and DTOs
+     * @param cache the read-through cache of application DTOs
+     * @param keys the filter of existing application keys
+     * @param events the emitter of application change events
+     * @param validator the bean validator applied to patched values
+     * @param config the applications configuration
      */
-    public ApplicationService(ApplicationRepo repo, ApplicationMapper mapper) {
+    public ApplicationService(ApplicationRepo repo,
+                              ApplicationMapper mapper,
+                              ApplicationCache cache,
+                              ApplicationKeyFilter keys,
+                              Event<ApplicationChangedEvent> events,
+                              Validator validator,
+                              ApplicationConfig config) {
         this.repo = repo;
         this.mapper = mapper;
+        this.cache = cache;
+        this.keys = keys;
+        this.events = events;
+        this.validator = validator;
+        this.optimistic = config.concurrency().mode() == ConcurrencyMode.OPTIMISTIC;
+    }
+
+    private void changed(String applicationKey,
+                         String name,
+                         ApplicationChangeType type,
+                         Long version) {
+        events.fire(ApplicationChangedEvent
+                .builder()
+                .applicationKey(applicationKey)
+                .type(type)
+                .name(name)
+                .version(version)
+                .build());
     }
 
     /**
      * Retrieves a paginated list of applications based on filter criteria.
      *
+     * <p>Pages are keyset based; the returned {@code next} token, when present,
+     * is passed back as the filter's page token to fetch the following page.</p>
+     *
      * @param filter the filtering, sorting, and pagination criteria
      * @param context the execution context containing user information
      * @return a paginated result containing matching applications
-     * @throws NotImplementedError as this feature is not yet implemented
+     * @throws vvu.centrauthz.errors.BadRequestError if the sort order or page token is invalid
      */
+    @Timed(value = TIMER, histogram = true)
     public Page<Application, String> list(ApplicationFilter filter, Context context) {
-        throw new NotImplementedError("Feature not implemented");
+        var page = repo.query(filter, context.consistencyToken());
+        return Page.<Application, String>builder()
+                .data(mapper.rowsToDtoList(page.data()))
+                .next(page.next())
+                .build();
     }
 
     /**
      * Retrieves a single application by its unique key.
      *
+     * <p>The application is served from the cache when present and loaded
+     * from the repository otherwise. Concurrent loads of the same key are
+     * collapsed into one. A load filling the cache reads at a position
+     * following the last invalidation, so that a lagging read replica can not
+     * put back the value a write has just replaced. A read carrying a
+     * consistency token always goes to the repository, past the cache and
+     * the key filter, which may not have learned the write yet.</p>
+     *
      * @param applicationKey the unique identifier of the application
      * @param context the execution context containing user information
      * @return the application DTO if found
      * @throws RuntimeException if the application is not found
      */
+    @Timed(value = TIMER, histogram = true)
     public Application get(String applicationKey, Context context) {
-        var e = this.repo
-                .findByKey(applicationKey)
-                .orElseThrow(() -> ErrorUtils.createNotFoundError(applicationKey + "is not found"));
-        return mapper.toDto(e);
+        var token = context.consistencyToken();
+        var application = Objects.isNull(token)
+                ? cache.get(applicationKey, this::fill)
+                : load(applicationKey, token);
+        if (Objects.isNull(application)) {
+            throw ErrorUtils.createNotFoundError(applicationKey + " is not found");
+        }
+        return application;
+    }
+
+    /**
+     * Computes the entity tag of an application.
+     *
+     * <p>The tag is derived from the application key and its version, and is
+     * accepted back in If-Match by the write operations.</p>
+     *
+     * @param application the application
+     * @return the quoted strong entity tag
+     */
+    public String etag(Application application) {
+        return ETags.of(application.applicationKey(),
+                Objects.requireNonNullElse(application.version(), 0L));
+    }
+
+    /**
+     * Looks up the current entity tag of an application.
+     *
+     * <p>The tag is answered from the cache when the application is cached,
+     * and otherwise from a lightweight lookup of its version, so neither path
+     * hydrates the entity.</p>
+     *
+     * @param applicationKey the unique identifier of the application
+     * @param context the execution context containing user information
+     * @return the entity tag, or empty if the application does not exist
+     */
+    @Timed(value = TIMER, histogram = true)
+    public Optional<String> findETag(String applicationKey, Context context) {
+        var token = context.consistencyToken();
+        if (Objects.isNull(token)) {
+            var cached = cache.getIfPresent(applicationKey);
+            if (cached.isPresent()) {
+                return cached.map(this::etag);
+            }
+            if (!keys.mightExist(applicationKey)) {
+                return Optional.empty();
+            }
+        }
+        return repo.findVersionByKey(applicationKey, token)
+                .map(v -> ETags.of(applicationKey, v));
+    }
+
+    /**
+     * Returns the consistency token of the writes that have returned so far.
+     *
+     * <p>Called once a write has committed, the token makes reads carrying it
+     * observe that write.</p>
+     *
+     * @return the token, or empty when reads are not routed to a replica
+     */
+    public Optional<String> consistencyToken() {
+        return repo.consistencyToken();
+    }
+
+    private Application fill(String applicationKey) {
+        if (!keys.mightExist(applicationKey)) {
+            return null;
+        }
+        return load(applicationKey, cache.fillToken(repo::consistencyToken));
+    }
+
+    private Application load(String applicationKey, String consistencyToken) {
+        return this.repo
+                .findRowByKey(applicationKey, consistencyToken)
+                .map(mapper::toDto)
+                .orElse(null);
     }
 
     private void lockKey(String applicationKey,
+                         Optional<List<Long>> versions,
                          Consumer<ApplicationEntity> consumer) {
-        lockKey(applicationKey, consumer, () -> {
+        lockKey(applicationKey, versions, consumer, () -> {
             throw ErrorUtils.createNotFoundError(applicationKey + " is not found");
         });
     }
 
     private void lockKey(String applicationKey,
+                         Optional<List<Long>> versions,
                          Consumer<ApplicationEntity> consumer,
                          Supplier<Void> whenNotFound) {
-        this.repo.findByKeyWithLock(applicationKey).ifPresentOrElse(consumer, whenNotFound::get);
+        this.repo.findByKeyWithLock(applicationKey).ifPresentOrElse(e -> {
+            if (versions.isPresent() && !versions.get().contains(e.getVersion())) {
+                throw ErrorUtils.createPreconditionFailedError(
+                        applicationKey + " has been modified");
+            }
+            consumer.accept(e);
+        }, whenNotFound::get);
+    }
+
+    /**
+     * Resolves why a conditional write touched no row.
+     *
+     * <p>Only called on the failure path, so the common case stays a single
+     * statement.</p>
+     */
+    private AppError notWritten(String applicationKey, Optional<List<Long>> versions) {
+        if (versions.isPresent() && repo.existsByKey(applicationKey)) {
+            return ErrorUtils.createPreconditionFailedError(applicationKey + " has been modified");
+        }
+        return ErrorUtils.createNotFoundError(applicationKey + " is not found");
+    }
+
+    private static Instant now() {
+        return Instant.ofEpochMilli(System.currentTimeMillis());
     }
 
     /**
      * Creates a new application in the system.
      *
-     * <p>This method persists a new application entity with audit information
-     * automatically populated from the execution context.</p>
+     * <p>This method inserts a new application with audit information
+     * automatically populated from the execution context. The insert skips a
+     * taken key instead of failing on it, so a duplicate is detected from
+     * the row count without a constraint violation being thrown and
+     * unwound.</p>
      *
      * @param application the application data to create
      * @param context the execution context containing user information
      * @return the created application DTO with generated fields populated
+     * @throws vvu.centrauthz.errors.ConflictError if the key is already taken
      */
     @Transactional
+    @Timed(value = TIMER, histogram = true)
     public Application create(Application application, Context context) {
+        var userId = context.user().userId();
+        var now = now();
+
+        if (!repo.insert(application, userId, now)) {
+            throw ErrorUtils.createConflictError(application.applicationKey() + " already exists");
+        }
+
         var e = mapper.toEntity(application);
-        e.setCreatedBy(context.user().userId());
-        repo.persist(e);
+        e.setCreatedBy(userId);
+        e.setCreatedAt(now);
+        e.setUpdatedAt(now);
+        e.setUpdatedBy(null);
+        e.setVersion(0L);
+        changed(e.getApplicationKey(), e.getName(), ApplicationChangeType.CREATED, 0L);
         return mapper.toDto(e);
     }
 
@@ -111,32 +313,68 @@ public class ApplicationService {
      *
      * <p>This method performs a full update of the application entity.
      * If force mode is enabled and the application doesn't exist, it will
-     * be created instead of throwing an error.</p>
+     * be created instead of throwing an error. Force mode does not apply to
+     * conditional requests, which always target an existing version.</p>
+     *
+     * <p>A forced update is a single native upsert, so concurrent forced
+     * updates of the same key can not race into a duplicate key error.</p>
      *
      * @param applicationKey the unique identifier of the application to update
      * @param application the new application data
      * @param force whether to create the application if it doesn't exist
+     * @param ifMatch the If-Match header value, may be null
      * @param context the execution context containing user information
      * @throws RuntimeException if the application is not found and force is false
+     * @throws vvu.centrauthz.errors.PreconditionFailedError if If-Match does not
+     *         match the current version
      */
     @Transactional
+    @Timed(value = TIMER, histogram = true)
     public void update(String applicationKey,
                        Application application,
                        Boolean force,
+                       String ifMatch,
                        Context context) {
-        lockKey(applicationKey, (e) -> {
+        var versions = ETags.stamps(ifMatch, applicationKey);
+
+        if (Boolean.TRUE.equals(force) && versions.isEmpty()) {
+            var written = repo.upsert(application, context.user().userId(), now());
+            changed(applicationKey, application.name(), written.inserted()
+                    ? ApplicationChangeType.CREATED
+                    : ApplicationChangeType.UPDATED, written.version());
+            return;
+        }
+
+        if (optimistic) {
+            var version = write(versions, v -> repo.updateByKey(applicationKey,
+                    application, context.user().userId(), now(), v))
+                    .orElseThrow(() -> notWritten(applicationKey, versions));
+            changed(applicationKey, application.name(), ApplicationChangeType.UPDATED, version);
+            return;
+        }
+
+        lockKey(applicationKey, versions, (e) -> {
             mapper.updateEntity(application, e);
             e.setUpdatedBy(context.user().userId());
-            e.setUpdatedAt(Instant.ofEpochMilli(System.currentTimeMillis()));
-        }, () -> {
-            if (!Boolean.TRUE.equals(force)) {
-                throw ErrorUtils.createNotFoundError(applicationKey + " is not found");
-            }
-            this.create(application, context);
-            return null;
+            e.setUpdatedAt(now());
+            changed(applicationKey, application.name(), ApplicationChangeType.UPDATED,
+                    e.getVersion() + 1);
         });
     }
 
+    /**
+     * Runs a conditional write unless the precondition can not possibly hold.
+     *
+     * @return the outcome of the write, or empty if nothing was written
+     */
+    private static <T> Optional<T> write(Optional<List<Long>> versions,
+                                         Function<List<Long>, Optional<T>> write) {
+        if (versions.map(List::isEmpty).orElse(false)) {
+            return Optional.empty();
+        }
+        return write.apply(versions.orElse(null));
+    }
+
     /**
      * Applies partial updates to an existing application.
      *
@@ -144,37 +382,91 @@ public class ApplicationService {
      * based on the provided patcher object. Only fields present in the
      * patcher will be updated, leaving other fields unchanged.</p>
      *
+     * <p>The patch is compiled into a single UPDATE of the patched columns,
+     * in either concurrency mode: the statement holds the row lock only for
+     * its own duration and the entity is never loaded. Since the statement
+     * bypasses the validation of the entity, the patched values are first
+     * checked against the constraints of {@link Application}.</p>
+     *
      * @param applicationKey the unique identifier of the application to patch
      * @param patcher the patcher containing the fields to update
+     * @param ifMatch the If-Match header value, may be null
      * @param context the execution context containing user information
      * @throws RuntimeException if the application is not found
+     * @throws ConstraintViolationException if a patched value is invalid
+     * @throws vvu.centrauthz.errors.PreconditionFailedError if If-Match does not
+     *         match the current version
      */
     @Transactional
-    public void patch(String applicationKey, Patcher<ApplicationPatcher> patcher, Context context) {
-        lockKey(applicationKey, (e) -> {
-            e.setUpdatedBy(context.user().userId());
-            patcher
-                    .having("name", d -> e.setName(d.name()))
-                    .having("description", d -> e.setDescription(d.description()))
-                    .having("ownerId", d -> e.setOwnerId(d.ownerId()))
-                    .having("managementGroupId",
-                        d -> e.setManagementGroupId(d.managementGroupId()));
-        });
+    @Timed(value = TIMER, histogram = true)
+    public void patch(String applicationKey,
+                      Patcher<ApplicationPatcher> patcher,
+                      String ifMatch,
+                      Context context) {
+        validate(patcher);
+        var versions = ETags.stamps(ifMatch, applicationKey);
+
+        var version = write(versions, v -> repo.patchByKey(applicationKey,
+                patcher, context.user().userId(), now(), v))
+                .orElseThrow(() -> notWritten(applicationKey, versions));
+        changed(applicationKey, patchedName(patcher), ApplicationChangeType.UPDATED, version);
+    }
+
+    private void validate(Patcher<ApplicationPatcher> patcher) {
+        var violations = new HashSet<ConstraintViolation<Application>>();
+        patcher
+                .having("name", d -> violations.addAll(
+                        validator.validateValue(Application.class, "name", d.name())))
+                .having("description", d -> violations.addAll(
+                        validator.validateValue(Application.class, "description", d.description())))
+                .having("ownerId", d -> violations.addAll(
+                        validator.validateValue(Application.class, "ownerId", d.ownerId())))
+                .having("managementGroupId", d -> violations.addAll(validator.validateValue(
+                        Application.class, "managementGroupId", d.managementGroupId())));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static String patchedName(Patcher<ApplicationPatcher> patcher) {
+        return patcher.fields().contains("name") ? patcher.data().name() : null;
     }
 
     /**
      * Deletes an application from the system.
      *
      * <p>This method permanently removes the application entity from
-     * the database after acquiring an exclusive lock.</p>
+     * the database, either after acquiring an exclusive lock or with a
+     * single conditional DELETE, depending on the concurrency mode. A
+     * tombstone of the key is recorded in the same transaction for the
+     * change feed.</p>
      *
      * @param applicationKey the unique identifier of the application to delete
+     * @param ifMatch the If-Match header value, may be null
      * @param context the execution context containing user information
      * @throws RuntimeException if the application is not found
+     * @throws vvu.centrauthz.errors.PreconditionFailedError if If-Match does not
+     *         match the current version
      */
     @Transactional
-    public void delete(String applicationKey, Context context) {
-        lockKey(applicationKey, repo::delete);
+    @Timed(value = TIMER, histogram = true)
+    public void delete(String applicationKey, String ifMatch, Context context) {
+        var versions = ETags.stamps(ifMatch, applicationKey);
+
+        if (optimistic) {
+            write(versions, v -> Optional.of(repo.deleteByKey(applicationKey, v))
+                    .filter(deleted -> deleted > 0))
+                    .orElseThrow(() -> notWritten(applicationKey, versions));
+            repo.tombstone(applicationKey);
+            changed(applicationKey, null, ApplicationChangeType.DELETED, null);
+            return;
+        }
+
+        lockKey(applicationKey, versions, e -> {
+            repo.delete(e);
+            repo.tombstone(applicationKey);
+            changed(applicationKey, null, ApplicationChangeType.DELETED, null);
+        });
     }
 
 }
@@ -1,13 +1,26 @@
 package vvu.centrauthz.errors;
 
 import lombok.Getter;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 import vvu.centrauthz.models.Error;
 
 /**
  * Application-specific error exception that carries an Error response.
+ *
+ * <p>Errors capture their stack trace unless
+ * {@code centrauthz.errors.stack-traces} is false, which is read once when
+ * the class is loaded. These errors are mostly expected outcomes mapped to
+ * 4xx responses, so the trace is rarely looked at, and skipping it makes
+ * construction much cheaper on error-heavy traffic.</p>
  */
 @Getter
 public class AppError extends RuntimeException {
+
+    static final String STACK_TRACES = "centrauthz.errors.stack-traces";
+
+    private static final boolean CAPTURE_STACK_TRACES = stackTraces(ConfigProvider.getConfig());
+
     private final Error error;
 
     /**
@@ -16,7 +29,7 @@ public class AppError extends RuntimeException {
      * @param error error
      */
     public AppError(Error error) {
-        super(error.message());
+        super(error.message(), null, true, CAPTURE_STACK_TRACES);
         this.error = error;
     }
 
@@ -26,10 +39,8 @@ public class AppError extends RuntimeException {
      * @param code Error Code
      */
     public AppError(String code) {
-        super(code);
-        this.error = Error.builder()
-            .code(code)
-            .build();
+        super(code, null, true, CAPTURE_STACK_TRACES);
+        this.error = new Error(code, null, null);
     }
 
     /**
@@ -39,11 +50,8 @@ public class AppError extends RuntimeException {
      * @param e Throwable
      */
     public AppError(String code, Throwable e) {
-        super(e);
-        this.error = Error.builder()
-            .code(code)
-            .message(e.getMessage())
-            .build();
+        super(e.toString(), e, true, CAPTURE_STACK_TRACES);
+        this.error = new Error(code, e.getMessage(), null);
     }
 
     /**
@@ -53,11 +61,18 @@ public class AppError extends RuntimeException {
      * @param message error message
      */
     public AppError(String code, String message) {
-        super(message);
-        this.error = Error.builder()
-                .code(code)
-                .message(message)
-                .build();
+        super(message, null, true, CAPTURE_STACK_TRACES);
+        this.error = new Error(code, message, null);
+    }
+
+    /**
+     * Tells whether errors capture their stack trace.
+     *
+     * @param config the configuration
+     * @return the value of {@code centrauthz.errors.stack-traces}, true by default
+     */
+    static boolean stackTraces(Config config) {
+        return config.getOptionalValue(STACK_TRACES, Boolean.class).orElse(true);
     }
 
     @Override
@@ -16,6 +16,10 @@ public class ErrorUtils {
         return new ConflictError("CONFLICT", message);
     }
 
+    public static PreconditionFailedError createPreconditionFailedError(String message) {
+        return new PreconditionFailedError(message);
+    }
+
     public static BadRequestError createBadRequestError(String message) {
         return new BadRequestError(message);
     }
@@ -28,4 +32,8 @@ public class ErrorUtils {
         return new NotImplementedError("Feature not implemented");
     }
 
+    public static ServiceUnavailableError createServiceUnavailableError(String message) {
+        return new ServiceUnavailableError(message);
+    }
+
 }
@@ -0,0 +1,14 @@
+package vvu.centrauthz.errors;
+
+/**
+ * Precondition Failed Error.
+ */
+public class PreconditionFailedError extends AppError {
+    public PreconditionFailedError(String code, String message) {
+        super(code, message);
+    }
+
+    public PreconditionFailedError(String message) {
+        super("PRECONDITION_FAILED", message);
+    }
+}
@@ -0,0 +1,10 @@
+package vvu.centrauthz.errors;
+
+/**
+ * Service Unavailable Error.
+ */
+public class ServiceUnavailableError extends AppError {
+    public ServiceUnavailableError(String message) {
+        super("SERVICE_UNAVAILABLE", message);
+    }
+}
@@ -1,7 +1,7 @@
 package vvu.centrauthz.errors.handlers;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.arc.ArcUndeclaredThrowableException;
-import io.quarkus.runtime.util.ExceptionUtil;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.ClientErrorException;
@@ -18,16 +18,34 @@ import vvu.centrauthz.models.Error;
 
 /**
  * Global lException Handler.
+ *
+ * <p>Every error response is counted in {@code centrauthz.errors}, tagged
+ * with its error code and HTTP status.</p>
  */
 @Slf4j
 public class GlobalExceptionHandler {
 
+    static final String ERRORS = "centrauthz.errors";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Global Exception Handler.
+     *
+     * @param registry the registry error counters are published to
+     */
+    public GlobalExceptionHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
     static Response.Status toStatus(AppError ex) {
         return switch (ex) {
             case BadRequestError ignored -> Response.Status.BAD_REQUEST;
             case ConflictError ignored -> Response.Status.CONFLICT;
             case NotFoundError ignored -> Response.Status.NOT_FOUND;
             case NotImplementedError ignored -> Response.Status.NOT_IMPLEMENTED;
+            case PreconditionFailedError ignored -> Response.Status.PRECONDITION_FAILED;
+            case ServiceUnavailableError ignored -> Response.Status.SERVICE_UNAVAILABLE;
             default -> Response.Status.INTERNAL_SERVER_ERROR;
         };
     }
@@ -82,7 +100,7 @@ public class GlobalExceptionHandler {
                 .details(details)
                 .build();
 
-        return RestResponse.status(Response.Status.BAD_REQUEST, error);
+        return respond(Response.Status.BAD_REQUEST, error);
     }
 
     /**
@@ -90,8 +108,7 @@ public class GlobalExceptionHandler {
      */
     @ServerExceptionMapper
     public RestResponse<Error> handleAppError(AppError ex) {
-        return RestResponse
-            .status(toStatus(ex), ex.getError());
+        return respond(toStatus(ex), ex.getError());
     }
 
     /**
@@ -99,23 +116,32 @@ public class GlobalExceptionHandler {
      */
     @ServerExceptionMapper
     public RestResponse<Error> handleClientErrorException(ClientErrorException ex) {
-        return RestResponse
-                .status(toStatus(ex), toError(ex));
+        return respond(toStatus(ex), toError(ex));
     }
 
     /**
      * Handle Generic Exception.
+     *
+     * <p>The exception is logged on a single line; its stack trace is only
+     * rendered when debug logging is enabled for this handler.</p>
      */
     @ServerExceptionMapper
     public RestResponse<Error> handleGenericException(Exception ex) {
-        log.info(ExceptionUtil.generateStackTrace(ex));
+        log.error("Unhandled exception: {}", ex.toString());
+        log.debug("Unhandled exception", ex);
         var error = Error
                 .builder()
                 .code(Response.Status.INTERNAL_SERVER_ERROR.name())
                 .message(ex.getMessage())
                 .build();
-        return RestResponse
-            .status(Response.Status.INTERNAL_SERVER_ERROR, error);
+        return respond(Response.Status.INTERNAL_SERVER_ERROR, error);
+    }
+
+    private RestResponse<Error> respond(Response.Status status, Error error) {
+        registry.counter(ERRORS,
+                "code", Objects.requireNonNullElse(error.code(), "UNKNOWN"),
+                "status", Integer.toString(status.getStatusCode())).increment();
+        return RestResponse.status(status, error);
     }
 
     private RestResponse<Error> processPersistenceException(RuntimeException e) {
@@ -128,8 +154,7 @@ public class GlobalExceptionHandler {
                         .code(Response.Status.CONFLICT.name())
                         .message(ex.getMessage())
                         .build();
-                return RestResponse
-                    .status(Response.Status.CONFLICT, error);
+                return respond(Response.Status.CONFLICT, error);
             } else {
                 ex = ex.getCause();
             }
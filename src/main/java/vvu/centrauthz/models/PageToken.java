@@ -0,0 +1,68 @@
+package vvu.centrauthz.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import lombok.Builder;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.utilities.JsonTools;
+
+/**
+ * Opaque keyset pagination token.
+ *
+ * <p>The token carries the sort signature the page was produced with and the
+ * sort-key values of the last row returned, so the next page can be fetched
+ * with a seek predicate instead of an OFFSET scan. It is serialized as
+ * URL-safe Base64 encoded JSON and must be treated as opaque by clients.</p>
+ *
+ * @param sort the sort signature the token was issued for
+ * @param values the sort-key values of the last row, in sort order
+ */
+@Builder(toBuilder = true)
+public record PageToken(String sort, List<String> values) {
+
+    /**
+     * Compact constructor that validates required fields.
+     */
+    public PageToken {
+        if (Objects.isNull(sort)) {
+            throw new IllegalArgumentException("sort is required");
+        }
+
+        if (Objects.isNull(values)) {
+            throw new IllegalArgumentException("values is required");
+        }
+    }
+
+    /**
+     * Encodes this token into its opaque string form.
+     *
+     * @return URL-safe Base64 representation of the token
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(JsonTools.mapper().writeValueAsBytes(this));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to encode page token", e);
+        }
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param value the opaque token
+     * @return the decoded token
+     * @throws vvu.centrauthz.errors.BadRequestError if the token is malformed
+     */
+    public static PageToken decode(String value) {
+        try {
+            var json = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            return JsonTools.mapper().readValue(json, PageToken.class);
+        } catch (Exception e) {
+            throw ErrorUtils.createBadRequestError("Invalid page token");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package vvu.centrauthz.replicas;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+import vvu.centrauthz.errors.ErrorUtils;
+
+/**
+ * Utility class for read-your-writes consistency tokens.
+ *
+ * <p>A token is a PostgreSQL WAL position ({@code pg_lsn}) in its text form,
+ * {@code <high>/<low>} with both halves in hexadecimal, for example
+ * {@code 16/B374D848}. Writes hand out the position of the primary once they
+ * have committed; a read carrying it must see a database that has replayed
+ * at least that far.</p>
+ */
+public class ConsistencyTokens {
+
+    /**
+     * Header carrying the token, on write responses and read requests alike.
+     */
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final Pattern FORMAT =
+            Pattern.compile("([0-9A-Fa-f]{1,8})/([0-9A-Fa-f]{1,8})");
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    ConsistencyTokens() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Parses a token into a comparable WAL position.
+     *
+     * @param token the token
+     * @return the WAL position as an unsigned 64-bit value
+     * @throws vvu.centrauthz.errors.BadRequestError if the token is malformed
+     */
+    public static long parse(String token) {
+        var matcher = Objects.isNull(token) ? null : FORMAT.matcher(token);
+        if (Objects.isNull(matcher) || !matcher.matches()) {
+            throw ErrorUtils.createBadRequestError("Invalid consistency token");
+        }
+        return Long.parseLong(matcher.group(1), 16) << 32 | Long.parseLong(matcher.group(2), 16);
+    }
+
+    /**
+     * Formats a WAL position as a token.
+     *
+     * @param position the WAL position
+     * @return the token, in the form PostgreSQL prints a {@code pg_lsn}
+     */
+    public static String format(long position) {
+        return Long.toHexString(position >>> 32).toUpperCase() + "/"
+                + Long.toHexString(position & 0xFFFFFFFFL).toUpperCase();
+    }
+
+    /**
+     * Tells whether a WAL position has reached another.
+     *
+     * @param position the position reached, for example by a replica
+     * @param required the position that must have been reached
+     * @return true if {@code position} is at or past {@code required}
+     */
+    public static boolean reached(long position, long required) {
+        return Long.compareUnsigned(position, required) >= 0;
+    }
+}
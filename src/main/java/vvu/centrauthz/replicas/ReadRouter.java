@@ -0,0 +1,220 @@
+package vvu.centrauthz.replicas;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.agroal.DataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.jboss.logging.Logger;
+
+/**
+ * Routes reads between the primary and the read replica.
+ *
+ * <p>Reads run on a {@link StatelessSession}: the injected one for the
+ * primary, or one opened on a connection of the {@code replica} datasource,
+ * so the same queries and projections serve both.</p>
+ *
+ * <p>A read without a consistency token goes to the replica whenever routing
+ * is enabled. A read carrying a token goes to the replica only once the
+ * replica has replayed the WAL up to the token's position and to the primary
+ * otherwise, which gives read-your-writes to a client echoing the token of
+ * its last write. The highest replay position seen is remembered, so the
+ * replica is only asked again for tokens beyond it.</p>
+ *
+ * <p>When no replica connection can be acquired, reads fall back to the
+ * primary.</p>
+ */
+@ApplicationScoped
+public class ReadRouter {
+
+    private static final Logger LOG = Logger.getLogger(ReadRouter.class);
+
+    private static final String READS = "centrauthz.reads";
+
+    /**
+     * Insert position rather than write or flush position: it is never behind
+     * the commit record of a transaction that has returned, even with
+     * asynchronous commit.
+     */
+    private static final String CURRENT_POSITION =
+            "SELECT CAST(pg_current_wal_insert_lsn() - '0/0' AS BIGINT)";
+
+    /**
+     * Null unless the server is a standby in recovery.
+     */
+    private static final String REPLAY_POSITION =
+            "SELECT CAST(pg_last_wal_replay_lsn() - '0/0' AS BIGINT)";
+
+    private final StatelessSession primary;
+    private final SessionFactory sessions;
+    private final Instance<AgroalDataSource> replica;
+    private final boolean enabled;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final AtomicLong replayed = new AtomicLong();
+
+    /**
+     * Constructs a new ReadRouter.
+     *
+     * @param primary the stateless session of the primary
+     * @param sessions the session factory replica sessions are opened from
+     * @param replica the replica datasource, only resolved when enabled
+     * @param config the replica configuration
+     * @param registry the registry the routing counters are registered with
+     */
+    public ReadRouter(StatelessSession primary,
+                      SessionFactory sessions,
+                      @DataSource("replica") Instance<AgroalDataSource> replica,
+                      ReplicaConfig config,
+                      MeterRegistry registry) {
+        this.primary = primary;
+        this.sessions = sessions;
+        this.replica = replica;
+        this.enabled = config.enabled();
+        this.primaryReads = registry.counter(READS, "target", "primary");
+        this.replicaReads = registry.counter(READS, "target", "replica");
+    }
+
+    /**
+     * Returns the consistency token of the writes committed so far.
+     *
+     * <p>Must be called after the write's transaction has committed, outside
+     * of it.</p>
+     *
+     * @return the current WAL position of the primary, or empty when reads
+     *         are not routed to a replica
+     */
+    public Optional<String> position() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.of(ConsistencyTokens.format(primary
+                .createNativeQuery(CURRENT_POSITION, Long.class)
+                .getSingleResult()));
+    }
+
+    /**
+     * Runs a read of single statements in autocommit.
+     *
+     * @param <T> the result type
+     * @param token the consistency token the read must observe, may be null
+     * @param work the read
+     * @return the result of the read
+     * @throws vvu.centrauthz.errors.BadRequestError if the token is malformed
+     */
+    public <T> T read(String token, Function<StatelessSession, T> work) {
+        var connection = replicaConnection(token);
+        if (Objects.isNull(connection)) {
+            primaryReads.increment();
+            return work.apply(primary);
+        }
+
+        replicaReads.increment();
+        try (connection; var session = open(connection)) {
+            return work.apply(session);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to release the replica connection", e);
+        }
+    }
+
+    /**
+     * Runs a read that needs a transaction, such as one holding a cursor.
+     *
+     * <p>On the primary the read joins the caller's transaction, which must be
+     * active. On the replica it runs in a local transaction of its own that is
+     * rolled back once the read is done.</p>
+     *
+     * @param token the consistency token the read must observe, may be null
+     * @param work the read
+     * @throws vvu.centrauthz.errors.BadRequestError if the token is malformed
+     */
+    public void scroll(String token, Consumer<StatelessSession> work) {
+        var connection = replicaConnection(token);
+        if (Objects.isNull(connection)) {
+            primaryReads.increment();
+            work.accept(primary);
+            return;
+        }
+
+        replicaReads.increment();
+        try (connection) {
+            connection.setAutoCommit(false);
+            try (var session = open(connection)) {
+                work.accept(session);
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read from the replica", e);
+        }
+    }
+
+    private StatelessSession open(Connection connection) {
+        return sessions.withStatelessOptions().connection(connection).openStatelessSession();
+    }
+
+    /**
+     * Acquires a replica connection if the replica may serve the read.
+     *
+     * @return the connection, or null to read from the primary
+     */
+    private Connection replicaConnection(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        var required = Objects.isNull(token) ? 0L : ConsistencyTokens.parse(token);
+        var known = ConsistencyTokens.reached(replayed.get(), required);
+
+        Connection connection;
+        try {
+            connection = replica.get().getConnection();
+        } catch (SQLException e) {
+            LOG.warn("Replica unavailable, reading from the primary", e);
+            return null;
+        }
+
+        try {
+            if (known || replayedUpTo(connection, required)) {
+                return connection;
+            }
+            connection.close();
+        } catch (SQLException e) {
+            LOG.warn("Replica position unavailable, reading from the primary", e);
+            close(connection);
+        }
+        return null;
+    }
+
+    private boolean replayedUpTo(Connection connection, long required) throws SQLException {
+        try (var statement = connection.prepareStatement(REPLAY_POSITION);
+             var result = statement.executeQuery()) {
+            result.next();
+            var position = result.getLong(1);
+            if (result.wasNull()) {
+                return false;
+            }
+            var highest = replayed.accumulateAndGet(position,
+                    (a, b) -> ConsistencyTokens.reached(a, b) ? a : b);
+            return ConsistencyTokens.reached(highest, required);
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException expected) {
+            // The connection is discarded by the pool
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package vvu.centrauthz.replicas;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Runtime configuration of the read replica.
+ *
+ * <p>Bound from the {@code centrauthz.replica} prefix. The replica itself is
+ * the {@code replica} datasource, which must be active whenever routing is
+ * enabled.</p>
+ */
+@ConfigMapping(prefix = "centrauthz.replica")
+public interface ReplicaConfig {
+
+    /**
+     * Whether reads are routed to the replica.
+     *
+     * @return true if reads may be served by the replica
+     */
+    @WithDefault("false")
+    boolean enabled();
+}
@@ -0,0 +1,106 @@
+package vvu.centrauthz.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ *
+ * <p>{@link #mightContain(String)} never answers false for a string that has
+ * been added; it may answer true for one that has not, with roughly the
+ * false-positive rate the filter was sized for as long as no more than the
+ * expected number of strings are added. Strings can not be removed.</p>
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long size;
+    private final int hashes;
+
+    private BloomFilter(long size, int hashes) {
+        this.bits = new AtomicLongArray(Math.toIntExact((size + 63) / 64));
+        this.size = size;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Creates an empty filter sized for the given load.
+     *
+     * @param expectedInsertions number of strings expected to be added
+     * @param falsePositiveRate target probability of a false positive, in (0, 1)
+     * @return the filter
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        var n = Math.max(expectedInsertions, 1);
+        var size = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        var hashes = Math.max(1, (int) Math.round((double) size / n * LN2));
+        return new BloomFilter(size, hashes);
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value the string
+     */
+    public void add(String value) {
+        var hash = hash(value);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            var bit = index(h1 + i * h2);
+            var word = (int) (bit >>> 6);
+            var mask = 1L << bit;
+            var current = bits.get(word);
+            while ((current & mask) == 0
+                    && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a string may have been added.
+     *
+     * @param value the string
+     * @return false if the string has definitely not been added
+     */
+    public boolean mightContain(String value) {
+        var hash = hash(value);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            var bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int combined) {
+        return (combined & Integer.MAX_VALUE) % size;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finished with the MurmurHash3 mixer so
+     * that both halves are usable as independent hashes.
+     */
+    private static long hash(String value) {
+        var h = 0xcbf29ce484222325L;
+        for (var b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
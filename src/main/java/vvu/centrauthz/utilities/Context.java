@@ -12,9 +12,10 @@ import vvu.centrauthz.models.User;
  * @param user the current user information
  * @param token the authentication token
  * @param attributes additional context attributes as JSON
+ * @param consistencyToken the consistency token reads must observe, if any
  */
 @Builder(toBuilder = true)
-public record Context(User user, String token, JsonNode attributes) {
+public record Context(User user, String token, JsonNode attributes, String consistencyToken) {
 
     /**
      * Creates an empty context with all fields null.
@@ -46,6 +47,17 @@ public record Context(User user, String token, JsonNode attributes) {
         return Context.builder().user(user).build();
     }
 
+    /**
+     * Returns a copy of this context whose reads must observe the given
+     * consistency token.
+     *
+     * @param consistencyToken the token handed out by an earlier write, may be null
+     * @return context with the consistency token set
+     */
+    public Context withConsistencyToken(String consistencyToken) {
+        return toBuilder().consistencyToken(consistencyToken).build();
+    }
+
     /**
      * Executes a function with this context and returns the result.
      *
@@ -0,0 +1,103 @@
+package vvu.centrauthz.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Utility class for HTTP entity tags.
+ *
+ * <p>Tags are strong and have the form {@code "<stamp>.<digest>"}, where the
+ * stamp identifies the revision of the resource and the digest is derived
+ * from the resource key, both rendered in base 36.</p>
+ */
+public class ETags {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    ETags() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Builds a strong entity tag.
+     *
+     * @param key the resource key
+     * @param stamp the revision stamp of the resource
+     * @return the quoted entity tag
+     */
+    public static String of(String key, long stamp) {
+        return "\"" + Long.toString(stamp, Character.MAX_RADIX) + "." + digest(key) + "\"";
+    }
+
+    /**
+     * Extracts the stamps an If-Match header value requires for a resource.
+     *
+     * <p>If-Match uses strong comparison, so weak tags never match. Tags that
+     * are malformed or were issued for another key are dropped.</p>
+     *
+     * @param header the If-Match header value, may be null
+     * @param key the resource key
+     * @return empty when the request is unconditional (no header or {@code *}),
+     *         otherwise the stamps acceptable to the client (possibly none)
+     */
+    public static Optional<List<Long>> stamps(String header, String key) {
+        if (Objects.isNull(header) || header.isBlank()) {
+            return Optional.empty();
+        }
+
+        var tags = Arrays.stream(header.split(",")).map(String::trim).toList();
+        if (tags.contains("*")) {
+            return Optional.empty();
+        }
+
+        var digest = digest(key);
+        var stamps = new ArrayList<Long>();
+        for (var tag : tags) {
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            var parts = tag.substring(1, tag.length() - 1).split("\\.");
+            if (parts.length != 2 || !parts[1].equals(digest)) {
+                continue;
+            }
+            try {
+                stamps.add(Long.parseLong(parts[0], Character.MAX_RADIX));
+            } catch (NumberFormatException expected) {
+                // not one of our tags, it can never match
+            }
+        }
+        return Optional.of(List.copyOf(stamps));
+    }
+
+    /**
+     * Checks an If-None-Match / If-Match header value against an entity tag.
+     *
+     * <p>The header may be {@code *} or a comma-separated list of tags. Weak
+     * tags are compared by their opaque value, as required for If-None-Match.</p>
+     *
+     * @param header the header value, may be null
+     * @param etag the current entity tag
+     * @return true if the header matches the tag
+     */
+    public static boolean matches(String header, String etag) {
+        if (Objects.isNull(header) || Objects.isNull(etag)) {
+            return false;
+        }
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(t -> t.startsWith("W/") ? t.substring(2) : t)
+                .anyMatch(t -> "*".equals(t) || t.equals(etag));
+    }
+
+    private static String digest(String key) {
+        var crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return Long.toString(crc.getValue(), Character.MAX_RADIX);
+    }
+}
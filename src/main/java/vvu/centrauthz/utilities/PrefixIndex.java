@@ -0,0 +1,328 @@
+package vvu.centrauthz.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, case-insensitive prefix index of keyed names.
+ *
+ * <p>Every key is indexed under two terms, the lower-cased key and the
+ * lower-cased name, held in parallel arrays sorted by term. A lookup is a
+ * binary search for the first term at or after the prefix followed by a scan
+ * of the matching run, without allocating beyond its result. The key and
+ * name strings are shared by both entries of a key, and a term that is
+ * already lower case is the key or name string itself.</p>
+ *
+ * <p>{@link #with(String, String)} and {@link #without(String)} return a new
+ * index and leave this one untouched, so readers never lock. They leave the
+ * arrays built by {@link #of(Map)} alone: written keys go to a small sorted
+ * delta, and the keys they replace in the base arrays are listed as removed,
+ * which lookups merge on the fly. A write copies the delta only; once the
+ * delta outgrows the square root of the base, it is merged into new base
+ * arrays, so a write costs time in the order of the square root of the size
+ * of the index, amortized.</p>
+ */
+public final class PrefixIndex {
+
+    private static final String[] NONE = new String[0];
+
+    private static final Entries NO_ENTRIES = new Entries(NONE, NONE, NONE);
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(NO_ENTRIES, NO_ENTRIES, NONE, 0);
+
+    /**
+     * Size of the delta below which it is never merged into the base.
+     */
+    private static final int MIN_DELTA = 64;
+
+    private final Entries base;
+    private final Entries delta;
+    private final String[] removed;
+    private final int size;
+
+    private PrefixIndex(Entries base, Entries delta, String[] removed, int size) {
+        this.base = base;
+        this.delta = delta;
+        this.removed = removed;
+        this.size = size;
+    }
+
+    /**
+     * A key and its name.
+     *
+     * @param key the key
+     * @param name the name
+     */
+    public record Match(String key, String name) {
+    }
+
+    /**
+     * Returns the empty index.
+     *
+     * @return the empty index
+     */
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index.
+     *
+     * @param names the names, by key
+     * @return the index
+     */
+    public static PrefixIndex of(Map<String, String> names) {
+        var entries = new ArrayList<String[]>(names.size() * 2);
+        names.forEach((key, name) -> {
+            var keyTerm = lower(key);
+            var nameTerm = lower(name);
+            entries.add(new String[] {keyTerm, key, name});
+            if (!keyTerm.equals(nameTerm)) {
+                entries.add(new String[] {nameTerm, key, name});
+            }
+        });
+        entries.sort(Comparator.<String[], String>comparing(e -> e[0]).thenComparing(e -> e[1]));
+
+        var length = entries.size();
+        var base = new Entries(new String[length], new String[length], new String[length]);
+        for (int i = 0; i < length; i++) {
+            var entry = entries.get(i);
+            base.terms[i] = entry[0];
+            base.keys[i] = entry[1];
+            base.names[i] = entry[2];
+        }
+        return new PrefixIndex(base, NO_ENTRIES, NONE, names.size());
+    }
+
+    /**
+     * Finds the keys whose key or name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @param limit maximum number of matches
+     * @return the matches in the order of their matching term, each key once
+     */
+    public List<Match> find(String prefix, int limit) {
+        var term = lower(prefix);
+        var matches = new ArrayList<Match>(Math.min(limit, 16));
+        var i = base.search(term, "");
+        var j = delta.search(term, "");
+        while (matches.size() < limit) {
+            var inBase = i < base.length() && base.terms[i].startsWith(term);
+            var inDelta = j < delta.length() && delta.terms[j].startsWith(term);
+            if (inBase && (!inDelta || base.compare(i, delta.terms[j], delta.keys[j]) < 0)) {
+                if (!isRemoved(base.keys[i])) {
+                    add(matches, base.keys[i], base.names[i]);
+                }
+                i++;
+            } else if (inDelta) {
+                add(matches, delta.keys[j], delta.names[j]);
+                j++;
+            } else {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns an index in which a key has the given name.
+     *
+     * @param key the key
+     * @param name the name of the key
+     * @return the new index
+     */
+    public PrefixIndex with(String key, String name) {
+        var index = without(key);
+        var keyTerm = lower(key);
+        var nameTerm = lower(name);
+        var written = index.delta.insert(keyTerm, key, name);
+        if (!keyTerm.equals(nameTerm)) {
+            written = written.insert(nameTerm, key, name);
+        }
+        return new PrefixIndex(index.base, written, index.removed, index.size + 1).compacted();
+    }
+
+    /**
+     * Returns an index without a key.
+     *
+     * @param key the key
+     * @return the new index, or this one if it does not hold the key
+     */
+    public PrefixIndex without(String key) {
+        var keyTerm = lower(key);
+        var at = delta.indexOf(keyTerm, key);
+        if (at >= 0) {
+            var nameTerm = lower(delta.names[at]);
+            var rest = delta.remove(at);
+            if (!nameTerm.equals(keyTerm)) {
+                rest = rest.remove(rest.search(nameTerm, key));
+            }
+            return new PrefixIndex(base, rest, removed, size - 1);
+        }
+
+        var position = Arrays.binarySearch(removed, key);
+        if (position >= 0 || base.indexOf(keyTerm, key) < 0) {
+            return this;
+        }
+        return new PrefixIndex(base, delta, insert(removed, -position - 1, key), size - 1)
+                .compacted();
+    }
+
+    /**
+     * Returns the number of indexed keys.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean isRemoved(String key) {
+        return removed.length > 0 && Arrays.binarySearch(removed, key) >= 0;
+    }
+
+    /**
+     * Returns this index, or the same one with its delta merged into the base
+     * once the delta and the removed keys outgrow the square root of the
+     * base.
+     */
+    private PrefixIndex compacted() {
+        var limit = Math.max(MIN_DELTA, (int) Math.sqrt(base.length()));
+        if (delta.length() + removed.length <= limit) {
+            return this;
+        }
+
+        // Locate the entries of the removed keys and the place of every delta
+        // entry by binary search, and copy the runs of the base in between
+        var dropped = new int[removed.length * 2];
+        var count = 0;
+        for (var key : removed) {
+            var keyTerm = lower(key);
+            var at = base.indexOf(keyTerm, key);
+            dropped[count++] = at;
+            var nameTerm = lower(base.names[at]);
+            if (!nameTerm.equals(keyTerm)) {
+                dropped[count++] = base.indexOf(nameTerm, key);
+            }
+        }
+        Arrays.sort(dropped, 0, count);
+
+        var length = base.length() - count + delta.length();
+        var merged = new Entries(new String[length], new String[length], new String[length]);
+        var from = 0;
+        var to = 0;
+        var next = 0;
+        for (int j = 0; j <= delta.length(); j++) {
+            var until = j < delta.length()
+                    ? base.search(delta.terms[j], delta.keys[j])
+                    : base.length();
+            for (; next < count && dropped[next] < until; next++) {
+                to = merged.copy(to, base, from, dropped[next]);
+                from = dropped[next] + 1;
+            }
+            to = merged.copy(to, base, from, until);
+            from = until;
+            if (j < delta.length()) {
+                to = merged.copy(to, delta, j, j + 1);
+            }
+        }
+        return new PrefixIndex(merged, NO_ENTRIES, NONE, size);
+    }
+
+    private static void add(List<Match> matches, String key, String name) {
+        for (var match : matches) {
+            if (match.key().equals(key)) {
+                return;
+            }
+        }
+        matches.add(new Match(key, name));
+    }
+
+    private static String[] insert(String[] values, int at, String value) {
+        var copy = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(values, at, copy, at + 1, values.length - at);
+        copy[at] = value;
+        return copy;
+    }
+
+    private static String[] remove(String[] values, int at) {
+        var copy = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, at + 1, copy, at, values.length - at - 1);
+        return copy;
+    }
+
+    private static String lower(String value) {
+        return Objects.requireNonNullElse(value, "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Entries in parallel arrays, sorted by term then key.
+     */
+    private record Entries(String[] terms, String[] keys, String[] names) {
+
+        int length() {
+            return terms.length;
+        }
+
+        /**
+         * Orders the entry at a position against (term, key).
+         */
+        int compare(int at, String term, String key) {
+            var order = terms[at].compareTo(term);
+            return order == 0 ? keys[at].compareTo(key) : order;
+        }
+
+        /**
+         * Returns the first position whose entry is not before (term, key).
+         */
+        int search(String term, String key) {
+            var low = 0;
+            var high = terms.length;
+            while (low < high) {
+                var mid = (low + high) >>> 1;
+                if (compare(mid, term, key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the position of the entry (term, key), or -1.
+         */
+        int indexOf(String term, String key) {
+            var at = search(term, key);
+            return at < terms.length && compare(at, term, key) == 0 ? at : -1;
+        }
+
+        Entries insert(String term, String key, String name) {
+            var at = search(term, key);
+            return new Entries(PrefixIndex.insert(terms, at, term),
+                    PrefixIndex.insert(keys, at, key), PrefixIndex.insert(names, at, name));
+        }
+
+        Entries remove(int at) {
+            return new Entries(PrefixIndex.remove(terms, at), PrefixIndex.remove(keys, at),
+                    PrefixIndex.remove(names, at));
+        }
+
+        /**
+         * Copies the entries of another array from one position up to
+         * another, returning the position following them in this one.
+         */
+        int copy(int at, Entries source, int from, int to) {
+            var length = to - from;
+            System.arraycopy(source.terms, from, terms, at, length);
+            System.arraycopy(source.keys, from, keys, at, length);
+            System.arraycopy(source.names, from, names, at, length);
+            return at + length;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package vvu.centrauthz.domains.applications.controllers;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.PATCH;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.Objects;
+import java.util.UUID;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
+import vvu.centrauthz.domains.applications.models.SearchMode;
+import vvu.centrauthz.domains.applications.services.ApplicationReactiveService;
+import vvu.centrauthz.domains.common.models.Sort;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Patcher;
+import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.ETags;
+
+/**
+ * Non-blocking REST Controller for Application management.
+ *
+ * <p>Serves the same contract as {@link ApplicationController}, which it
+ * replaces when the application is built with the reactive stack
+ * ({@code centrauthz.stack=reactive}). Endpoints return {@link Uni} and run on
+ * the event loop.</p>
+ */
+@Path("/v0/applications")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@IfBuildProperty(name = "centrauthz.stack", stringValue = "reactive")
+public class ApplicationReactiveController {
+
+    private final ApplicationReactiveService service;
+
+    /**
+     * Application Reactive Controller.
+     *
+     * @param service Application Reactive Service.
+     */
+    public ApplicationReactiveController(ApplicationReactiveService service) {
+        this.service = service;
+    }
+
+    /**
+     * Create a new application.
+     * POST /v0/applications
+     *
+     * @param userId the ID of the user making the request
+     * @param application the application data to be created
+     * @return HTTP 201 Created
+     */
+    @POST
+    public Uni<Response> createApplication(
+            @Valid @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @Valid Application application) {
+        return Context
+                .of(userId)
+                .execute(context -> service.create(application, context))
+                .map(created -> Response
+                        .status(Response.Status.CREATED)
+                        .entity(created)
+                        .build());
+    }
+
+    /**
+     * List applications with optional filtering parameters.
+     * GET /v0/applications
+     *
+     * @param userId the ID of the user making the request
+     * @param pageSize the number of applications to return per page
+     * @param pageToken the token for the next page of results
+     * @param ownerId filter applications by the owner's UUID
+     * @param managementGroupId filter applications by the management group's UUID
+     * @param name filter applications by application name
+     * @param sortOrder sort direction
+     * @param includeDescription whether the applications carry their description
+     * @param search text to search the applications for, ranking them by relevance
+     * @param searchMode how the search text is matched: prefix, substring or full_text
+     * @return HTTP 200 OK with a list of applications
+     */
+    @GET
+    public Uni<Response> listApplications(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @QueryParam("pageSize") Integer pageSize,
+            @QueryParam("pageToken") String pageToken,
+            @QueryParam("ownerId") UUID ownerId,
+            @QueryParam("managementGroupId") UUID managementGroupId,
+            @QueryParam("name") String name,
+            @QueryParam("sort") String sortOrder,
+            @QueryParam("includeDescription") Boolean includeDescription,
+            @QueryParam("search") String search,
+            @QueryParam("searchMode") String searchMode) {
+
+        var builder = ApplicationFilter
+                .builder()
+                .pageSize(pageSize)
+                .pageToken(pageToken)
+                .ownerId(ownerId)
+                .name(name)
+                .managementGroupId(managementGroupId)
+                .includeDescription(includeDescription)
+                .search(search)
+                .searchMode(SearchMode.of(searchMode));
+
+        if (Objects.nonNull(sortOrder)) {
+            builder.sortOrder(Sort.list(sortOrder));
+        }
+
+        var filter = builder.build();
+
+        return Context
+                .of(userId)
+                .execute(context -> service.list(filter, context))
+                .map(page -> Response.ok().entity(page).build());
+    }
+
+    /**
+     * Retrieve an application by its key.
+     * GET /v0/applications/{applicationKey}
+     *
+     * @param userId the ID of the user making the request
+     * @param applicationKey the unique key of the application
+     * @param ifNoneMatch entity tags the client already holds
+     * @return HTTP 200 OK with the application data, or HTTP 304 Not Modified
+     */
+    @GET
+    @Path("/{applicationKey}")
+    public Uni<Response> getApplication(
+            @HeaderParam("X-Auth-Request-User-Id") @Valid UUID userId,
+            @PathParam("applicationKey") String applicationKey,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        return Context
+                .of(userId)
+                .execute(context -> service.get(applicationKey, context))
+                .map(application -> {
+                    var etag = service.etag(application);
+                    var response = ETags.matches(ifNoneMatch, etag)
+                            ? Response.notModified()
+                            : Response.ok().entity(application);
+                    return response.header(HttpHeaders.ETAG, etag).build();
+                });
+    }
+
+    /**
+     * Update an application by key.
+     * PUT /v0/applications/{applicationKey}
+     *
+     * @param userId the ID of the user making the request
+     * @param applicationKey the unique key of the application
+     * @param force whether to create the application if it doesn't exist
+     * @param ifMatch entity tags the update is conditional on
+     * @param application the new application data
+     * @return HTTP 204 No Content
+     */
+    @PUT
+    @Path("/{applicationKey}")
+    public Uni<Response> updateApplication(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @PathParam("applicationKey") String applicationKey,
+            @QueryParam("force") Boolean force,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @Valid Application application) {
+
+        if (!Objects.equals(applicationKey, application.applicationKey())) {
+            throw ErrorUtils.createBadRequestError("Application Key Mismatch");
+        }
+
+        return Context
+                .of(userId)
+                .execute(context -> service.update(
+                        applicationKey, application, force, ifMatch, context))
+                .map(v -> Response.noContent().build());
+    }
+
+    /**
+     * Update an application by key.
+     * PATCH /v0/applications/{applicationKey}
+     *
+     * @param userId the ID of the user making the request
+     * @param applicationKey the unique key of the application
+     * @param ifMatch entity tags the update is conditional on
+     * @param patcher the set of fields and values to update
+     * @return HTTP 204 No Content
+     */
+    @PATCH
+    @Path("/{applicationKey}")
+    public Uni<Response> patchApplication(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @PathParam("applicationKey") String applicationKey,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @Valid Patcher<ApplicationPatcher> patcher) {
+        return Context
+                .of(userId)
+                .execute(context -> service.patch(applicationKey, patcher, ifMatch, context))
+                .map(v -> Response.noContent().build());
+    }
+
+    /**
+     * Delete an application by key.
+     * DELETE /v0/applications/{applicationKey}
+     *
+     * @param userId the ID of the user making the request
+     * @param applicationKey the unique key of the application
+     * @param ifMatch entity tags the deletion is conditional on
+     * @return HTTP 204 No Content
+     */
+    @DELETE
+    @Path("/{applicationKey}")
+    public Uni<Response> deleteApplication(
+            @HeaderParam("X-Auth-Request-User-Id") UUID userId,
+            @PathParam("applicationKey") String applicationKey,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        return Context
+                .of(userId)
+                .execute(context -> service.delete(applicationKey, ifMatch, context))
+                .map(v -> Response.noContent().build());
+    }
+}
@@ -0,0 +1,108 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.PanacheRepository;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.util.Objects;
+import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Page;
+
+/**
+ * Non-blocking counterpart of {@link ApplicationRepo} on Hibernate Reactive.
+ *
+ * <p>Queries are compiled by the same {@link ApplicationQuery} as the
+ * blocking repository, so both stacks paginate, filter and project
+ * identically.</p>
+ */
+@ApplicationScoped
+public class ApplicationReactiveRepo implements PanacheRepository<ApplicationEntity> {
+
+    private static final String APPLICATION_KEY = "applicationKey";
+
+    /**
+     * Query applications matching the specified filter criteria.
+     *
+     * <p>Searches are only available on the blocking stack, whose
+     * {@link ApplicationSearch} runs on a JDBC connection.</p>
+     *
+     * @param filter the search and pagination criteria
+     * @return page of matching application rows with the next page token
+     */
+    public Uni<Page<ApplicationRow, String>> query(ApplicationFilter filter) {
+        if (Objects.nonNull(filter.search())) {
+            return Uni.createFrom().failure(ErrorUtils.createNotImplementedError(
+                    "Search is not available on the reactive stack"));
+        }
+
+        var query = ApplicationQuery.of(filter);
+        return Panache.getSession().chain(session -> {
+            var select = session
+                    .createSelectionQuery(query.hql(), ApplicationRow.class)
+                    .setMaxResults(query.limit());
+            query.params().forEach(select::setParameter);
+            return select.getResultList();
+        }).map(query::page);
+    }
+
+    /**
+     * Find an application by its key.
+     *
+     * @param applicationKey the application key to search for
+     * @return the found application, or null if not found
+     */
+    public Uni<ApplicationEntity> findByKey(String applicationKey) {
+        return find(APPLICATION_KEY, applicationKey).firstResult();
+    }
+
+    /**
+     * Find an application by its key, locking the record for write
+     * to prevent concurrent modifications.
+     *
+     * @param applicationKey the application key to search for
+     * @return the found application, or null if not found
+     */
+    public Uni<ApplicationEntity> findByKeyWithLock(String applicationKey) {
+        return find(APPLICATION_KEY, applicationKey)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .firstResult();
+    }
+
+    /**
+     * Check if an application with the given key exists.
+     *
+     * @param applicationKey the application key to check
+     * @return true if an application with the key exists, false otherwise
+     */
+    public Uni<Boolean> existsByKey(String applicationKey) {
+        return count(APPLICATION_KEY, applicationKey).map(c -> c > 0);
+    }
+
+    /**
+     * Delete an application by its key.
+     *
+     * @param applicationKey the application key to delete
+     * @return true if the application was deleted, false if not found
+     */
+    public Uni<Boolean> deleteByKey(String applicationKey) {
+        return delete(APPLICATION_KEY, applicationKey).map(c -> c > 0);
+    }
+
+    /**
+     * Record the deletion of an application for the change feed, in the
+     * transaction deleting it.
+     *
+     * @param applicationKey the key of the deleted application
+     * @return completion
+     */
+    public Uni<Void> tombstone(String applicationKey) {
+        return Panache.getSession().chain(session -> session
+                .createNativeQuery(ApplicationChanges.TOMBSTONE)
+                .setParameter(APPLICATION_KEY, applicationKey)
+                .executeUpdate())
+                .replaceWithVoid();
+    }
+}
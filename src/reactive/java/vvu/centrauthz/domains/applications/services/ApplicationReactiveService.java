@@ -0,0 +1,265 @@
+package vvu.centrauthz.domains.applications.services;
+
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Singleton;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import org.hibernate.exception.ConstraintViolationException;
+import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
+import vvu.centrauthz.domains.applications.repositories.ApplicationReactiveRepo;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.models.Page;
+import vvu.centrauthz.models.Patcher;
+import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.ETags;
+
+/**
+ * Non-blocking counterpart of {@link ApplicationService}.
+ *
+ * <p>Every operation returns a {@link Uni} and runs on the Vert.x event loop
+ * through Hibernate Reactive. Writes lock the row like the pessimistic mode
+ * of the blocking service and honour If-Match the same way. The change event
+ * of a write is fired once its transaction has committed.</p>
+ *
+ * <p>Reads go straight to the database: the read-through cache relies on a
+ * blocking loader and is only used by the blocking stack.</p>
+ */
+@Singleton
+public class ApplicationReactiveService {
+
+    private final ApplicationReactiveRepo repo;
+    private final ApplicationMapper mapper;
+    private final Event<ApplicationChangedEvent> events;
+
+    /**
+     * Constructs a new ApplicationReactiveService with the required dependencies.
+     *
+     * @param repo the reactive application repository
+     * @param mapper the mapper for converting between entities and DTOs
+     * @param events the emitter of application change events
+     */
+    public ApplicationReactiveService(ApplicationReactiveRepo repo,
+                                      ApplicationMapper mapper,
+                                      Event<ApplicationChangedEvent> events) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.events = events;
+    }
+
+    private static ApplicationChangedEvent changed(String applicationKey,
+                                                   String name,
+                                                   ApplicationChangeType type,
+                                                   Long version) {
+        return ApplicationChangedEvent
+                .builder()
+                .applicationKey(applicationKey)
+                .type(type)
+                .name(name)
+                .version(version)
+                .build();
+    }
+
+    /**
+     * Retrieves a paginated list of applications based on filter criteria.
+     *
+     * @param filter the filtering, sorting, and pagination criteria
+     * @param context the execution context containing user information
+     * @return a paginated result containing matching applications
+     */
+    @WithSession
+    public Uni<Page<Application, String>> list(ApplicationFilter filter, Context context) {
+        return Uni.createFrom()
+                .item(filter)
+                .chain(repo::query)
+                .map(page -> Page.<Application, String>builder()
+                        .data(mapper.rowsToDtoList(page.data()))
+                        .next(page.next())
+                        .build());
+    }
+
+    /**
+     * Retrieves a specific application by its unique key.
+     *
+     * @param applicationKey the unique identifier of the application
+     * @param context the execution context containing user information
+     * @return the application, or a NotFoundError failure
+     */
+    @WithSession
+    public Uni<Application> get(String applicationKey, Context context) {
+        return repo.findByKey(applicationKey)
+                .onItem().ifNull().failWith(() -> ErrorUtils.createNotFoundError(
+                        applicationKey + " is not found"))
+                .map(mapper::toDto);
+    }
+
+    /**
+     * Computes the entity tag of an application.
+     *
+     * @param application the application
+     * @return the quoted entity tag
+     */
+    public String etag(Application application) {
+        return ETags.of(application.applicationKey(),
+                Objects.requireNonNullElse(application.version(), 0L));
+    }
+
+    /**
+     * Creates a new application in the system.
+     *
+     * @param application the application data to create
+     * @param context the execution context containing user information
+     * @return the created application, or a ConflictError failure if the key
+     *         is already taken
+     */
+    public Uni<Application> create(Application application, Context context) {
+        return Panache
+                .withTransaction(() -> persist(application, context))
+                .onFailure(ApplicationReactiveService::isConstraintViolation)
+                .transform(e -> ErrorUtils.createConflictError(
+                        application.applicationKey() + " already exists"))
+                .map(mapper::toDto)
+                .invoke(a -> events.fire(changed(a.applicationKey(), a.name(),
+                        ApplicationChangeType.CREATED, a.version())));
+    }
+
+    /**
+     * Updates an existing application with new data.
+     *
+     * @param applicationKey the unique identifier of the application to update
+     * @param application the new application data
+     * @param force whether to create the application if it doesn't exist
+     * @param ifMatch the If-Match header value, may be null
+     * @param context the execution context containing user information
+     * @return completion, or a NotFoundError / PreconditionFailedError failure
+     */
+    public Uni<Void> update(String applicationKey,
+                            Application application,
+                            Boolean force,
+                            String ifMatch,
+                            Context context) {
+        var versions = ETags.stamps(ifMatch, applicationKey);
+        var createIfAbsent = Boolean.TRUE.equals(force) && versions.isEmpty();
+
+        return Panache
+                .withTransaction(() -> repo.findByKeyWithLock(applicationKey).chain(e -> {
+                    if (Objects.isNull(e) && createIfAbsent) {
+                        return persist(application, context)
+                                .map(p -> changed(applicationKey, application.name(),
+                                        ApplicationChangeType.CREATED, p.getVersion()));
+                    }
+                    return modify(applicationKey, versions, e, locked -> {
+                        mapper.updateEntity(application, locked);
+                        locked.setUpdatedBy(context.user().userId());
+                        locked.setUpdatedAt(Instant.ofEpochMilli(System.currentTimeMillis()));
+                        return Uni.createFrom().item(changed(applicationKey, application.name(),
+                                ApplicationChangeType.UPDATED, locked.getVersion() + 1));
+                    });
+                }))
+                .invoke(events::fire)
+                .replaceWithVoid();
+    }
+
+    /**
+     * Applies partial updates to an existing application.
+     *
+     * @param applicationKey the unique identifier of the application to patch
+     * @param patcher the patcher containing the fields to update
+     * @param ifMatch the If-Match header value, may be null
+     * @param context the execution context containing user information
+     * @return completion, or a NotFoundError / PreconditionFailedError failure
+     */
+    public Uni<Void> patch(String applicationKey,
+                           Patcher<ApplicationPatcher> patcher,
+                           String ifMatch,
+                           Context context) {
+        var versions = ETags.stamps(ifMatch, applicationKey);
+        var name = patcher.fields().contains("name") ? patcher.data().name() : null;
+
+        return Panache
+                .withTransaction(() -> repo.findByKeyWithLock(applicationKey)
+                        .chain(e -> modify(applicationKey, versions, e, locked -> {
+                            patcher
+                                    .having("name", d -> locked.setName(d.name()))
+                                    .having("description",
+                                        d -> locked.setDescription(d.description()))
+                                    .having("ownerId", d -> locked.setOwnerId(d.ownerId()))
+                                    .having("managementGroupId",
+                                        d -> locked.setManagementGroupId(d.managementGroupId()));
+                            locked.setUpdatedBy(context.user().userId());
+                            locked.setUpdatedAt(Instant.ofEpochMilli(System.currentTimeMillis()));
+                            return Uni.createFrom().item(changed(applicationKey, name,
+                                    ApplicationChangeType.UPDATED, locked.getVersion() + 1));
+                        })))
+                .invoke(events::fire)
+                .replaceWithVoid();
+    }
+
+    /**
+     * Deletes an application from the system.
+     *
+     * @param applicationKey the unique identifier of the application to delete
+     * @param ifMatch the If-Match header value, may be null
+     * @param context the execution context containing user information
+     * @return completion, or a NotFoundError / PreconditionFailedError failure
+     */
+    public Uni<Void> delete(String applicationKey, String ifMatch, Context context) {
+        var versions = ETags.stamps(ifMatch, applicationKey);
+
+        return Panache
+                .withTransaction(() -> repo.findByKeyWithLock(applicationKey)
+                        .chain(e -> modify(applicationKey, versions, e, locked -> repo
+                                .delete(locked)
+                                .chain(() -> repo.tombstone(applicationKey))
+                                .replaceWith(changed(applicationKey, null,
+                                        ApplicationChangeType.DELETED, null)))))
+                .invoke(events::fire)
+                .replaceWithVoid();
+    }
+
+    private Uni<ApplicationEntity> persist(Application application, Context context) {
+        var e = mapper.toEntity(application);
+        e.setCreatedBy(context.user().userId());
+        return repo.persist(e);
+    }
+
+    /**
+     * Applies a write to a locked entity once it is known to exist and to
+     * satisfy the If-Match precondition.
+     */
+    private static Uni<ApplicationChangedEvent> modify(
+            String applicationKey,
+            Optional<List<Long>> versions,
+            ApplicationEntity locked,
+            Function<ApplicationEntity, Uni<ApplicationChangedEvent>> write) {
+        if (Objects.isNull(locked)) {
+            return Uni.createFrom().failure(ErrorUtils.createNotFoundError(
+                    applicationKey + " is not found"));
+        }
+        if (versions.isPresent() && !versions.get().contains(locked.getVersion())) {
+            return Uni.createFrom().failure(ErrorUtils.createPreconditionFailedError(
+                    applicationKey + " has been modified"));
+        }
+        return write.apply(locked);
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (var ex = e; Objects.nonNull(ex); ex = ex.getCause()) {
+            if (ex instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,154 @@
+package vvu.centrauthz.domains.applications.controllers;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import lombok.Builder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.services.ApplicationReactiveService;
+import vvu.centrauthz.errors.BadRequestError;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.errors.NotFoundError;
+import vvu.centrauthz.utilities.Context;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+class ApplicationReactiveControllerTest {
+
+    @Test
+    void createApplication_created() {
+        var userId = UUID.randomUUID();
+        var app = ApplicationCreator.createApplication();
+        var contextCaptor = ArgumentCaptor.forClass(Context.class);
+
+        var appContext = ApplicationReactiveControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> Mockito
+                .when(service.create(Mockito.same(app), contextCaptor.capture()))
+                .thenReturn(Uni.createFrom().item(app)));
+
+        try (var response = controller.createApplication(userId, app).await().indefinitely()) {
+            Assertions.assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+            Assertions.assertSame(app, response.getEntity());
+            Assertions.assertEquals(userId, contextCaptor.getValue().user().userId());
+        }
+    }
+
+    @Test
+    void getApplication_ok_withETag() {
+        var app = ApplicationCreator.createApplication();
+        var etag = "\"" + UUID.randomUUID() + "\"";
+
+        var appContext = ApplicationReactiveControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.get(Mockito.eq(app.applicationKey()), Mockito.any(Context.class)))
+                    .thenReturn(Uni.createFrom().item(app));
+            Mockito.when(service.etag(app)).thenReturn(etag);
+        });
+
+        try (var response = controller.getApplication(UUID.randomUUID(), app.applicationKey(), null)
+                .await().indefinitely()) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            Assertions.assertSame(app, response.getEntity());
+            Assertions.assertEquals(etag, response.getHeaderString(HttpHeaders.ETAG));
+        }
+    }
+
+    @Test
+    void getApplication_ifNoneMatchMatches_notModified() {
+        var app = ApplicationCreator.createApplication();
+        var etag = "\"" + UUID.randomUUID() + "\"";
+
+        var appContext = ApplicationReactiveControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.get(Mockito.anyString(), Mockito.any(Context.class)))
+                    .thenReturn(Uni.createFrom().item(app));
+            Mockito.when(service.etag(app)).thenReturn(etag);
+        });
+
+        try (var response = controller.getApplication(UUID.randomUUID(), app.applicationKey(), etag)
+                .await().indefinitely()) {
+            Assertions.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+            Assertions.assertNull(response.getEntity());
+            Assertions.assertEquals(etag, response.getHeaderString(HttpHeaders.ETAG));
+        }
+    }
+
+    @Test
+    void getApplication_notFound_propagatesFailure() {
+        var appContext = ApplicationReactiveControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> Mockito
+                .when(service.get(Mockito.anyString(), Mockito.any(Context.class)))
+                .thenReturn(Uni.createFrom().failure(
+                        ErrorUtils.createNotFoundError("missing is not found"))));
+
+        var response = controller.getApplication(UUID.randomUUID(), "missing", null);
+
+        Assertions.assertThrows(NotFoundError.class, () -> response.await().indefinitely());
+    }
+
+    @Test
+    void updateApplication_keyMismatch_badRequest() {
+        var app = ApplicationCreator.createApplication();
+        var appContext = ApplicationReactiveControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        Assertions.assertThrows(BadRequestError.class, () -> controller.updateApplication(
+                UUID.randomUUID(), app.applicationKey() + "-other", null, null, app));
+
+        appContext.verify(Mockito::verifyNoInteractions);
+    }
+
+    @Test
+    void deleteApplication_noContent() {
+        var userId = UUID.randomUUID();
+        var ifMatch = "\"" + UUID.randomUUID() + "\"";
+
+        var appContext = ApplicationReactiveControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> Mockito
+                .when(service.delete(Mockito.eq("app"), Mockito.eq(ifMatch), Mockito.any(Context.class)))
+                .thenReturn(Uni.createFrom().voidItem()));
+
+        try (var response = controller.deleteApplication(userId, "app", ifMatch).await().indefinitely()) {
+            Assertions.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+        }
+    }
+
+    @Builder(toBuilder = true)
+    record ApplicationReactiveControllerContext(ApplicationReactiveService service) {
+
+        public ApplicationReactiveControllerContext {
+            if (Objects.isNull(service)) {
+                service = Mockito.mock(ApplicationReactiveService.class);
+            }
+        }
+
+        void setup(Consumer<ApplicationReactiveService> consumer) {
+            consumer.accept(service);
+        }
+
+        void verify(Consumer<ApplicationReactiveService> consumer) {
+            consumer.accept(service);
+        }
+
+        ApplicationReactiveController toController() {
+            return new ApplicationReactiveController(service);
+        }
+    }
+}
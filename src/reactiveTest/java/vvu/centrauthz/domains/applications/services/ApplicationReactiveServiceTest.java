@@ -0,0 +1,128 @@
+package vvu.centrauthz.domains.applications.services;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.event.Event;
+import lombok.Builder;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.entities.ApplicationEntityCreator;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.domains.applications.repositories.ApplicationReactiveRepo;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRow;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRowCreator;
+import vvu.centrauthz.errors.NotFoundError;
+import vvu.centrauthz.models.Page;
+import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.ETags;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationReactiveServiceTest {
+
+    @Test
+    void get_hasEntity_returnDto() {
+        var context = ApplicationReactiveServiceContext.builder().build();
+        var service = context.toService();
+        var entity = ApplicationEntityCreator.create();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findByKey(entity.getApplicationKey()))
+                .thenReturn(Uni.createFrom().item(entity));
+            Mockito.when(ctx.mapper.toDto(entity)).thenReturn(dto);
+        });
+
+        var app = service.get(entity.getApplicationKey(), Context.of(UUID.randomUUID()))
+            .await().indefinitely();
+
+        assertSame(dto, app);
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.events));
+    }
+
+    @Test
+    void get_noEntity_notFound() {
+        var context = ApplicationReactiveServiceContext.builder().build();
+        var service = context.toService();
+
+        context.setup(ctx -> Mockito.when(ctx.repo.findByKey(Mockito.anyString()))
+            .thenReturn(Uni.createFrom().nullItem()));
+
+        var app = service.get("missing", Context.of(UUID.randomUUID()));
+
+        assertThrows(NotFoundError.class, () -> app.await().indefinitely());
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.mapper));
+    }
+
+    @Test
+    void list_mapsRowsAndForwardsNextToken() {
+        var context = ApplicationReactiveServiceContext.builder().build();
+        var service = context.toService();
+        var rows = List.of(ApplicationRowCreator.create(), ApplicationRowCreator.create());
+        var dtos = List.of(ApplicationCreator.createApplication(), ApplicationCreator.createApplication());
+        var next = UUID.randomUUID().toString();
+        var filter = ApplicationFilter.builder().pageSize(2).build();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.query(filter))
+                .thenReturn(Uni.createFrom().item(
+                    Page.<ApplicationRow, String>builder().data(rows).next(next).build()));
+            Mockito.when(ctx.mapper.rowsToDtoList(rows)).thenReturn(dtos);
+        });
+
+        var page = service.list(filter, Context.of(UUID.randomUUID())).await().indefinitely();
+
+        assertSame(dtos, page.data());
+        assertEquals(next, page.next());
+    }
+
+    @Test
+    void etag_matchesBlockingStack() {
+        var app = ApplicationCreator.createApplication();
+        var service = ApplicationReactiveServiceContext.builder().build().toService();
+
+        assertEquals(ETags.of(app.applicationKey(), app.version()), service.etag(app));
+    }
+
+    @Builder(toBuilder = true)
+    record ApplicationReactiveServiceContext(
+        ApplicationReactiveRepo repo,
+        ApplicationMapper mapper,
+        Event<ApplicationChangedEvent> events
+    ) {
+
+        @SuppressWarnings("unchecked")
+        public ApplicationReactiveServiceContext {
+            if (Objects.isNull(repo)) {
+                repo = Mockito.mock(ApplicationReactiveRepo.class);
+            }
+
+            if (Objects.isNull(mapper)) {
+                mapper = Mockito.mock(ApplicationMapper.class);
+            }
+
+            if (Objects.isNull(events)) {
+                events = Mockito.mock(Event.class);
+            }
+        }
+
+        public void setup(Consumer<ApplicationReactiveServiceContext> consumer) {
+            consumer.accept(this);
+        }
+
+        public void verify(Consumer<ApplicationReactiveServiceContext> consumer) {
+            consumer.accept(this);
+        }
+
+        public ApplicationReactiveService toService() {
+            return new ApplicationReactiveService(repo, mapper, events);
+        }
+    }
+}
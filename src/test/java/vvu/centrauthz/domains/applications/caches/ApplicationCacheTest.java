@@ -0,0 +1,323 @@
+package vvu.centrauthz.domains.applications.caches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.errors.ErrorUtils;
+import vvu.centrauthz.errors.NotFoundError;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationCacheTest {
+
+    @Test
+    void get_whenEnabled_loadsOnce() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var app = ApplicationCreator.createApplication();
+        var loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(app, cache.get(app.applicationKey(), k -> {
+                loads.incrementAndGet();
+                return app;
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        assertSame(app, cache.getIfPresent(app.applicationKey()).orElseThrow());
+    }
+
+    @Test
+    void get_whenDisabled_alwaysLoads() {
+        var cache = new ApplicationCache(false, 10, Duration.ofMinutes(1));
+        var app = ApplicationCreator.createApplication();
+        var loads = new AtomicInteger();
+
+        cache.get(app.applicationKey(), k -> {
+            loads.incrementAndGet();
+            return app;
+        });
+        cache.get(app.applicationKey(), k -> {
+            loads.incrementAndGet();
+            return app;
+        });
+
+        assertEquals(2, loads.get());
+        assertTrue(cache.getIfPresent(app.applicationKey()).isEmpty());
+    }
+
+    @Test
+    void get_whenLoaderThrows_nothingCached() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+
+        assertThrowsExactly(NotFoundError.class, () -> cache.get("missing", k -> {
+            throw ErrorUtils.createNotFoundError(k + " is not found");
+        }));
+
+        assertTrue(cache.getIfPresent("missing").isEmpty());
+    }
+
+    @Test
+    void onChanged_invalidatesEntry() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var app = ApplicationCreator.createApplication();
+        cache.get(app.applicationKey(), k -> app);
+
+        cache.onChanged(ApplicationChangedEvent.builder()
+                .applicationKey(app.applicationKey())
+                .type(ApplicationChangeType.UPDATED)
+                .build());
+
+        assertTrue(cache.getIfPresent(app.applicationKey()).isEmpty());
+    }
+
+    @Test
+    void get_missing_negativelyCachedUntilChanged() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var app = ApplicationCreator.createApplication();
+        var loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(cache.get(app.applicationKey(), k -> {
+                loads.incrementAndGet();
+                return null;
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertTrue(cache.getAll(List.of(app.applicationKey()), k -> fail("negatively cached")).isEmpty());
+
+        cache.onChanged(ApplicationChangedEvent.builder()
+                .applicationKey(app.applicationKey())
+                .type(ApplicationChangeType.CREATED)
+                .build());
+
+        assertSame(app, cache.get(app.applicationKey(), k -> app));
+    }
+
+    @Test
+    void get_missing_notNegativelyCachedWhenDisabled() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var loads = new AtomicInteger();
+
+        cache.get("missing", k -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        cache.get("missing", k -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void bindTo_publishesCacheStatistics() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        var app = ApplicationCreator.createApplication();
+
+        cache.bindTo(registry);
+        cache.get(app.applicationKey(), k -> app);
+        cache.get(app.applicationKey(), k -> app);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_concurrentMisses_loadOnce() throws Exception {
+        var cache = new ApplicationCache(false, 10, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        var app = ApplicationCreator.createApplication();
+        var loads = new AtomicInteger();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        cache.bindTo(registry);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> cache.get(app.applicationKey(), k -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return app;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            var followers = new ArrayList<Future<?>>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> cache.get(app.applicationKey(), k -> {
+                    loads.incrementAndGet();
+                    return app;
+                })));
+            }
+            awaitCollapsed(registry, 3);
+            release.countDown();
+
+            assertSame(app, leader.get(5, TimeUnit.SECONDS));
+            for (var follower : followers) {
+                assertSame(app, follower.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_concurrentMisses_shareFailure() throws Exception {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        cache.bindTo(registry);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> cache.get("missing", k -> {
+                loading.countDown();
+                await(release);
+                throw ErrorUtils.createNotFoundError(k + " is not found");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            var follower = executor.submit(() -> cache.get("missing", k -> fail("not shared")));
+            awaitCollapsed(registry, 1);
+            release.countDown();
+
+            var leaderError = assertThrows(ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+            var followerError = assertThrows(ExecutionException.class,
+                () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NotFoundError.class, leaderError.getCause());
+            assertSame(leaderError.getCause(), followerError.getCause());
+        }
+
+        assertTrue(cache.getIfPresent("missing").isEmpty());
+    }
+
+    @Test
+    void get_invalidatedDuringLoad_notStored() throws Exception {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var app = ApplicationCreator.createApplication();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var stale = executor.submit(() -> cache.get(app.applicationKey(), k -> {
+                loading.countDown();
+                await(release);
+                return app;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            cache.invalidate(app.applicationKey());
+            var fresh = app.toBuilder().name("fresh").build();
+            assertSame(fresh, cache.get(app.applicationKey(), k -> fresh));
+
+            release.countDown();
+            assertSame(app, stale.get(5, TimeUnit.SECONDS));
+            assertSame(fresh, cache.getIfPresent(app.applicationKey()).orElseThrow());
+        }
+    }
+
+    @Test
+    void fillToken_positionTakenOncePerBurstOfInvalidations() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var positions = new ArrayList<String>(List.of("0/10", "0/20"));
+        var asked = new AtomicInteger();
+        Supplier<Optional<String>> position = () -> {
+            asked.incrementAndGet();
+            return Optional.of(positions.removeFirst());
+        };
+
+        assertNull(cache.fillToken(position));
+
+        cache.invalidate("a");
+        cache.invalidate("b");
+        assertEquals("0/10", cache.fillToken(position));
+        assertEquals("0/10", cache.fillToken(position));
+
+        cache.invalidate("a");
+        assertEquals("0/20", cache.fillToken(position));
+        assertEquals(2, asked.get());
+    }
+
+    @Test
+    void getAll_loadsUncachedTogether() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var cached = ApplicationCreator.createApplication();
+        var loaded = ApplicationCreator.createApplication();
+        var requested = new ArrayList<Set<String>>();
+        cache.get(cached.applicationKey(), k -> cached);
+
+        var found = cache.getAll(List.of(cached.applicationKey(), loaded.applicationKey(), "missing"),
+            keys -> {
+                requested.add(Set.copyOf(keys));
+                return Map.of(loaded.applicationKey(), loaded);
+            });
+
+        assertEquals(Map.of(cached.applicationKey(), cached, loaded.applicationKey(), loaded), found);
+        assertEquals(List.of(Set.of(loaded.applicationKey(), "missing")), requested);
+        assertTrue(cache.getIfPresent(loaded.applicationKey()).isEmpty());
+    }
+
+    @Test
+    void getAll_keyInFlight_awaitsLoad() throws Exception {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        var app = ApplicationCreator.createApplication();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        cache.bindTo(registry);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> cache.get(app.applicationKey(), k -> {
+                loading.countDown();
+                await(release);
+                return app;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            var bulk = executor.submit(() -> cache.getAll(List.of(app.applicationKey(), "missing"),
+                keys -> {
+                    assertEquals(Set.of("missing"), keys);
+                    return Map.of();
+                }));
+            awaitCollapsed(registry, 1);
+            release.countDown();
+
+            assertEquals(Map.of(app.applicationKey(), app), bulk.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCollapsed(SimpleMeterRegistry registry, int expected)
+        throws InterruptedException {
+        var counter = registry.get("cache.loads.collapsed").functionCounter();
+        for (int i = 0; i < 500 && counter.count() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, counter.count());
+    }
+}
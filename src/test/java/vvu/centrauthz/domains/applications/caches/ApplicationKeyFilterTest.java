@@ -0,0 +1,140 @@
+package vvu.centrauthz.domains.applications.caches;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.repositories.ApplicationHorizon;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationKeyFilterTest {
+
+    private static final Instant T0 = Instant.parse("2026-10-18T12:00:00Z");
+    private static final Duration STALENESS = Duration.ofMinutes(1);
+
+    @Test
+    void mightExist_beforeBuild_true() {
+        var filter = new ApplicationKeyFilter(Mockito.mock(ApplicationRepo.class), true, 100, 0.01, STALENESS);
+
+        assertTrue(filter.mightExist("anything"));
+    }
+
+    @Test
+    void rebuild_knowsExistingKeysOnly() {
+        var filter = new ApplicationKeyFilter(repoWith(List.of("a", "b")), true, 100, 0.001, STALENESS);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist("a"));
+        assertTrue(filter.mightExist("b"));
+        assertFalse(filter.mightExist("missing"));
+    }
+
+    @Test
+    void onChanged_created_added() {
+        var filter = new ApplicationKeyFilter(repoWith(List.of("a")), true, 100, 0.001, STALENESS);
+        filter.rebuild();
+
+        filter.onChanged(event("c", ApplicationChangeType.CREATED));
+        filter.onChanged(event("d", ApplicationChangeType.UPDATED));
+
+        assertTrue(filter.mightExist("c"));
+        assertFalse(filter.mightExist("d"));
+    }
+
+    @Test
+    void onChanged_duringRebuild_addedToNewFilter() {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        var filter = new ApplicationKeyFilter(repo, true, 100, 0.001, STALENESS);
+        Mockito.when(repo.horizon()).thenReturn(horizon(T0, Duration.ZERO));
+        Mockito.doAnswer(invocation -> {
+            filter.onChanged(event("created-meanwhile", ApplicationChangeType.CREATED));
+            invocation.<Consumer<String>>getArgument(0).accept("a");
+            return null;
+        }).when(repo).forEachKey(Mockito.any());
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist("a"));
+        assertTrue(filter.mightExist("created-meanwhile"));
+    }
+
+    @Test
+    void rebuild_disabled_noQuery() {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        var filter = new ApplicationKeyFilter(repo, false, 100, 0.01, STALENESS);
+
+        filter.rebuild();
+        filter.sync();
+
+        assertTrue(filter.mightExist("missing"));
+        Mockito.verifyNoInteractions(repo);
+    }
+
+    @Test
+    void sync_addsKeysWrittenElsewhereSinceTheLastHorizon() {
+        var repo = repoWith(List.of("a"));
+        var filter = new ApplicationKeyFilter(repo, true, 100, 0.001, STALENESS);
+        filter.rebuild();
+        var next = T0.plusSeconds(1);
+        Mockito.when(repo.horizon()).thenReturn(horizon(next, Duration.ZERO));
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(2).accept("remote");
+            return null;
+        }).when(repo).forEachKeyChanged(Mockito.any(), Mockito.any(), Mockito.any());
+
+        assertFalse(filter.mightExist("remote"));
+        filter.sync();
+
+        assertTrue(filter.mightExist("remote"));
+        assertFalse(filter.mightExist("missing"));
+        Mockito.verify(repo).forEachKeyChanged(Mockito.eq(T0), Mockito.eq(next), Mockito.any());
+    }
+
+    @Test
+    void sync_beforeBuild_noQuery() {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        var filter = new ApplicationKeyFilter(repo, true, 100, 0.01, STALENESS);
+
+        filter.sync();
+
+        Mockito.verifyNoInteractions(repo);
+    }
+
+    @Test
+    void mightExist_horizonHeldBackPastStaleness_true() {
+        var repo = repoWith(List.of("a"));
+        Mockito.when(repo.horizon()).thenReturn(horizon(T0, STALENESS.plusSeconds(1)));
+        var filter = new ApplicationKeyFilter(repo, true, 100, 0.001, STALENESS);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist("missing"));
+    }
+
+    private static ApplicationRepo repoWith(List<String> keys) {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        Mockito.when(repo.horizon()).thenReturn(horizon(T0, Duration.ZERO));
+        Mockito.when(repo.count()).thenReturn((long) keys.size());
+        Mockito.doAnswer(invocation -> {
+            keys.forEach(invocation.<Consumer<String>>getArgument(0));
+            return null;
+        }).when(repo).forEachKey(Mockito.any());
+        return repo;
+    }
+
+    private static ApplicationHorizon horizon(Instant at, Duration lag) {
+        return ApplicationHorizon.builder().at(at).lag(lag).build();
+    }
+
+    private static ApplicationChangedEvent event(String key, ApplicationChangeType type) {
+        return ApplicationChangedEvent.builder().applicationKey(key).type(type).build();
+    }
+}
@@ -0,0 +1,98 @@
+package vvu.centrauthz.domains.applications.caches;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.utilities.PrefixIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationNameIndexTest {
+
+    @Test
+    void find_beforeBuild_empty() {
+        var index = new ApplicationNameIndex(Mockito.mock(ApplicationRepo.class), true);
+
+        assertTrue(index.find("a", 10).isEmpty());
+    }
+
+    @Test
+    void rebuild_findsKeysAndNames() {
+        var index = new ApplicationNameIndex(repoWith(Map.of("payroll", "Payroll", "ledger", "Pay ledger")), true);
+
+        index.rebuild();
+
+        assertEquals(List.of("ledger", "payroll"), keys(index, "pay"));
+        assertEquals(List.of("ledger"), keys(index, "LED"));
+    }
+
+    @Test
+    void onChanged_appliesWrites() {
+        var index = new ApplicationNameIndex(repoWith(Map.of("payroll", "Payroll", "ledger", "Ledger")), true);
+        index.rebuild();
+
+        index.onChanged(event("audit", ApplicationChangeType.CREATED, "Audit trail"));
+        index.onChanged(event("payroll", ApplicationChangeType.UPDATED, "Salaries"));
+        index.onChanged(event("ledger", ApplicationChangeType.UPDATED, null));
+        index.onChanged(event("ledger", ApplicationChangeType.DELETED, null));
+
+        assertEquals(List.of("audit"), keys(index, "audit"));
+        assertEquals(List.of("payroll"), keys(index, "sal"));
+        assertEquals(List.of("payroll"), keys(index, "payroll"));
+        assertTrue(keys(index, "led").isEmpty());
+    }
+
+    @Test
+    void onChanged_duringRebuild_appliedToNewIndex() {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        var index = new ApplicationNameIndex(repo, true);
+        Mockito.doAnswer(invocation -> {
+            index.onChanged(event("created-meanwhile", ApplicationChangeType.CREATED, "New"));
+            index.onChanged(event("deleted-meanwhile", ApplicationChangeType.DELETED, null));
+            var consumer = invocation.<BiConsumer<String, String>>getArgument(0);
+            consumer.accept("a", "Alpha");
+            consumer.accept("deleted-meanwhile", "Old");
+            return null;
+        }).when(repo).forEachName(Mockito.any());
+
+        index.rebuild();
+
+        assertEquals(List.of("a"), keys(index, "alp"));
+        assertEquals(List.of("created-meanwhile"), keys(index, "new"));
+        assertTrue(keys(index, "old").isEmpty());
+    }
+
+    @Test
+    void rebuild_disabled_noQuery() {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        var index = new ApplicationNameIndex(repo, false);
+
+        index.rebuild();
+
+        assertTrue(index.find("a", 10).isEmpty());
+        Mockito.verifyNoInteractions(repo);
+    }
+
+    private static List<String> keys(ApplicationNameIndex index, String prefix) {
+        return index.find(prefix, 10).orElseThrow().stream().map(PrefixIndex.Match::key).toList();
+    }
+
+    private static ApplicationRepo repoWith(Map<String, String> names) {
+        var repo = Mockito.mock(ApplicationRepo.class);
+        Mockito.doAnswer(invocation -> {
+            names.forEach(invocation.<BiConsumer<String, String>>getArgument(0));
+            return null;
+        }).when(repo).forEachName(Mockito.any());
+        return repo;
+    }
+
+    private static ApplicationChangedEvent event(String key, ApplicationChangeType type, String name) {
+        return ApplicationChangedEvent.builder().applicationKey(key).type(type).name(name).build();
+    }
+}
@@ -1,5 +1,6 @@
 package vvu.centrauthz.domains.applications.controllers;
 
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import lombok.Builder;
 import org.junit.jupiter.api.AfterEach;
@@ -12,13 +13,16 @@ import vvu.centrauthz.domains.applications.models.Application;
 import vvu.centrauthz.domains.applications.models.ApplicationCreator;
 import vvu.centrauthz.domains.applications.models.ApplicationFilter;
 import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
+import vvu.centrauthz.domains.applications.models.SearchMode;
 import vvu.centrauthz.domains.applications.services.ApplicationService;
 import vvu.centrauthz.errors.BadRequestError;
 import vvu.centrauthz.models.Patcher;
+import vvu.centrauthz.replicas.ConsistencyTokens;
 import vvu.centrauthz.utilities.Context;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -55,7 +59,7 @@ class ApplicationControllerTest {
             Assertions.assertSame(appRet, response.getEntity());
 
             appContext.verify(service -> {
-                Mockito.verify(service, Mockito.only()).create(Mockito.any(Application.class), Mockito.any(Context.class));
+                Mockito.verify(service, Mockito.times(1)).create(Mockito.any(Application.class), Mockito.any(Context.class));
                 Assertions.assertEquals(userId, contextCaptor.getValue().user().userId());
                 Assertions.assertSame(app, appCaptor.getValue());
             });
@@ -90,7 +94,7 @@ class ApplicationControllerTest {
                         pageToken,
                         ownerId,
                         managementGroupId,
-                    name, sortOrder)) {
+                    name, sortOrder, false, null, null, null)) {
             Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
             Assertions.assertSame(page, response.getEntity());
 
@@ -105,11 +109,42 @@ class ApplicationControllerTest {
                 Assertions.assertEquals(ownerId, f.ownerId());
                 Assertions.assertEquals(managementGroupId, f.managementGroupId());
                 Assertions.assertEquals(name, f.name());
+                Assertions.assertFalse(f.includeDescription());
 
             });
         }
     }
 
+    @Test
+    void listApplications_withSearch() {
+        var page = ApplicationCreator.createAppPage();
+        var filterCaptor = ArgumentCaptor.forClass(ApplicationFilter.class);
+
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.list(filterCaptor.capture(), Mockito.any(Context.class))).thenReturn(page);
+        });
+
+        try (var response = controller
+                .listApplications(null, null, null, null, null, null, null, null, "pay", "Prefix", null)) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            Assertions.assertEquals("pay", filterCaptor.getValue().search());
+            Assertions.assertEquals(SearchMode.PREFIX, filterCaptor.getValue().searchMode());
+        }
+    }
+
+    @Test
+    void listApplications_invalidSearchMode() {
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        Assertions.assertThrows(BadRequestError.class, () -> controller
+                .listApplications(null, null, null, null, null, null, null, null, "pay", "fuzzy", null));
+        appContext.verify(Mockito::verifyNoInteractions);
+    }
+
     @Test
     void getApplication() {
         var userId = UUID.randomUUID();
@@ -127,18 +162,83 @@ class ApplicationControllerTest {
             Mockito.when(service.get(appKeyCaptor.capture(), contextCaptor.capture())).thenReturn(appRet);
         });
 
-        try (var response = controller.getApplication(userId, app.applicationKey())) {
+        try (var response = controller.getApplication(userId, app.applicationKey(), null, null)) {
             Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
             Assertions.assertSame(appRet, response.getEntity());
 
             appContext.verify(service -> {
-                Mockito.verify(service, Mockito.only()).get(Mockito.anyString(), Mockito.any(Context.class));
+                Mockito.verify(service, Mockito.times(1)).get(Mockito.anyString(), Mockito.any(Context.class));
+                Mockito.verify(service, Mockito.never()).findETag(Mockito.anyString(), Mockito.any(Context.class));
                 Assertions.assertEquals(userId, contextCaptor.getValue().user().userId());
                 Assertions.assertSame(app.applicationKey(), appKeyCaptor.getValue());
             });
         }
     }
 
+    @Test
+    void getApplication_withETag() {
+        var userId = UUID.randomUUID();
+        var app = ApplicationCreator.createApplication();
+        var etag = "\"" + UUID.randomUUID() + "\"";
+
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.get(Mockito.anyString(), Mockito.any(Context.class))).thenReturn(app);
+            Mockito.when(service.etag(app)).thenReturn(etag);
+        });
+
+        try (var response = controller.getApplication(userId, app.applicationKey(), null, null)) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            Assertions.assertEquals(etag, response.getHeaderString(HttpHeaders.ETAG));
+        }
+    }
+
+    @Test
+    void getApplication_ifNoneMatchMatches_notModified() {
+        var userId = UUID.randomUUID();
+        var key = UUID.randomUUID().toString().split("-")[0];
+        var etag = "\"" + UUID.randomUUID() + "\"";
+
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.findETag(Mockito.eq(key), Mockito.any(Context.class))).thenReturn(Optional.of(etag));
+        });
+
+        try (var response = controller.getApplication(userId, key, "\"other\", " + etag, null)) {
+            Assertions.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+            Assertions.assertEquals(etag, response.getHeaderString(HttpHeaders.ETAG));
+            Assertions.assertNull(response.getEntity());
+            appContext.verify(service -> {
+                Mockito.verify(service, Mockito.never()).get(Mockito.anyString(), Mockito.any(Context.class));
+            });
+        }
+    }
+
+    @Test
+    void getApplication_ifNoneMatchStale_ok() {
+        var userId = UUID.randomUUID();
+        var app = ApplicationCreator.createApplication();
+        var etag = "\"" + UUID.randomUUID() + "\"";
+
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.findETag(Mockito.anyString(), Mockito.any(Context.class))).thenReturn(Optional.of(etag));
+            Mockito.when(service.get(Mockito.anyString(), Mockito.any(Context.class))).thenReturn(app);
+            Mockito.when(service.etag(app)).thenReturn(etag);
+        });
+
+        try (var response = controller.getApplication(userId, app.applicationKey(), "\"stale\"", null)) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            Assertions.assertSame(app, response.getEntity());
+        }
+    }
+
     @Test
     void updateApplications_keyMatch_noContent() {
         var userId = UUID.randomUUID();
@@ -149,22 +249,25 @@ class ApplicationControllerTest {
         var appKeyCaptor = ArgumentCaptor.forClass(String.class);
         var appCaptor = ArgumentCaptor.forClass(Application.class);
         var forceCaptor = ArgumentCaptor.forClass(Boolean.class);
+        var ifMatchCaptor = ArgumentCaptor.forClass(String.class);
+        var ifMatch = "\"1.abc\"";
 
         var appContext = ApplicationControllerContext.builder().build();
         var controller = appContext.toController();
 
         appContext.setup(service -> {
-            Mockito.doNothing().when(service).update(appKeyCaptor.capture(), appCaptor.capture(), forceCaptor.capture(), contextCaptor.capture());
+            Mockito.doNothing().when(service).update(appKeyCaptor.capture(), appCaptor.capture(), forceCaptor.capture(), ifMatchCaptor.capture(), contextCaptor.capture());
         });
 
 
 
-        try (var response = controller.updateApplication(userId, app.applicationKey(), force, app)) {
+        try (var response = controller.updateApplication(userId, app.applicationKey(), force, ifMatch, app)) {
             Assertions.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
             Assertions.assertEquals(force, forceCaptor.getValue());
+            Assertions.assertEquals(ifMatch, ifMatchCaptor.getValue());
             appContext.verify(service -> {
-                Mockito.verify(service, Mockito.only())
-                    .update(Mockito.anyString(), Mockito.any(Application.class), Mockito.any(Boolean.class), Mockito.any(Context.class));
+                Mockito.verify(service, Mockito.times(1))
+                    .update(Mockito.anyString(), Mockito.any(Application.class), Mockito.any(Boolean.class), Mockito.anyString(), Mockito.any(Context.class));
                 Assertions.assertEquals(userId, contextCaptor.getValue().user().userId());
                 Assertions.assertSame(app.applicationKey(), appKeyCaptor.getValue());
             });
@@ -190,19 +293,20 @@ class ApplicationControllerTest {
             Mockito
                 .doNothing()
                 .when(service)
-                .update(appKeyCaptor.capture(), appCaptor.capture(), forceCaptor.capture(), contextCaptor.capture());
+                .update(appKeyCaptor.capture(), appCaptor.capture(), forceCaptor.capture(), Mockito.any(), contextCaptor.capture());
         });
 
 
         Assertions.assertThrows(
                 BadRequestError.class,
-            () -> controller.updateApplication(userId, appKey, force, app));
+            () -> controller.updateApplication(userId, appKey, force, null, app));
 
         appContext.verify(service -> {
             Mockito.verify(service,
                 Mockito.never()).update(Mockito.anyString(),
                 Mockito.any(Application.class),
                 Mockito.any(Boolean.class),
+                Mockito.any(),
                 Mockito.any(Context.class));
         });
     }
@@ -226,13 +330,13 @@ class ApplicationControllerTest {
         var controller = appContext.toController();
 
         appContext.setup(service -> {
-            Mockito.doNothing().when(service).patch(appKeyCaptor.capture(), patcherCaptor.capture(), contextCaptor.capture());
+            Mockito.doNothing().when(service).patch(appKeyCaptor.capture(), patcherCaptor.capture(), Mockito.isNull(), contextCaptor.capture());
         });
 
-        try (var response = controller.patchApplication(userId, key, patcher)) {
+        try (var response = controller.patchApplication(userId, key, null, patcher)) {
             Assertions.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
             appContext.verify(service -> {
-                Mockito.verify(service, Mockito.only()).patch(Mockito.anyString(), Mockito.any(Patcher.class), Mockito.any(Context.class));
+                Mockito.verify(service, Mockito.times(1)).patch(Mockito.anyString(), Mockito.any(Patcher.class), Mockito.isNull(), Mockito.any(Context.class));
                 Assertions.assertEquals(userId, contextCaptor.getValue().user().userId());
                 Assertions.assertSame(key, appKeyCaptor.getValue());
                 Assertions.assertSame(patcher, patcherCaptor.getValue());
@@ -254,19 +358,68 @@ class ApplicationControllerTest {
         var controller = appContext.toController();
 
         appContext.setup(service -> {
-            Mockito.doNothing().when(service).delete(appKeyCaptor.capture(), contextCaptor.capture());
+            Mockito.doNothing().when(service).delete(appKeyCaptor.capture(), Mockito.isNull(), contextCaptor.capture());
         });
 
-        try (var response = controller.deleteApplication(userId, app.applicationKey())) {
+        try (var response = controller.deleteApplication(userId, app.applicationKey(), null)) {
             Assertions.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
             appContext.verify(service -> {
-                Mockito.verify(service, Mockito.only()).delete(Mockito.anyString(), Mockito.any(Context.class));
+                Mockito.verify(service, Mockito.times(1)).delete(Mockito.anyString(), Mockito.isNull(), Mockito.any(Context.class));
                 Assertions.assertEquals(userId, contextCaptor.getValue().user().userId());
                 Assertions.assertSame(app.applicationKey(), appKeyCaptor.getValue());
             });
         }
     }
 
+    @Test
+    void patchApplication_withReplica_returnsConsistencyToken() {
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.consistencyToken()).thenReturn(Optional.of("0/16B3740"));
+        });
+
+        try (var response = controller.patchApplication(
+                UUID.randomUUID(), "key", null, Patcher.<ApplicationPatcher>builder().build())) {
+            Assertions.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+            Assertions.assertEquals("0/16B3740", response.getHeaderString(ConsistencyTokens.HEADER));
+            appContext.verify(service -> {
+                var order = Mockito.inOrder(service);
+                order.verify(service).patch(Mockito.eq("key"), Mockito.any(), Mockito.isNull(), Mockito.any(Context.class));
+                order.verify(service).consistencyToken();
+            });
+        }
+    }
+
+    @Test
+    void deleteApplication_withoutReplica_noConsistencyToken() {
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        try (var response = controller.deleteApplication(UUID.randomUUID(), "key", null)) {
+            Assertions.assertNull(response.getHeaderString(ConsistencyTokens.HEADER));
+        }
+    }
+
+    @Test
+    void getApplication_withConsistencyToken_passedInContext() {
+        var app = ApplicationCreator.createApplication();
+        var contextCaptor = ArgumentCaptor.forClass(Context.class);
+
+        var appContext = ApplicationControllerContext.builder().build();
+        var controller = appContext.toController();
+
+        appContext.setup(service -> {
+            Mockito.when(service.get(Mockito.anyString(), contextCaptor.capture())).thenReturn(app);
+        });
+
+        try (var response = controller.getApplication(UUID.randomUUID(), app.applicationKey(), null, "0/16B3740")) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+            Assertions.assertEquals("0/16B3740", contextCaptor.getValue().consistencyToken());
+        }
+    }
+
     @Builder(toBuilder = true)
     record ApplicationControllerContext(ApplicationService service) {
 
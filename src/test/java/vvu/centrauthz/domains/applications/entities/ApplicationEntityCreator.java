@@ -22,6 +22,7 @@ public class ApplicationEntityCreator {
         entity.setCreatedBy(UUID.randomUUID());
         entity.setUpdatedAt(Instant.ofEpochMilli(System.currentTimeMillis()));
         entity.setUpdatedBy(UUID.randomUUID());
+        entity.setVersion(1L);
 
         return entity;
     }
@@ -0,0 +1,171 @@
+package vvu.centrauthz.domains.applications.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import lombok.Builder;
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.applications.models.ApplicationNotification;
+import vvu.centrauthz.errors.ServiceUnavailableError;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationChangeBroadcasterTest {
+
+    @Test
+    void onChanged_deliveredToEverySubscriber() {
+        var context = ApplicationChangeBroadcasterContext.builder().build();
+        var broadcaster = context.toBroadcaster();
+        var first = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(10));
+        var second = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(10));
+
+        broadcaster.onChanged(ApplicationChangedEvent.builder()
+            .applicationKey("payroll")
+            .type(ApplicationChangeType.UPDATED)
+            .name("Payroll")
+            .version(3L)
+            .build());
+
+        var expected = ApplicationNotification.builder()
+            .applicationKey("payroll")
+            .type(ApplicationChangeType.UPDATED)
+            .version(3L)
+            .build();
+        for (var subscriber : List.of(first, second)) {
+            assertEquals(1, subscriber.getItems().size());
+            var message = subscriber.getItems().getFirst();
+            assertEquals(ApplicationChangeBroadcaster.CHANGE, message.name());
+            assertEquals(expected, message.data());
+        }
+        assertEquals(first.getItems().getFirst().id(), second.getItems().getFirst().id());
+        assertEquals(2, broadcaster.subscribers());
+        assertEquals(2.0, context.registry().get("centrauthz.applications.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_withLastEventId_replaysMissedEvents() {
+        var broadcaster = ApplicationChangeBroadcasterContext.builder().build().toBroadcaster();
+        var first = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(10));
+        publish(broadcaster, "a", "b", "c");
+        var lastEventId = first.getItems().getFirst().id();
+
+        var resumed = broadcaster.subscribe(lastEventId).subscribe().withSubscriber(AssertSubscriber.create(10));
+        publish(broadcaster, "d");
+
+        assertEquals(List.of("b", "c", "d"), keys(resumed));
+        assertEquals(first.getItems().subList(1, 4), resumed.getItems());
+    }
+
+    @Test
+    void subscribe_upToDate_nothingReplayed() {
+        var broadcaster = ApplicationChangeBroadcasterContext.builder().build().toBroadcaster();
+        var first = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(10));
+        publish(broadcaster, "a");
+
+        var resumed = broadcaster.subscribe(first.getItems().getLast().id())
+            .subscribe().withSubscriber(AssertSubscriber.create(10));
+
+        assertTrue(resumed.getItems().isEmpty());
+    }
+
+    @Test
+    void subscribe_missedMoreThanKept_reset() {
+        var broadcaster = ApplicationChangeBroadcasterContext.builder().bufferSize(2).build().toBroadcaster();
+        var first = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(10));
+        publish(broadcaster, "a", "b", "c", "d");
+
+        var resumed = broadcaster.subscribe(first.getItems().getFirst().id())
+            .subscribe().withSubscriber(AssertSubscriber.create(10));
+        publish(broadcaster, "e");
+
+        assertEquals(ApplicationChangeBroadcaster.RESET, resumed.getItems().getFirst().name());
+        assertNull(resumed.getItems().getFirst().data());
+        assertEquals(first.getItems().get(3).id(), resumed.getItems().getFirst().id());
+        assertEquals(ApplicationChangeBroadcaster.CHANGE, resumed.getItems().getLast().name());
+        assertEquals("e", resumed.getItems().getLast().data().applicationKey());
+    }
+
+    @Test
+    void subscribe_unknownLastEventId_reset() {
+        var broadcaster = ApplicationChangeBroadcasterContext.builder().build().toBroadcaster();
+
+        for (var id : List.of("0-1", "garbage", "-", "x-y")) {
+            var resumed = broadcaster.subscribe(id).subscribe().withSubscriber(AssertSubscriber.create(10));
+            assertEquals(ApplicationChangeBroadcaster.RESET, resumed.getItems().getFirst().name(), id);
+        }
+    }
+
+    @Test
+    void publish_slowSubscriberEvicted_othersUnaffected() {
+        var context = ApplicationChangeBroadcasterContext.builder().bufferSize(4).build();
+        var broadcaster = context.toBroadcaster();
+        var slow = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(0));
+        var fast = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        for (int i = 0; i < 1000; i++) {
+            publish(broadcaster, "key-" + i);
+        }
+
+        assertEquals(1, broadcaster.subscribers());
+        assertEquals(1000, fast.getItems().size());
+        assertEquals(1.0, context.registry().get("centrauthz.applications.stream.evictions").counter().count());
+        slow.request(Long.MAX_VALUE);
+        slow.assertCompleted();
+        assertTrue(slow.getItems().size() < 1000);
+    }
+
+    @Test
+    void subscribe_tooManySubscribers_serviceUnavailable() {
+        var broadcaster = ApplicationChangeBroadcasterContext.builder().maxSubscribers(1).build().toBroadcaster();
+        var first = broadcaster.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(10));
+
+        assertThrows(ServiceUnavailableError.class, () -> broadcaster.subscribe(null));
+
+        first.cancel();
+        assertEquals(0, broadcaster.subscribers());
+        assertNotNull(broadcaster.subscribe(null));
+    }
+
+    private static void publish(ApplicationChangeBroadcaster broadcaster, String... keys) {
+        for (var key : keys) {
+            broadcaster.publish(ApplicationNotification.builder()
+                .applicationKey(key)
+                .type(ApplicationChangeType.CREATED)
+                .version(0L)
+                .build());
+        }
+    }
+
+    private static List<String> keys(AssertSubscriber<ApplicationChangeBroadcaster.Message> subscriber) {
+        return subscriber.getItems().stream().map(m -> m.data().applicationKey()).toList();
+    }
+
+    @Builder
+    record ApplicationChangeBroadcasterContext(
+        Integer maxSubscribers,
+        Integer bufferSize,
+        SimpleMeterRegistry registry
+    ) {
+
+        public ApplicationChangeBroadcasterContext {
+            if (Objects.isNull(maxSubscribers)) {
+                maxSubscribers = 10;
+            }
+
+            if (Objects.isNull(bufferSize)) {
+                bufferSize = 16;
+            }
+
+            if (Objects.isNull(registry)) {
+                registry = new SimpleMeterRegistry();
+            }
+        }
+
+        ApplicationChangeBroadcaster toBroadcaster() {
+            // Delivers on the publishing thread, so that the tests need not wait
+            return new ApplicationChangeBroadcaster(maxSubscribers, bufferSize, Runnable::run, registry);
+        }
+    }
+}
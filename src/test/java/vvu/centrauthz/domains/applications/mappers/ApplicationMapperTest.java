@@ -7,6 +7,7 @@ import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
 import vvu.centrauthz.domains.applications.entities.ApplicationEntityCreator;
 import vvu.centrauthz.domains.applications.models.Application;
 import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRowCreator;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -53,6 +54,33 @@ class ApplicationMapperTest {
         }
     }
 
+    @Test
+    void toDto_fromRow() {
+        var row = ApplicationRowCreator.create().toBuilder().description(null).build();
+        var application = mapper.toDto(row);
+
+        Assertions.assertEquals(row.applicationKey(), application.applicationKey());
+        Assertions.assertEquals(row.name(), application.name());
+        Assertions.assertNull(application.description());
+        Assertions.assertEquals(row.ownerId(), application.ownerId());
+        Assertions.assertEquals(row.managementGroupId(), application.managementGroupId());
+        Assertions.assertEquals(row.createdAt().toEpochMilli(), application.createdAt());
+        Assertions.assertEquals(row.createdBy(), application.createdBy());
+        Assertions.assertEquals(row.updatedAt().toEpochMilli(), application.updatedAt());
+        Assertions.assertEquals(row.updatedBy(), application.updatedBy());
+        Assertions.assertEquals(row.version(), application.version());
+    }
+
+    @Test
+    void rowsToDtoList() {
+        var rows = List.of(ApplicationRowCreator.create(), ApplicationRowCreator.create());
+        var dtos = mapper.rowsToDtoList(rows);
+
+        assertEquals(rows.stream().map(r -> r.applicationKey()).toList(),
+            dtos.stream().map(Application::applicationKey).toList());
+        assertTrue(mapper.rowsToDtoList(null).isEmpty());
+    }
+
     @Test
     void toEntity() {
         var application = ApplicationCreator.createApplication();
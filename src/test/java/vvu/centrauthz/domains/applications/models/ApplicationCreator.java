@@ -20,6 +20,7 @@ public class ApplicationCreator {
             .createdBy(UUID.randomUUID())
             .updatedAt(System.currentTimeMillis())
             .updatedBy(UUID.randomUUID())
+            .version(1L)
             .build();
     }
 
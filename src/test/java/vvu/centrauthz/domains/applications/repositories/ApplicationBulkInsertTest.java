@@ -0,0 +1,129 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the multi-row insert against the Flyway schema on an embedded
+ * PostgreSQL server.
+ */
+class ApplicationBulkInsertTest {
+
+    private static final Path MIGRATIONS = Path.of("flyway/db/migration");
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void start() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        try (var connection = connect();
+             var statement = connection.createStatement();
+             var files = Files.list(MIGRATIONS)) {
+            for (var script : files
+                    .filter(f -> f.getFileName().toString().matches("V\\d+__.*\\.sql"))
+                    .sorted(Comparator.comparingInt(ApplicationBulkInsertTest::version))
+                    .toList()) {
+                statement.execute(Files.readString(script));
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void execute_skipsTakenKeys() throws SQLException {
+        var taken = ApplicationCreator.createApplication();
+        var created = ApplicationCreator.createApplication();
+        var userId = UUID.randomUUID();
+
+        try (var connection = connect()) {
+            ApplicationBulkInsert.of(List.of(taken), UUID.randomUUID(), NOW, false)
+                .execute(connection);
+            var renamed = taken.toBuilder().name("renamed").build();
+            var written = ApplicationBulkInsert.of(List.of(renamed, created), userId, NOW, false)
+                .execute(connection);
+
+            assertEquals(Map.of(created.applicationKey(), true), outcomes(written));
+            assertEquals(taken.name(), column(connection, taken, "name"));
+            assertEquals(userId, column(connection, created, "created_by"));
+            assertNull(column(connection, created, "updated_by"));
+        }
+    }
+
+    @Test
+    void execute_withUpsert_reportsInsertedAndUpdated() throws SQLException {
+        var existing = ApplicationCreator.createApplication();
+        var created = ApplicationCreator.createApplication();
+        var creator = UUID.randomUUID();
+        var userId = UUID.randomUUID();
+
+        try (var connection = connect()) {
+            ApplicationBulkInsert.of(List.of(existing), creator, NOW, true).execute(connection);
+            var replacement = existing.toBuilder().name("renamed").description(null).build();
+            var written = ApplicationBulkInsert.of(List.of(replacement, created), userId, NOW, true)
+                .execute(connection);
+
+            assertEquals(Map.of(existing.applicationKey(), false, created.applicationKey(), true),
+                outcomes(written));
+            assertEquals(Map.of(existing.applicationKey(), 1L, created.applicationKey(), 0L),
+                written.stream().collect(Collectors.toMap(ApplicationWrite::applicationKey,
+                    ApplicationWrite::version)));
+            assertEquals("renamed", column(connection, existing, "name"));
+            assertEquals(existing.description(), column(connection, existing, "description"));
+            assertEquals(creator, column(connection, existing, "created_by"));
+            assertEquals(userId, column(connection, existing, "updated_by"));
+            assertEquals(1L, column(connection, existing, "version"));
+            assertEquals(userId, column(connection, created, "created_by"));
+            assertNull(column(connection, created, "updated_by"));
+            assertEquals(0L, column(connection, created, "version"));
+        }
+    }
+
+    private static Map<String, Boolean> outcomes(List<ApplicationWrite> written) {
+        return written.stream()
+            .collect(Collectors.toMap(ApplicationWrite::applicationKey, ApplicationWrite::inserted));
+    }
+
+    private static Object column(Connection connection, Application application,
+                                 String column) throws SQLException {
+        try (var statement = connection.prepareStatement(
+                "SELECT " + column + " FROM application WHERE application_key = ?")) {
+            statement.setString(1, application.applicationKey());
+            try (var result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getObject(1);
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return postgres.getPostgresDatabase().getConnection();
+    }
+
+    private static int version(Path script) {
+        var name = script.getFileName().toString();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
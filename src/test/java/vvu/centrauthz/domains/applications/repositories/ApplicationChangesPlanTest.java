@@ -0,0 +1,236 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.models.Page;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the change feed against the Flyway schema on an embedded PostgreSQL
+ * server, checking its plan with EXPLAIN and the order of its changes.
+ */
+class ApplicationChangesPlanTest {
+
+    private static final Path MIGRATIONS = Path.of("flyway/db/migration");
+    private static final Instant RETAINED = Instant.EPOCH;
+
+    private static EmbeddedPostgres postgres;
+    private static Instant horizon;
+
+    @BeforeAll
+    static void start() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        try (var connection = connect();
+             var statement = connection.createStatement();
+             var files = Files.list(MIGRATIONS)) {
+            for (var script : files
+                    .filter(f -> f.getFileName().toString().matches("V\\d+__.*\\.sql"))
+                    .sorted(Comparator.comparingInt(ApplicationChangesPlanTest::version))
+                    .toList()) {
+                statement.execute(Files.readString(script));
+            }
+        }
+
+        // Rows are stamped by the database as they are written
+        try (var connection = connect()) {
+            insert(connection, "billing", 0);
+            insert(connection, "payroll", 3);
+            tombstone(connection, "ledger");
+            // Deleted, then created again: only the application is in the feed
+            tombstone(connection, "orders");
+            insert(connection, "orders", 0);
+            insert(connection, "pay", 1);
+            horizon = horizon(connection);
+            // Beyond the horizon
+            insert(connection, "recent", 0);
+            tombstone(connection, "gone");
+            try (var statement = connection.createStatement()) {
+                statement.execute("ANALYZE application");
+                statement.execute("ANALYZE application_tombstone");
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void changes_useKeysetIndexes() throws SQLException {
+        var changes = ApplicationChanges.of(null, RETAINED, horizon, 10);
+
+        try (var connection = connect();
+             var statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + changes.sql())) {
+            try (var disable = connection.createStatement()) {
+                disable.execute("SET enable_seqscan = off");
+            }
+            changes.bind(statement);
+            try (var result = statement.executeQuery()) {
+                result.next();
+                var plan = result.getString(1);
+                assertTrue(plan.contains("\"Index Name\": \"idx_application_changed_at_key\""));
+                assertTrue(plan.contains("\"Index Name\": \"idx_application_tombstone_deleted_at_key\""));
+            }
+        }
+    }
+
+    @Test
+    void changes_inStampOrder_untilHorizon() throws SQLException {
+        var page = read(null, 10);
+
+        assertEquals(List.of("billing", "payroll", "ledger", "orders", "pay"), keys(page.data()));
+        assertEquals(3L, page.data().get(1).row().version());
+        assertNull(page.data().get(2).row());
+    }
+
+    @Test
+    void changes_resumeFromCursor() throws SQLException {
+        var first = read(null, 2);
+        var second = read(first.next(), 2);
+        var third = read(second.next(), 2);
+        var last = read(third.next(), 2);
+
+        assertEquals(List.of("billing", "payroll"), keys(first.data()));
+        assertEquals(List.of("ledger", "orders"), keys(second.data()));
+        assertEquals(List.of("pay"), keys(third.data()));
+        assertTrue(last.data().isEmpty());
+        assertEquals(third.next(), last.next());
+    }
+
+    @Test
+    void horizon_holdsBackChangesOfTransactionsInProgress() throws SQLException {
+        try (var writer = connect(); var reader = connect()) {
+            writer.setAutoCommit(false);
+            insert(writer, "late", 0);
+            insert(reader, "quick", 0);
+
+            var pending = ApplicationChanges.of(null, RETAINED, horizon(reader), 100).execute(reader);
+            var heldBack = ApplicationChanges.horizon(reader).lag();
+            writer.commit();
+            var committed = ApplicationChanges.of(null, RETAINED, horizon(reader), 100).execute(reader);
+
+            assertTrue(keys(pending.data()).contains("pay"));
+            assertFalse(keys(pending.data()).contains("quick"));
+            assertTrue(heldBack.isPositive());
+            var keys = keys(committed.data());
+            assertTrue(keys.indexOf("late") >= 0);
+            assertTrue(keys.indexOf("late") < keys.indexOf("quick"));
+        }
+    }
+
+    @Test
+    void horizon_ignoresReadOnlyTransactions() throws Exception {
+        try (var exporter = connect(); var writer = connect()) {
+            exporter.setAutoCommit(false);
+            exporter.setReadOnly(true);
+            var export = CompletableFuture.runAsync(() -> {
+                try (var statement = exporter.createStatement()) {
+                    statement.execute("SELECT pg_sleep(2)");
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            awaitActive(writer, "SELECT pg_sleep(2)");
+
+            insert(writer, "exported-meanwhile", 0);
+            var horizon = ApplicationChanges.horizon(writer);
+            var page = ApplicationChanges.of(null, RETAINED, horizon.at(), 100).execute(writer);
+            export.get();
+
+            assertTrue(keys(page.data()).contains("exported-meanwhile"));
+        }
+    }
+
+    @Test
+    void seesAllTransactions_superuser() throws SQLException {
+        try (var connection = connect();
+             var statement = connection.createStatement();
+             var result = statement.executeQuery(ApplicationChanges.SEES_ALL_TRANSACTIONS)) {
+            assertTrue(result.next());
+            assertTrue(result.getBoolean(1));
+        }
+    }
+
+    private static void awaitActive(Connection connection, String query) throws Exception {
+        try (var statement = connection.prepareStatement(
+                "SELECT count(*) FROM pg_stat_activity WHERE state = 'active' AND query = ?")) {
+            statement.setString(1, query);
+            for (int i = 0; i < 100; i++) {
+                try (var result = statement.executeQuery()) {
+                    result.next();
+                    if (result.getInt(1) > 0) {
+                        return;
+                    }
+                }
+                Thread.sleep(10);
+            }
+        }
+        fail("The statement never became active: " + query);
+    }
+
+    private static Page<ApplicationChangeRow, String> read(String cursor, int limit)
+            throws SQLException {
+        try (var connection = connect()) {
+            return ApplicationChanges.of(cursor, RETAINED, horizon, limit).execute(connection);
+        }
+    }
+
+    private static Instant horizon(Connection connection) throws SQLException {
+        return ApplicationChanges.horizon(connection).at();
+    }
+
+    private static List<String> keys(List<ApplicationChangeRow> changes) {
+        var keys = new ArrayList<String>();
+        changes.forEach(change -> keys.add(change.applicationKey()));
+        return keys;
+    }
+
+    private static void insert(Connection connection, String key, long version)
+            throws SQLException {
+        var now = Timestamp.from(Instant.now());
+        try (var statement = connection.prepareStatement("INSERT INTO application (application_key,"
+                + " name, owner_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?)")) {
+            statement.setString(1, key);
+            statement.setString(2, key);
+            statement.setObject(3, UUID.randomUUID());
+            statement.setTimestamp(4, now);
+            statement.setTimestamp(5, now);
+            statement.setLong(6, version);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void tombstone(Connection connection, String key) throws SQLException {
+        try (var statement = connection.prepareStatement(
+                "INSERT INTO application_tombstone (application_key) VALUES (?)")) {
+            statement.setString(1, key);
+            statement.executeUpdate();
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return postgres.getPostgresDatabase().getConnection();
+    }
+
+    private static int version(Path script) {
+        var name = script.getFileName().toString();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
@@ -0,0 +1,80 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.errors.BadRequestError;
+import vvu.centrauthz.models.PageToken;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationChangesTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+    private static final Instant RETAINED = NOW.minus(Duration.ofDays(7));
+    private static final Instant HORIZON = NOW.minusSeconds(5);
+
+    @Test
+    void of_withoutCursor_fromTheBeginning() {
+        var changes = ApplicationChanges.of(null, RETAINED, HORIZON, 50);
+
+        var epoch = Timestamp.from(Instant.EPOCH);
+        var horizon = Timestamp.from(HORIZON);
+        assertEquals(List.of(epoch, "", horizon, 50, epoch, "", horizon, 50, 50), changes.params());
+    }
+
+    @Test
+    void of_cursor_resumesAfterIt() {
+        var changedAt = NOW.minusSeconds(60);
+        var cursor = ApplicationChanges.cursor(changedAt, "payroll");
+
+        var changes = ApplicationChanges.of(cursor, RETAINED, HORIZON, 10);
+
+        var after = Timestamp.from(changedAt);
+        var horizon = Timestamp.from(HORIZON);
+        assertEquals(List.of(after, "payroll", horizon, 10, after, "payroll", horizon, 10, 10),
+            changes.params());
+    }
+
+    @Test
+    void sql_keysetScansMergedInFeedOrder() {
+        var sql = ApplicationChanges.of(null, RETAINED, HORIZON, 10).sql();
+
+        assertTrue(sql.contains(" WHERE (changed_at, application_key) > (?, ?) AND changed_at < ?"
+            + " ORDER BY changed_at, application_key LIMIT ?"));
+        assertTrue(sql.contains(" WHERE (t.deleted_at, t.application_key) > (?, ?) AND t.deleted_at < ?"));
+        assertTrue(sql.endsWith(" ORDER BY changed_at, application_key LIMIT ?"));
+    }
+
+    @Test
+    void of_expiredCursor_badRequest() {
+        var cursor = ApplicationChanges.cursor(RETAINED.minusMillis(1), "payroll");
+
+        var error = assertThrows(BadRequestError.class,
+            () -> ApplicationChanges.of(cursor, RETAINED, HORIZON, 10));
+        assertTrue(error.getMessage().contains("expired"));
+    }
+
+    @Test
+    void of_invalidCursor_badRequest() {
+        var pageToken = PageToken.builder().sort("name").values(List.of("a", "b")).build().encode();
+        var badTime = PageToken.builder()
+            .sort(ApplicationChanges.SIGNATURE)
+            .values(List.of("yesterday", "payroll"))
+            .build()
+            .encode();
+        var missingKey = PageToken.builder()
+            .sort(ApplicationChanges.SIGNATURE)
+            .values(List.of(NOW.toString()))
+            .build()
+            .encode();
+
+        assertThrows(BadRequestError.class, () -> ApplicationChanges.of(pageToken, RETAINED, HORIZON, 10));
+        assertThrows(BadRequestError.class, () -> ApplicationChanges.of(badTime, RETAINED, HORIZON, 10));
+        assertThrows(BadRequestError.class, () -> ApplicationChanges.of(missingKey, RETAINED, HORIZON, 10));
+        assertThrows(BadRequestError.class, () -> ApplicationChanges.of("not a cursor", RETAINED, HORIZON, 10));
+    }
+}
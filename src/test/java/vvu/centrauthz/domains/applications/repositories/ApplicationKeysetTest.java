@@ -0,0 +1,96 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.common.models.Sort;
+import vvu.centrauthz.errors.BadRequestError;
+import vvu.centrauthz.models.PageToken;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationKeysetTest {
+
+    @Test
+    void of_whenNoSort_orderByApplicationKey() {
+        var keyset = ApplicationKeyset.of(List.of());
+        assertEquals("applicationKey ASC", keyset.orderBy());
+        assertEquals("applicationKey:ASC", keyset.signature());
+    }
+
+    @Test
+    void of_whenSortWithoutKey_appendTiebreaker() {
+        var keyset = ApplicationKeyset.of(Sort.list("name:desc"));
+        assertEquals("name DESC, applicationKey ASC", keyset.orderBy());
+    }
+
+    @Test
+    void of_whenSortContainsKey_noTiebreakerAppended() {
+        var keyset = ApplicationKeyset.of(Sort.list("applicationKey:desc"));
+        assertEquals("applicationKey DESC", keyset.orderBy());
+    }
+
+    @Test
+    void of_whenFieldUnsupported_BadRequest() {
+        assertThrowsExactly(BadRequestError.class, () -> ApplicationKeyset.of(Sort.list("description")));
+        assertThrowsExactly(BadRequestError.class, () -> ApplicationKeyset.of(Sort.list("name,name:desc")));
+    }
+
+    @Test
+    void after_whenSameDirection_rowValueComparison() {
+        var keyset = ApplicationKeyset.of(Sort.list("name"));
+        var params = new HashMap<String, Object>();
+        var token = PageToken.builder().sort(keyset.signature()).values(List.of("foo", "bar")).build();
+
+        var predicate = keyset.after(token, params);
+
+        assertEquals("(name, applicationKey) > (:k0, :k1)", predicate);
+        assertEquals("foo", params.get("k0"));
+        assertEquals("bar", params.get("k1"));
+    }
+
+    @Test
+    void after_whenMixedDirections_expandedForm() {
+        var keyset = ApplicationKeyset.of(Sort.list("ownerId:desc"));
+        var params = new HashMap<String, Object>();
+        var ownerId = UUID.randomUUID();
+        var token = PageToken.builder()
+                .sort(keyset.signature())
+                .values(List.of(ownerId.toString(), "bar"))
+                .build();
+
+        var predicate = keyset.after(token, params);
+
+        assertEquals("((ownerId < :k0) or (ownerId = :k0 and applicationKey > :k1))", predicate);
+        assertEquals(ownerId, params.get("k0"));
+    }
+
+    @Test
+    void after_whenTokenFromOtherSort_BadRequest() {
+        var token = PageToken.builder().sort("name:ASC,applicationKey:ASC").values(List.of("a", "b")).build();
+        var keyset = ApplicationKeyset.of(Sort.list("name:desc"));
+        assertThrowsExactly(BadRequestError.class, () -> keyset.after(token, new HashMap<>()));
+    }
+
+    @Test
+    void after_whenTokenValueMalformed_BadRequest() {
+        var keyset = ApplicationKeyset.of(Sort.list("createdAt"));
+        var token = PageToken.builder().sort(keyset.signature()).values(List.of("yesterday", "b")).build();
+        assertThrowsExactly(BadRequestError.class, () -> keyset.after(token, new HashMap<>()));
+    }
+
+    @Test
+    void next_roundTripsThroughAfter() {
+        var row = ApplicationRowCreator.create();
+        var keyset = ApplicationKeyset.of(Sort.list("createdAt:desc,name"));
+        var params = new HashMap<String, Object>();
+
+        keyset.after(PageToken.decode(keyset.next(row)), params);
+
+        assertEquals(row.createdAt(), params.get("k0"));
+        assertEquals(row.name(), params.get("k1"));
+        assertEquals(row.applicationKey(), params.get("k2"));
+    }
+}
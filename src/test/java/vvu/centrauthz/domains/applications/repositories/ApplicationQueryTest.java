@@ -0,0 +1,60 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.models.PageToken;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationQueryTest {
+
+    @Test
+    void of_projectsRowsWithDescriptionByDefault() {
+        var query = ApplicationQuery.of(ApplicationFilter.builder().build());
+
+        assertTrue(query.hql().startsWith("SELECT new " + ApplicationRow.class.getName()
+            + "(applicationKey, name, description, "));
+        assertTrue(query.hql().endsWith(" FROM ApplicationEntity ORDER BY applicationKey ASC"));
+    }
+
+    @Test
+    void of_withoutDescription_doesNotSelectIt() {
+        var ownerId = UUID.randomUUID();
+        var query = ApplicationQuery.of(ApplicationFilter.builder()
+            .ownerId(ownerId)
+            .includeDescription(false)
+            .build());
+
+        assertFalse(query.hql().contains(", description,"));
+        assertTrue(query.hql().contains("CAST(NULL AS String)"));
+        assertTrue(query.hql().contains(" FROM ApplicationEntity WHERE ownerId = :ownerId"));
+        assertEquals(ownerId, query.params().get("ownerId"));
+    }
+
+    @Test
+    void page_whenMoreRowsThanPageSize_tokenAfterLastKept() {
+        var query = ApplicationQuery.of(ApplicationFilter.builder().pageSize(2).build());
+        var rows = List.of(ApplicationRowCreator.create(), ApplicationRowCreator.create(),
+            ApplicationRowCreator.create());
+
+        assertEquals(3, query.limit());
+        var page = query.page(rows);
+
+        assertEquals(rows.subList(0, 2), page.data());
+        assertEquals(List.of(rows.get(1).applicationKey()), PageToken.decode(page.next()).values());
+    }
+
+    @Test
+    void page_whenLastPage_noToken() {
+        var query = ApplicationQuery.of(ApplicationFilter.builder().pageSize(2).build());
+        var rows = List.of(ApplicationRowCreator.create());
+
+        var page = query.page(rows);
+
+        assertEquals(rows, page.data());
+        assertNull(page.next());
+    }
+}
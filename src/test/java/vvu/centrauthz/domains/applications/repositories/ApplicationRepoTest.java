@@ -0,0 +1,32 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationRepoTest {
+
+    @Test
+    void chunks_whenEmpty_noChunk() {
+        assertTrue(ApplicationRepo.chunks(List.of()).isEmpty());
+    }
+
+    @Test
+    void chunks_splitDistinctKeysInOrder() {
+        var keys = IntStream.range(0, ApplicationRepo.IN_CHUNK_SIZE + 1)
+            .mapToObj(i -> "k" + i)
+            .toList();
+        var withDuplicates = new java.util.ArrayList<>(keys);
+        withDuplicates.addAll(keys.subList(0, 10));
+
+        var chunks = ApplicationRepo.chunks(withDuplicates);
+
+        assertEquals(2, chunks.size());
+        assertEquals(ApplicationRepo.IN_CHUNK_SIZE, chunks.get(0).size());
+        assertEquals(List.of(keys.getLast()), chunks.get(1));
+        assertEquals("k0", chunks.get(0).getFirst());
+    }
+}
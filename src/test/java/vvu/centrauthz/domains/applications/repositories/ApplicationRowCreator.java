@@ -0,0 +1,27 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+public class ApplicationRowCreator {
+
+    ApplicationRowCreator() {
+        throw new IllegalStateException();
+    }
+
+    public static ApplicationRow create() {
+        return ApplicationRow.builder()
+            .applicationKey(UUID.randomUUID().toString().split("-")[0])
+            .name(UUID.randomUUID().toString().split("-")[0])
+            .description(UUID.randomUUID().toString())
+            .ownerId(UUID.randomUUID())
+            .managementGroupId(UUID.randomUUID())
+            .createdAt(Instant.now().minus(1, ChronoUnit.DAYS))
+            .createdBy(UUID.randomUUID())
+            .updatedAt(Instant.now())
+            .updatedBy(UUID.randomUUID())
+            .version(1L)
+            .build();
+    }
+}
@@ -0,0 +1,172 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.domains.applications.models.SearchMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the search statements against the Flyway schema on an embedded
+ * PostgreSQL server, checking their plans with EXPLAIN and their ranking.
+ *
+ * <p>Sequential scans are disabled while explaining: the tests check that
+ * each index can serve its search, which only depends on the statement and
+ * the index definition, not on table statistics.</p>
+ */
+class ApplicationSearchPlanTest {
+
+    private static final Path MIGRATIONS = Path.of("flyway/db/migration");
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void start() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        try (var connection = connect();
+             var statement = connection.createStatement();
+             var files = Files.list(MIGRATIONS)) {
+            for (var script : files
+                    .filter(f -> f.getFileName().toString().matches("V\\d+__.*\\.sql"))
+                    .sorted(Comparator.comparingInt(ApplicationSearchPlanTest::version))
+                    .toList()) {
+                statement.execute(Files.readString(script));
+            }
+        }
+
+        try (var connection = connect()) {
+            for (int i = 0; i < 2000; i++) {
+                insert(connection, "seeded-" + i, "Seeded application " + i, "Generated row " + i);
+            }
+            insert(connection, "pay", "Pay", null);
+            insert(connection, "payroll", "Payroll", "Runs the monthly payroll");
+            insert(connection, "payments", "Payments portal", "Card payments");
+            insert(connection, "enrollment", "Enrollment service", null);
+            insert(connection, "billing", "Billing gateway", "Charges customers");
+            insert(connection, "ledger", "Ledger", "Handles billing exports");
+            insert(connection, "discount", "Discount 50% off", null);
+            try (var statement = connection.createStatement()) {
+                statement.execute("ANALYZE application");
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void prefix_usesLowerNameIndex_shortestFirst() throws SQLException {
+        var search = search("PAY", SearchMode.PREFIX);
+
+        assertTrue(explain(search).contains("\"Index Name\": \"idx_application_lower_name\""));
+        assertEquals(List.of("pay", "payroll", "payments"), keys(search));
+    }
+
+    @Test
+    void substring_usesTrigramIndexes_mostSimilarFirst() throws SQLException {
+        var search = search("roll", SearchMode.SUBSTRING);
+
+        var plan = explain(search);
+        assertTrue(plan.contains("\"Index Name\": \"idx_application_name_trgm\""));
+        assertTrue(plan.contains("\"Index Name\": \"idx_application_description_trgm\""));
+        assertEquals(List.of("payroll", "enrollment"), keys(search));
+    }
+
+    @Test
+    void substring_wildcardsAreLiteral() throws SQLException {
+        assertEquals(List.of("discount"), keys(search("50%", SearchMode.SUBSTRING)));
+    }
+
+    @Test
+    void fullText_usesDocumentIndex_nameMatchesFirst() throws SQLException {
+        var search = search("billing", SearchMode.FULL_TEXT);
+
+        assertTrue(explain(search).contains("\"Index Name\": \"idx_application_search\""));
+        assertEquals(List.of("billing", "ledger"), keys(search));
+    }
+
+    @Test
+    void nameFilter_usesLowerNameIndex() throws SQLException {
+        // The statement Hibernate renders for the name filter and existsByNameIgnoreCase
+        try (var connection = connect(); var statement = connection.prepareStatement(
+                "EXPLAIN (FORMAT JSON) SELECT count(*) FROM application a1_0"
+                + " WHERE lower(a1_0.name) = lower(?)")) {
+            disableSeqScan(connection);
+            statement.setString(1, "Payroll");
+            try (var result = statement.executeQuery()) {
+                result.next();
+                assertTrue(result.getString(1).contains("\"Index Name\": \"idx_application_lower_name\""));
+            }
+        }
+    }
+
+    private static ApplicationSearch search(String text, SearchMode mode) {
+        return ApplicationSearch.of(ApplicationFilter.builder().search(text).searchMode(mode).build());
+    }
+
+    private static String explain(ApplicationSearch search) throws SQLException {
+        try (var connection = connect();
+             var statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + search.sql())) {
+            disableSeqScan(connection);
+            search.bind(statement);
+            try (var result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static List<String> keys(ApplicationSearch search) throws SQLException {
+        try (var connection = connect()) {
+            return search.execute(connection).data().stream()
+                .map(ApplicationRow::applicationKey)
+                .toList();
+        }
+    }
+
+    private static void disableSeqScan(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    private static void insert(Connection connection, String key, String name, String description)
+            throws SQLException {
+        var now = Timestamp.from(Instant.now());
+        try (var statement = connection.prepareStatement("INSERT INTO application (application_key,"
+                + " name, description, owner_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            statement.setString(1, key);
+            statement.setString(2, name);
+            statement.setString(3, description);
+            statement.setObject(4, UUID.randomUUID());
+            statement.setTimestamp(5, now);
+            statement.setTimestamp(6, now);
+            statement.executeUpdate();
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return postgres.getPostgresDatabase().getConnection();
+    }
+
+    private static int version(Path script) {
+        var name = script.getFileName().toString();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
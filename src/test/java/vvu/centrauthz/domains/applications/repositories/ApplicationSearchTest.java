@@ -0,0 +1,101 @@
+package vvu.centrauthz.domains.applications.repositories;
+
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
+import vvu.centrauthz.domains.applications.models.SearchMode;
+import vvu.centrauthz.domains.common.models.Sort;
+import vvu.centrauthz.errors.BadRequestError;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationSearchTest {
+
+    @Test
+    void filter_searchDefaultsToFullTextAndBlankIsDropped() {
+        assertEquals(SearchMode.FULL_TEXT, ApplicationFilter.builder().search("pay").build().searchMode());
+        assertNull(ApplicationFilter.builder().search(" ").build().search());
+        assertNull(ApplicationFilter.builder().build().searchMode());
+    }
+
+    @Test
+    void searchMode_of() {
+        assertNull(SearchMode.of(null));
+        assertEquals(SearchMode.PREFIX, SearchMode.of("prefix"));
+        assertEquals(SearchMode.FULL_TEXT, SearchMode.of(" Full_Text "));
+        assertThrows(BadRequestError.class, () -> SearchMode.of("fuzzy"));
+    }
+
+    @Test
+    void of_prefix_likeOnLowerNameShortestFirst() {
+        var search = ApplicationSearch.of(ApplicationFilter.builder()
+            .search("Pay_50%")
+            .searchMode(SearchMode.PREFIX)
+            .pageSize(5)
+            .build());
+
+        assertTrue(search.sql().contains(" WHERE lower(name) LIKE lower(?)"));
+        assertTrue(search.sql().endsWith(" ORDER BY length(name), lower(name), application_key LIMIT ?"));
+        assertEquals(List.of("Pay\\_50\\%%", 5), search.params());
+    }
+
+    @Test
+    void of_substring_ilikeOnNameAndDescriptionBySimilarity() {
+        var search = ApplicationSearch.of(ApplicationFilter.builder()
+            .search("roll")
+            .searchMode(SearchMode.SUBSTRING)
+            .build());
+
+        assertTrue(search.sql().contains(" WHERE (name ILIKE ? OR description ILIKE ?)"));
+        assertTrue(search.sql().endsWith(" ORDER BY similarity(name, ?) DESC, application_key LIMIT ?"));
+        assertEquals(List.of("%roll%", "%roll%", "roll", ApplicationFilter.DEFAULT_PAGE_SIZE),
+            search.params());
+    }
+
+    @Test
+    void of_fullText_matchesIndexedDocumentByRank() {
+        var ownerId = UUID.randomUUID();
+        var search = ApplicationSearch.of(ApplicationFilter.builder()
+            .search("billing -legacy")
+            .ownerId(ownerId)
+            .name("Billing")
+            .build());
+
+        assertTrue(search.sql().contains(" WHERE " + ApplicationSearch.DOCUMENT
+            + " @@ websearch_to_tsquery('simple', ?) AND owner_id = ? AND lower(name) = lower(?)"));
+        assertTrue(search.sql().contains(" ORDER BY ts_rank(" + ApplicationSearch.DOCUMENT
+            + ", websearch_to_tsquery('simple', ?)) DESC, application_key LIMIT ?"));
+        assertEquals(List.of("billing -legacy", ownerId, "Billing", "billing -legacy",
+            ApplicationFilter.DEFAULT_PAGE_SIZE), search.params());
+    }
+
+    @Test
+    void of_withoutDescription_doesNotSelectIt() {
+        var search = ApplicationSearch.of(ApplicationFilter.builder()
+            .search("pay")
+            .includeDescription(false)
+            .build());
+
+        assertTrue(search.sql().startsWith("SELECT application_key, name, CAST(NULL AS TEXT), owner_id,"));
+    }
+
+    @Test
+    void of_withSortOrPageToken_badRequest() {
+        var sorted = ApplicationFilter.builder()
+            .search("pay")
+            .sortOrder(List.of(Sort.from("name")))
+            .build();
+        var paged = ApplicationFilter.builder().search("pay").pageToken("token").build();
+
+        assertThrows(BadRequestError.class, () -> ApplicationSearch.of(sorted));
+        assertThrows(BadRequestError.class, () -> ApplicationSearch.of(paged));
+    }
+
+    @Test
+    void escape() {
+        assertEquals("plain", ApplicationSearch.escape("plain"));
+        assertEquals("a\\%b\\_c\\\\d", ApplicationSearch.escape("a%b_c\\d"));
+    }
+}
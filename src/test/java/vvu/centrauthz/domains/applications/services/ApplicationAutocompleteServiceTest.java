@@ -0,0 +1,62 @@
+package vvu.centrauthz.domains.applications.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.caches.ApplicationNameIndex;
+import vvu.centrauthz.domains.applications.models.ApplicationSuggestion;
+import vvu.centrauthz.errors.BadRequestError;
+import vvu.centrauthz.errors.ServiceUnavailableError;
+import vvu.centrauthz.utilities.PrefixIndex;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationAutocompleteServiceTest {
+
+    @Test
+    void suggest_fromIndex() {
+        var names = Mockito.mock(ApplicationNameIndex.class);
+        Mockito.when(names.find("pay", ApplicationAutocompleteService.DEFAULT_PAGE_SIZE))
+            .thenReturn(Optional.of(List.of(new PrefixIndex.Match("payroll", "Payroll"))));
+
+        var page = new ApplicationAutocompleteService(names).suggest(" pay ", null);
+
+        assertEquals(List.of(ApplicationSuggestion.builder().applicationKey("payroll").name("Payroll").build()),
+            page.data());
+        assertNull(page.next());
+    }
+
+    @Test
+    void suggest_pageSizeCapped() {
+        var names = Mockito.mock(ApplicationNameIndex.class);
+        Mockito.when(names.find(Mockito.anyString(), Mockito.anyInt())).thenReturn(Optional.of(List.of()));
+        var service = new ApplicationAutocompleteService(names);
+
+        service.suggest("a", 5000);
+        service.suggest("b", 0);
+
+        Mockito.verify(names).find("a", ApplicationAutocompleteService.MAX_PAGE_SIZE);
+        Mockito.verify(names).find("b", ApplicationAutocompleteService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void suggest_blankPrefix_badRequest() {
+        var names = Mockito.mock(ApplicationNameIndex.class);
+        var service = new ApplicationAutocompleteService(names);
+
+        assertThrows(BadRequestError.class, () -> service.suggest(null, null));
+        assertThrows(BadRequestError.class, () -> service.suggest("  ", null));
+        Mockito.verifyNoInteractions(names);
+    }
+
+    @Test
+    void suggest_indexNotBuilt_serviceUnavailable() {
+        var names = Mockito.mock(ApplicationNameIndex.class);
+        Mockito.when(names.find(Mockito.anyString(), Mockito.anyInt())).thenReturn(Optional.empty());
+
+        assertThrows(ServiceUnavailableError.class,
+            () -> new ApplicationAutocompleteService(names).suggest("pay", null));
+    }
+}
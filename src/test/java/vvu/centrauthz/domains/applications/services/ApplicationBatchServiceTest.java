@@ -0,0 +1,284 @@
+package vvu.centrauthz.domains.applications.services;
+
+import jakarta.enterprise.event.Event;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+import lombok.Builder;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.caches.ApplicationCache;
+import vvu.centrauthz.domains.applications.caches.ApplicationKeyFilter;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationBatchStatus;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRowCreator;
+import vvu.centrauthz.domains.applications.repositories.ApplicationWrite;
+import vvu.centrauthz.errors.BadRequestError;
+import vvu.centrauthz.utilities.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationBatchServiceTest {
+
+    @Test
+    void createAll_reportsEachItem() {
+        var context = ApplicationBatchServiceContext.builder().build();
+        var service = context.toService();
+        var created = ApplicationCreator.createApplication();
+        var existing = ApplicationCreator.createApplication();
+        var invalid = ApplicationCreator.createApplication().toBuilder().name("").build();
+        var items = Arrays.asList(created, created, invalid, existing, null);
+
+        context.setup(ctx -> {
+            var violation = violation("name", "must not be blank");
+            Mockito.when(ctx.validator.validate(Mockito.any(Application.class))).thenReturn(Set.of());
+            Mockito.when(ctx.validator.validate(invalid)).thenReturn(Set.of(violation));
+            Mockito.when(ctx.repo.insertAll(Mockito.eq(List.of(created, existing)), Mockito.any(UUID.class),
+                Mockito.any(Instant.class), Mockito.eq(false), Mockito.eq(100)))
+                .thenReturn(List.of(written(created, true)));
+        });
+
+        var result = service.createAll(items, null, Context.of(UUID.randomUUID()));
+
+        var statuses = result.items().stream().map(i -> i.status()).toList();
+        assertEquals(List.of(
+            ApplicationBatchStatus.CREATED,
+            ApplicationBatchStatus.CONFLICT,
+            ApplicationBatchStatus.INVALID,
+            ApplicationBatchStatus.CONFLICT,
+            ApplicationBatchStatus.INVALID), statuses);
+        assertEquals(List.of(0, 1, 2, 3, 4), result.items().stream().map(i -> i.index()).toList());
+        assertNull(result.items().get(0).error());
+        assertEquals("must not be blank", result.items().get(2).error().details().get("name"));
+
+        var event = context.firedEvent();
+        assertEquals(created.applicationKey(), event.applicationKey());
+        assertEquals(ApplicationChangeType.CREATED, event.type());
+        assertEquals(0L, event.version());
+    }
+
+    @Test
+    void createAll_withForce_upsertsExisting() {
+        var context = ApplicationBatchServiceContext.builder().build();
+        var service = context.toService();
+        var created = ApplicationCreator.createApplication();
+        var updated = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.validator.validate(Mockito.any(Application.class))).thenReturn(Set.of());
+            Mockito.when(ctx.repo.insertAll(Mockito.anyList(), Mockito.any(UUID.class),
+                Mockito.any(Instant.class), Mockito.eq(true), Mockito.anyInt()))
+                .thenReturn(List.of(written(updated, false), written(created, true)));
+        });
+
+        var result = service.createAll(List.of(created, updated), true, Context.of(UUID.randomUUID()));
+
+        assertEquals(ApplicationBatchStatus.CREATED, result.items().get(0).status());
+        assertEquals(ApplicationBatchStatus.UPDATED, result.items().get(1).status());
+        var events = ArgumentCaptor.forClass(ApplicationChangedEvent.class);
+        context.verify(ctx -> {
+            Mockito.verify(ctx.events, Mockito.times(2)).fire(events.capture());
+            Mockito.verify(ctx.repo, Mockito.only()).insertAll(Mockito.anyList(), Mockito.any(),
+                Mockito.any(), Mockito.anyBoolean(), Mockito.anyInt());
+        });
+        assertEquals(List.of(0L, 3L), events.getAllValues().stream().map(e -> e.version()).toList());
+    }
+
+    @Test
+    void createAll_whenNothingValid_noWrite() {
+        var context = ApplicationBatchServiceContext.builder().build();
+        var service = context.toService();
+
+        var result = service.createAll(Collections.singletonList(null), false, Context.of(UUID.randomUUID()));
+
+        assertEquals(ApplicationBatchStatus.INVALID, result.items().getFirst().status());
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.repo, ctx.events));
+    }
+
+    @Test
+    void createAll_whenTooManyItems_BadRequest() {
+        var context = ApplicationBatchServiceContext.builder().maxItems(1).build();
+        var service = context.toService();
+        var items = List.of(ApplicationCreator.createApplication(), ApplicationCreator.createApplication());
+
+        assertThrowsExactly(BadRequestError.class,
+            () -> service.createAll(items, false, Context.of(UUID.randomUUID())));
+        assertThrowsExactly(BadRequestError.class,
+            () -> service.createAll(null, false, Context.of(UUID.randomUUID())));
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.repo));
+    }
+
+    @Test
+    void getAll_cacheFirstThenSingleQuery() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var context = ApplicationBatchServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var cached = ApplicationCreator.createApplication();
+        var row = ApplicationRowCreator.create();
+        var loaded = ApplicationCreator.createApplication().toBuilder()
+            .applicationKey(row.applicationKey())
+            .build();
+        cache.get(cached.applicationKey(), k -> cached);
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowsByKeys(List.of(row.applicationKey(), "missing"), null))
+                .thenReturn(List.of(row));
+            Mockito.when(ctx.mapper.toDto(row)).thenReturn(loaded);
+        });
+
+        var keys = List.of(row.applicationKey(), "missing", cached.applicationKey(), row.applicationKey());
+        var result = service.getAll(keys, Context.of(UUID.randomUUID()));
+
+        assertEquals(List.of(loaded, cached), result.items());
+        assertEquals(List.of("missing"), result.missing());
+        assertTrue(cache.getIfPresent(row.applicationKey()).isEmpty());
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.only()).findRowsByKeys(Mockito.anyCollection(), Mockito.isNull());
+        });
+    }
+
+    @Test
+    void getAll_withConsistencyToken_readsPastTheCache() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var context = ApplicationBatchServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var stale = ApplicationCreator.createApplication();
+        var row = ApplicationRowCreator.create().toBuilder().applicationKey(stale.applicationKey()).build();
+        var fresh = stale.toBuilder().name("renamed").build();
+        cache.get(stale.applicationKey(), k -> stale);
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowsByKeys(List.of(stale.applicationKey()), "0/16B3740"))
+                .thenReturn(List.of(row));
+            Mockito.when(ctx.mapper.toDto(row)).thenReturn(fresh);
+        });
+
+        var result = service.getAll(List.of(stale.applicationKey()),
+            Context.of(UUID.randomUUID()).withConsistencyToken("0/16B3740"));
+
+        assertEquals(List.of(fresh), result.items());
+    }
+
+    @Test
+    void getAll_whenAllCached_noQuery() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var context = ApplicationBatchServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var cached = ApplicationCreator.createApplication();
+        cache.get(cached.applicationKey(), k -> cached);
+
+        var result = service.getAll(List.of(cached.applicationKey()), Context.of(UUID.randomUUID()));
+
+        assertEquals(List.of(cached), result.items());
+        assertTrue(result.missing().isEmpty());
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.repo));
+    }
+
+    @Test
+    void getAll_whenKeysInvalid_BadRequest() {
+        var context = ApplicationBatchServiceContext.builder().maxItems(1).build();
+        var service = context.toService();
+
+        assertThrowsExactly(BadRequestError.class,
+            () -> service.getAll(null, Context.of(UUID.randomUUID())));
+        assertThrowsExactly(BadRequestError.class,
+            () -> service.getAll(Arrays.asList("a", null), Context.of(UUID.randomUUID())));
+        assertThrowsExactly(BadRequestError.class,
+            () -> service.getAll(List.of("a", "b"), Context.of(UUID.randomUUID())));
+        assertEquals(List.of("a"), service.getAll(List.of("a", "a"), Context.of(UUID.randomUUID())).missing());
+    }
+
+    private static ApplicationWrite written(Application application, boolean inserted) {
+        return ApplicationWrite.builder()
+            .applicationKey(application.applicationKey())
+            .inserted(inserted)
+            .version(inserted ? 0L : 3L)
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConstraintViolation<Application> violation(String path, String message) {
+        var violation = (ConstraintViolation<Application>) Mockito.mock(ConstraintViolation.class);
+        var propertyPath = Mockito.mock(Path.class);
+        Mockito.when(propertyPath.toString()).thenReturn(path);
+        Mockito.when(violation.getPropertyPath()).thenReturn(propertyPath);
+        Mockito.when(violation.getMessage()).thenReturn(message);
+        return violation;
+    }
+
+    @Builder(toBuilder = true)
+    record ApplicationBatchServiceContext(
+        ApplicationRepo repo,
+        ApplicationMapper mapper,
+        ApplicationCache cache,
+        ApplicationKeyFilter keys,
+        Event<ApplicationChangedEvent> events,
+        Validator validator,
+        Integer maxItems
+    ) {
+
+        @SuppressWarnings("unchecked")
+        public ApplicationBatchServiceContext {
+            if (Objects.isNull(repo)) {
+                repo = Mockito.mock(ApplicationRepo.class);
+            }
+
+            if (Objects.isNull(mapper)) {
+                mapper = Mockito.mock(ApplicationMapper.class);
+            }
+
+            if (Objects.isNull(cache)) {
+                cache = new ApplicationCache(false, 0, Duration.ZERO);
+            }
+
+            if (Objects.isNull(keys)) {
+                keys = new ApplicationKeyFilter(repo, false, 0, 0.01, Duration.ZERO);
+            }
+
+            if (Objects.isNull(events)) {
+                events = Mockito.mock(Event.class);
+            }
+
+            if (Objects.isNull(validator)) {
+                validator = Mockito.mock(Validator.class);
+            }
+
+            if (Objects.isNull(maxItems)) {
+                maxItems = 1000;
+            }
+        }
+
+        ApplicationChangedEvent firedEvent() {
+            var captor = ArgumentCaptor.forClass(ApplicationChangedEvent.class);
+            Mockito.verify(events, Mockito.times(1)).fire(captor.capture());
+            return captor.getValue();
+        }
+
+        public void setup(Consumer<ApplicationBatchServiceContext> consumer) {
+            consumer.accept(this);
+        }
+
+        public void verify(Consumer<ApplicationBatchServiceContext> consumer) {
+            consumer.accept(this);
+        }
+
+        public ApplicationBatchService toService() {
+            var config = Mockito.mock(ApplicationConfig.class, Mockito.RETURNS_DEEP_STUBS);
+            Mockito.when(config.batch().size()).thenReturn(100);
+            Mockito.when(config.batch().maxItems()).thenReturn(maxItems);
+            return new ApplicationBatchService(repo, mapper, cache, keys, events, validator, config);
+        }
+    }
+}
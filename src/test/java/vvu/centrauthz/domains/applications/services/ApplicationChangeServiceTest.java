@@ -0,0 +1,139 @@
+package vvu.centrauthz.domains.applications.services;
+
+import lombok.Builder;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.ApplicationChange;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.repositories.ApplicationChangeRow;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRow;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRowCreator;
+import vvu.centrauthz.models.Page;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationChangeServiceTest {
+
+    @Test
+    void changes_typedByVersionAndTombstone() {
+        var context = ApplicationChangeServiceContext.builder().build();
+        var created = ApplicationRowCreator.create().toBuilder().version(0L).build();
+        var updated = ApplicationRowCreator.create();
+        var changedAt = Instant.parse("2026-10-18T12:00:00Z");
+        var dto = ApplicationCreator.createApplication();
+        Mockito.when(context.mapper().toDto(Mockito.any(ApplicationRow.class)))
+            .thenReturn(dto);
+        Mockito.when(context.repo().changes(Mockito.any(), Mockito.any(), Mockito.anyInt()))
+            .thenReturn(Page.<ApplicationChangeRow, String>builder()
+                .data(List.of(
+                    new ApplicationChangeRow(created.applicationKey(), changedAt, created),
+                    new ApplicationChangeRow(updated.applicationKey(), changedAt, updated),
+                    new ApplicationChangeRow("deleted", changedAt.plusMillis(1), null)))
+                .next("cursor")
+                .build());
+
+        var page = context.toService().changes("since", null);
+
+        assertEquals("cursor", page.next());
+        assertEquals(List.of(ApplicationChangeType.CREATED, ApplicationChangeType.UPDATED,
+            ApplicationChangeType.DELETED), page.data().stream().map(ApplicationChange::type).toList());
+        assertSame(dto, page.data().getFirst().application());
+        assertEquals(changedAt.toEpochMilli(), page.data().getFirst().changedAt());
+        assertEquals("deleted", page.data().getLast().applicationKey());
+        assertNull(page.data().getLast().application());
+    }
+
+    @Test
+    void onStart_withoutActivityOfOtherRoles_refusesToStart() {
+        var context = ApplicationChangeServiceContext.builder().build();
+        Mockito.when(context.repo().seesAllTransactions()).thenReturn(false);
+
+        var error = assertThrows(IllegalStateException.class, () -> context.toService().onStart(null));
+        assertTrue(error.getMessage().contains("pg_read_all_stats"));
+    }
+
+    @Test
+    void onStart_withActivityOfOtherRoles_starts() {
+        var context = ApplicationChangeServiceContext.builder().build();
+        Mockito.when(context.repo().seesAllTransactions()).thenReturn(true);
+
+        assertDoesNotThrow(() -> context.toService().onStart(null));
+    }
+
+    @Test
+    void changes_retentionFromConfig() {
+        var context = ApplicationChangeServiceContext.builder().build();
+        var retainedSince = ArgumentCaptor.forClass(Instant.class);
+        var start = Instant.now();
+
+        context.toService().changes("since", 10);
+
+        Mockito.verify(context.repo()).changes(Mockito.eq("since"), retainedSince.capture(), Mockito.eq(10));
+        assertFalse(retainedSince.getValue().isAfter(Instant.now().minus(Duration.ofDays(7))));
+        assertFalse(retainedSince.getValue().isBefore(start.minus(Duration.ofDays(7)).minusSeconds(1)));
+    }
+
+    @Test
+    void changes_pageSizeCapped() {
+        var context = ApplicationChangeServiceContext.builder().build();
+        var service = context.toService();
+
+        service.changes(null, 5000);
+        service.changes(null, 0);
+
+        Mockito.verify(context.repo()).changes(Mockito.isNull(), Mockito.any(),
+            Mockito.eq(ApplicationChangeService.MAX_PAGE_SIZE));
+        Mockito.verify(context.repo()).changes(Mockito.isNull(), Mockito.any(),
+            Mockito.eq(ApplicationChangeService.DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void purge_tombstonesOlderThanRetention() {
+        var context = ApplicationChangeServiceContext.builder().build();
+        var before = ArgumentCaptor.forClass(Instant.class);
+
+        context.toService().purge();
+
+        Mockito.verify(context.repo()).purgeTombstones(before.capture());
+        assertFalse(before.getValue().isAfter(Instant.now().minus(Duration.ofDays(7))));
+    }
+
+    @Builder
+    record ApplicationChangeServiceContext(
+        ApplicationRepo repo,
+        ApplicationMapper mapper,
+        ApplicationConfig config
+    ) {
+
+        public ApplicationChangeServiceContext {
+            if (Objects.isNull(repo)) {
+                repo = Mockito.mock(ApplicationRepo.class);
+                Mockito.when(repo.changes(Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                    .thenReturn(Page.<ApplicationChangeRow, String>builder().data(List.of()).build());
+            }
+
+            if (Objects.isNull(mapper)) {
+                mapper = Mockito.mock(ApplicationMapper.class);
+            }
+
+            if (Objects.isNull(config)) {
+                config = Mockito.mock(ApplicationConfig.class, Mockito.RETURNS_DEEP_STUBS);
+                Mockito.when(config.changes().tombstoneRetention()).thenReturn(Duration.ofDays(7));
+            }
+        }
+
+        ApplicationChangeService toService() {
+            return new ApplicationChangeService(repo, mapper, config);
+        }
+    }
+}
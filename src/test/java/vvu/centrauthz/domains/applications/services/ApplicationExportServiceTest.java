@@ -0,0 +1,137 @@
+package vvu.centrauthz.domains.applications.services;
+
+import lombok.Builder;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
+import vvu.centrauthz.domains.applications.models.Application;
+import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRow;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRowCreator;
+import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.JsonTools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationExportServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_writesOneLinePerApplication() throws IOException {
+        var context = ApplicationExportServiceContext.builder().build();
+        var service = context.toService();
+        var first = ApplicationRowCreator.create();
+        var second = ApplicationRowCreator.create();
+        var firstDto = ApplicationCreator.createApplication();
+        var secondDto = ApplicationCreator.createApplication().toBuilder().description(null).build();
+
+        context.setup(ctx -> {
+            Mockito.doAnswer(invocation -> {
+                Consumer<ApplicationRow> consumer = invocation.getArgument(2);
+                consumer.accept(first);
+                consumer.accept(second);
+                return null;
+            }).when(ctx.repo).forEach(Mockito.eq(250), Mockito.isNull(), Mockito.any());
+            Mockito.when(ctx.mapper.toDto(first)).thenReturn(firstDto);
+            Mockito.when(ctx.mapper.toDto(second)).thenReturn(secondDto);
+        });
+
+        var output = new ByteArrayOutputStream();
+        service.export(output, Context.of(UUID.randomUUID()));
+
+        var text = output.toString(StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        var lines = text.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals(firstDto, JsonTools.mapper().readValue(lines.get(0), Application.class));
+        assertEquals(secondDto, JsonTools.mapper().readValue(lines.get(1), Application.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_withConsistencyToken_passedToRepo() throws IOException {
+        var context = ApplicationExportServiceContext.builder().build();
+        var service = context.toService();
+
+        service.export(new ByteArrayOutputStream(),
+            Context.of(UUID.randomUUID()).withConsistencyToken("0/16B3740"));
+
+        Mockito.verify(context.repo())
+            .forEach(Mockito.eq(250), Mockito.eq("0/16B3740"), Mockito.any(Consumer.class));
+    }
+
+    @Test
+    void export_whenEmpty_writesNothing() throws IOException {
+        var context = ApplicationExportServiceContext.builder().build();
+        var service = context.toService();
+
+        var output = new ByteArrayOutputStream();
+        service.export(output, Context.of(UUID.randomUUID()));
+
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_whenOutputFails_propagatesWithoutClosing() throws IOException {
+        var context = ApplicationExportServiceContext.builder().build();
+        var service = context.toService();
+        var row = ApplicationRowCreator.create();
+        var output = Mockito.mock(OutputStream.class);
+        var failure = new IOException("connection reset");
+
+        context.setup(ctx -> {
+            Mockito.doAnswer(invocation -> {
+                Consumer<ApplicationRow> consumer = invocation.getArgument(2);
+                for (int i = 0; i < 10_000; i++) {
+                    consumer.accept(row);
+                }
+                return null;
+            }).when(ctx.repo).forEach(Mockito.anyInt(), Mockito.any(), Mockito.any());
+            Mockito.when(ctx.mapper.toDto(row)).thenReturn(ApplicationCreator.createApplication());
+        });
+        Mockito.doThrow(failure).when(output).write(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+
+        var thrown = assertThrows(IOException.class, () -> service.export(output, Context.of(UUID.randomUUID())));
+
+        assertSame(failure, thrown);
+        Mockito.verify(output, Mockito.never()).close();
+    }
+
+    @Builder
+    record ApplicationExportServiceContext(
+        ApplicationRepo repo,
+        ApplicationMapper mapper
+    ) {
+
+        public ApplicationExportServiceContext {
+            if (Objects.isNull(repo)) {
+                repo = Mockito.mock(ApplicationRepo.class);
+            }
+
+            if (Objects.isNull(mapper)) {
+                mapper = Mockito.mock(ApplicationMapper.class);
+            }
+        }
+
+        public void setup(Consumer<ApplicationExportServiceContext> consumer) {
+            consumer.accept(this);
+        }
+
+        public ApplicationExportService toService() {
+            var config = Mockito.mock(ApplicationConfig.class, Mockito.RETURNS_DEEP_STUBS);
+            Mockito.when(config.export().fetchSize()).thenReturn(250);
+            return new ApplicationExportService(repo, mapper, config);
+        }
+    }
+}
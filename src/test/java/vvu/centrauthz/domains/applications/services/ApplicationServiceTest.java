@@ -1,20 +1,41 @@
 package vvu.centrauthz.domains.applications.services;
 
+import jakarta.enterprise.event.Event;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import lombok.Builder;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import vvu.centrauthz.domains.applications.caches.ApplicationCache;
+import vvu.centrauthz.domains.applications.caches.ApplicationKeyFilter;
+import vvu.centrauthz.domains.applications.configs.ApplicationConfig;
+import vvu.centrauthz.domains.applications.configs.ConcurrencyMode;
 import vvu.centrauthz.domains.applications.entities.ApplicationEntity;
 import vvu.centrauthz.domains.applications.entities.ApplicationEntityCreator;
+import vvu.centrauthz.domains.applications.events.ApplicationChangeType;
+import vvu.centrauthz.domains.applications.events.ApplicationChangedEvent;
 import vvu.centrauthz.domains.applications.mappers.ApplicationMapper;
 import vvu.centrauthz.domains.applications.models.Application;
 import vvu.centrauthz.domains.applications.models.ApplicationCreator;
+import vvu.centrauthz.domains.applications.models.ApplicationFilter;
 import vvu.centrauthz.domains.applications.models.ApplicationPatcher;
 import vvu.centrauthz.domains.applications.repositories.ApplicationRepo;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRow;
+import vvu.centrauthz.domains.applications.repositories.ApplicationRowCreator;
+import vvu.centrauthz.domains.applications.repositories.ApplicationWrite;
+import vvu.centrauthz.errors.ConflictError;
 import vvu.centrauthz.errors.NotFoundError;
+import vvu.centrauthz.errors.PreconditionFailedError;
+import vvu.centrauthz.models.Page;
 import vvu.centrauthz.models.Patcher;
 import vvu.centrauthz.utilities.Context;
+import vvu.centrauthz.utilities.ETags;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -24,44 +45,259 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 class ApplicationServiceTest {
 
     @Test
-    void get_hasEntity_returnDto() {
+    void get_hasRow_returnDto() {
         var context = ApplicationServiceContext.builder().build();
         var service = context.toService();
-        var entity = ApplicationEntityCreator.create();
+        var row = ApplicationRowCreator.create();
         var dto = ApplicationCreator.createApplication();
         var keyCaptor = ArgumentCaptor.forClass(String.class);
-        var eCaptor = ArgumentCaptor.forClass(ApplicationEntity.class);
+        var rowCaptor = ArgumentCaptor.forClass(ApplicationRow.class);
 
         context.setup(ctx -> {
-            Mockito.when(ctx.repo.findByKey(keyCaptor.capture())).thenReturn(Optional.of(entity));
-            Mockito.when(ctx.mapper.toDto(eCaptor.capture())).thenReturn(dto);
+            Mockito.when(ctx.repo.findRowByKey(keyCaptor.capture(), Mockito.isNull())).thenReturn(Optional.of(row));
+            Mockito.when(ctx.mapper.toDto(rowCaptor.capture())).thenReturn(dto);
         });
 
-        var app = service.get(entity.getApplicationKey(), Context.of(UUID.randomUUID()));
+        var app = service.get(row.applicationKey(), Context.of(UUID.randomUUID()));
 
         assertSame(app, dto);
-        assertEquals(entity.getApplicationKey(), keyCaptor.getValue());
-        assertSame(entity, eCaptor.getValue());
+        assertEquals(row.applicationKey(), keyCaptor.getValue());
+        assertSame(row, rowCaptor.getValue());
+
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.times(1)).findRowByKey(Mockito.anyString(), Mockito.any());
+            Mockito.verify(ctx.mapper, Mockito.times(1)).toDto(Mockito.any(ApplicationRow.class));
+        });
+
+    }
+
+    @Test
+    void get_whenCached_repoHitOnce() {
+        var context = ApplicationServiceContext.builder()
+            .cache(new ApplicationCache(true, 10, Duration.ofMinutes(1)))
+            .build();
+        var service = context.toService();
+        var row = ApplicationRowCreator.create();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowByKey(row.applicationKey(), null)).thenReturn(Optional.of(row));
+            Mockito.when(ctx.mapper.toDto(row)).thenReturn(dto);
+        });
+
+        assertSame(dto, service.get(row.applicationKey(), Context.of(UUID.randomUUID())));
+        assertSame(dto, service.get(row.applicationKey(), Context.of(UUID.randomUUID())));
+
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.times(1)).findRowByKey(Mockito.anyString(), Mockito.any());
+        });
+    }
+
+    @Test
+    void get_withConsistencyToken_bypassesCache() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var context = ApplicationServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var row = ApplicationRowCreator.create();
+        var stale = ApplicationCreator.createApplication();
+        var dto = ApplicationCreator.createApplication();
+        cache.get(row.applicationKey(), k -> stale);
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowByKey(row.applicationKey(), "0/16B3740")).thenReturn(Optional.of(row));
+            Mockito.when(ctx.mapper.toDto(row)).thenReturn(dto);
+        });
 
+        var app = service.get(row.applicationKey(),
+            Context.of(UUID.randomUUID()).withConsistencyToken("0/16B3740"));
+
+        assertSame(dto, app);
+        assertSame(stale, cache.getIfPresent(row.applicationKey()).orElseThrow());
+    }
+
+    @Test
+    void get_afterWrite_fillWaitsForLaggingReplica() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        var context = ApplicationServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var written = ApplicationRowCreator.create();
+        var created = ApplicationRowCreator.create();
+        var dto = ApplicationCreator.createApplication();
+        var createdDto = ApplicationCreator.createApplication();
+
+        // The replica lags: without a token it still serves the old row and
+        // has not seen the created one
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowByKey(written.applicationKey(), null))
+                .thenReturn(Optional.of(ApplicationRowCreator.create()));
+            Mockito.when(ctx.repo.consistencyToken()).thenReturn(Optional.of("0/16B3740"));
+            Mockito.when(ctx.repo.findRowByKey(written.applicationKey(), "0/16B3740"))
+                .thenReturn(Optional.of(written));
+            Mockito.when(ctx.repo.findRowByKey(created.applicationKey(), "0/16B3740"))
+                .thenReturn(Optional.of(created));
+            Mockito.when(ctx.mapper.toDto(written)).thenReturn(dto);
+            Mockito.when(ctx.mapper.toDto(created)).thenReturn(createdDto);
+        });
+        cache.invalidate(written.applicationKey());
+        cache.invalidate(created.applicationKey());
+
+        assertSame(dto, service.get(written.applicationKey(), Context.of(UUID.randomUUID())));
+        assertSame(createdDto, service.get(created.applicationKey(), Context.of(UUID.randomUUID())));
+        assertSame(dto, cache.getIfPresent(written.applicationKey()).orElseThrow());
+        assertSame(createdDto, cache.getIfPresent(created.applicationKey()).orElseThrow());
         context.verify(ctx -> {
-            Mockito.verify(ctx.repo, Mockito.times(1)).findByKey(Mockito.anyString());
-            Mockito.verify(ctx.mapper, Mockito.times(1)).toDto(Mockito.any(ApplicationEntity.class));
+            Mockito.verify(ctx.repo, Mockito.times(1)).consistencyToken();
+            Mockito.verify(ctx.repo, Mockito.never()).findRowByKey(Mockito.anyString(), Mockito.isNull());
+        });
+    }
+
+    @Test
+    void findETag_withConsistencyToken_lookupSkipsCache() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var context = ApplicationServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+        cache.get(dto.applicationKey(), k -> dto.toBuilder().version(dto.version() - 1).build());
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findVersionByKey(dto.applicationKey(), "0/16B3740"))
+                .thenReturn(Optional.of(dto.version()));
+        });
+
+        var etag = service.findETag(dto.applicationKey(),
+            Context.of(UUID.randomUUID()).withConsistencyToken("0/16B3740"));
+
+        assertEquals(Optional.of(service.etag(dto)), etag);
+    }
+
+    @Test
+    void consistencyToken_fromRepo() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+
+        context.setup(ctx -> Mockito.when(ctx.repo.consistencyToken()).thenReturn(Optional.of("1/A0")));
+
+        assertEquals(Optional.of("1/A0"), service.consistencyToken());
+    }
+
+    @Test
+    void findETag_whenCached_noRepoLookup() {
+        var cache = new ApplicationCache(true, 10, Duration.ofMinutes(1));
+        var context = ApplicationServiceContext.builder().cache(cache).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+        cache.get(dto.applicationKey(), k -> dto);
+
+        var etag = service.findETag(dto.applicationKey(), Context.of(UUID.randomUUID()));
+
+        assertEquals(Optional.of(service.etag(dto)), etag);
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.repo));
+    }
+
+    @Test
+    void findETag_whenNotCached_lightweightLookup() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findVersionByKey(dto.applicationKey(), null))
+                .thenReturn(Optional.of(dto.version()));
+        });
+
+        var etag = service.findETag(dto.applicationKey(), Context.of(UUID.randomUUID()));
+
+        assertEquals(Optional.of(service.etag(dto)), etag);
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.only()).findVersionByKey(dto.applicationKey(), null);
+        });
+    }
+
+    @Test
+    void findETag_whenMissing_empty() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findVersionByKey(Mockito.anyString(), Mockito.any())).thenReturn(Optional.empty());
+        });
+
+        assertTrue(service.findETag("missing", Context.of(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    void get_keyFilterRulesOut_NotFoundWithoutQuery() {
+        var keys = Mockito.mock(ApplicationKeyFilter.class);
+        var context = ApplicationServiceContext.builder().keys(keys).build();
+        var service = context.toService();
+
+        Mockito.when(keys.mightExist("missing")).thenReturn(false);
+
+        assertThrowsExactly(NotFoundError.class, () -> service.get("missing", Context.of(UUID.randomUUID())));
+        assertTrue(service.findETag("missing", Context.of(UUID.randomUUID())).isEmpty());
+
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.repo));
+    }
+
+    @Test
+    void get_withConsistencyToken_keyFilterSkipped() {
+        var keys = Mockito.mock(ApplicationKeyFilter.class);
+        var context = ApplicationServiceContext.builder().keys(keys).build();
+        var service = context.toService();
+        var row = ApplicationRowCreator.create();
+        var dto = ApplicationCreator.createApplication();
+        var consistent = Context.of(UUID.randomUUID()).withConsistencyToken("0/16B3740");
+
+        Mockito.when(keys.mightExist(row.applicationKey())).thenReturn(false);
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowByKey(row.applicationKey(), "0/16B3740")).thenReturn(Optional.of(row));
+            Mockito.when(ctx.repo.findVersionByKey(row.applicationKey(), "0/16B3740")).thenReturn(Optional.of(0L));
+            Mockito.when(ctx.mapper.toDto(row)).thenReturn(dto);
         });
 
+        assertSame(dto, service.get(row.applicationKey(), consistent));
+        assertTrue(service.findETag(row.applicationKey(), consistent).isPresent());
+        Mockito.verify(keys, Mockito.never()).mightExist(Mockito.anyString());
+    }
+
+    @Test
+    void get_missingTwice_negativeCacheHit() {
+        var context = ApplicationServiceContext.builder()
+            .cache(new ApplicationCache(true, 10, Duration.ofMinutes(1), Duration.ofMinutes(1)))
+            .build();
+        var service = context.toService();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.findRowByKey("missing", null)).thenReturn(Optional.empty());
+        });
+
+        assertThrowsExactly(NotFoundError.class, () -> service.get("missing", Context.of(UUID.randomUUID())));
+        assertThrowsExactly(NotFoundError.class, () -> service.get("missing", Context.of(UUID.randomUUID())));
+
+        context.verify(ctx -> Mockito.verify(ctx.repo, Mockito.times(1)).findRowByKey("missing", null));
+    }
+
+    @Test
+    void etag_changesWithVersion() {
+        var service = ApplicationServiceContext.builder().build().toService();
+        var dto = ApplicationCreator.createApplication();
+
+        assertEquals(service.etag(dto), service.etag(dto.toBuilder().updatedAt(0L).build()));
+        assertNotEquals(service.etag(dto), service.etag(dto.toBuilder().version(dto.version() + 1).build()));
     }
 
     @Test
-    void get_hasNoEntity_NotFound() {
+    void get_hasNoRow_NotFound() {
         var context = ApplicationServiceContext.builder().build();
         var service = context.toService();
         var entity = ApplicationEntityCreator.create();
         var dto = ApplicationCreator.createApplication();
         var keyCaptor = ArgumentCaptor.forClass(String.class);
-        var eCaptor = ArgumentCaptor.forClass(ApplicationEntity.class);
+        var rowCaptor = ArgumentCaptor.forClass(ApplicationRow.class);
 
         context.setup(ctx -> {
-            Mockito.when(ctx.repo.findByKey(keyCaptor.capture())).thenReturn(Optional.empty());
-            Mockito.when(ctx.mapper.toDto(eCaptor.capture())).thenReturn(dto);
+            Mockito.when(ctx.repo.findRowByKey(keyCaptor.capture(), Mockito.isNull())).thenReturn(Optional.empty());
+            Mockito.when(ctx.mapper.toDto(rowCaptor.capture())).thenReturn(dto);
         });
 
         assertThrowsExactly(NotFoundError.class, () -> service.get(entity.getApplicationKey(), Context.of(UUID.randomUUID())));
@@ -69,12 +305,58 @@ class ApplicationServiceTest {
         assertEquals(entity.getApplicationKey(), keyCaptor.getValue());
 
         context.verify(ctx -> {
-            Mockito.verify(ctx.repo, Mockito.times(1)).findByKey(Mockito.anyString());
-            Mockito.verify(ctx.mapper, Mockito.never()).toDto(Mockito.any(ApplicationEntity.class));
+            Mockito.verify(ctx.repo, Mockito.times(1)).findRowByKey(Mockito.anyString(), Mockito.any());
+            Mockito.verify(ctx.mapper, Mockito.never()).toDto(Mockito.any(ApplicationRow.class));
         });
 
     }
 
+    @Test
+    void list_mapsRowsAndForwardsNextToken() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var rows = List.of(ApplicationRowCreator.create(), ApplicationRowCreator.create());
+        var dtos = List.of(ApplicationCreator.createApplication(), ApplicationCreator.createApplication());
+        var next = UUID.randomUUID().toString();
+        var filter = ApplicationFilter.builder().pageSize(2).build();
+        var filterCaptor = ArgumentCaptor.forClass(ApplicationFilter.class);
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.query(filterCaptor.capture(), Mockito.isNull()))
+                .thenReturn(Page.<ApplicationRow, String>builder().data(rows).next(next).build());
+            Mockito.when(ctx.mapper.rowsToDtoList(rows)).thenReturn(dtos);
+        });
+
+        var page = service.list(filter, Context.of(UUID.randomUUID()));
+
+        assertSame(filter, filterCaptor.getValue());
+        assertSame(dtos, page.data());
+        assertEquals(next, page.next());
+
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.only()).query(Mockito.any(ApplicationFilter.class), Mockito.any());
+        });
+    }
+
+    @Test
+    void list_lastPage_noNextToken() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var rows = List.of(ApplicationRowCreator.create());
+        var dtos = List.of(ApplicationCreator.createApplication());
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.query(Mockito.any(ApplicationFilter.class), Mockito.any()))
+                .thenReturn(Page.<ApplicationRow, String>builder().data(rows).build());
+            Mockito.when(ctx.mapper.rowsToDtoList(rows)).thenReturn(dtos);
+        });
+
+        var page = service.list(ApplicationFilter.builder().build(), Context.of(UUID.randomUUID()));
+
+        assertSame(dtos, page.data());
+        assertNull(page.next());
+    }
+
     @Test
     void create() {
         var context = ApplicationServiceContext.builder().build();
@@ -82,28 +364,51 @@ class ApplicationServiceTest {
         var entity = ApplicationEntityCreator.create();
         var userId = UUID.randomUUID();
         var dto = ApplicationCreator.createApplication();
-        var dtoExpected = dto.toBuilder().updatedBy(userId).build();
+        var dtoExpected = dto.toBuilder().createdBy(userId).build();
         var eCaptor = ArgumentCaptor.forClass(ApplicationEntity.class);
-        var dtoCaptor = ArgumentCaptor.forClass(Application.class);
+        var nowCaptor = ArgumentCaptor.forClass(Instant.class);
 
         context.setup(ctx -> {
-            Mockito.doNothing().when(ctx.repo).persist(eCaptor.capture());
-            Mockito.when(ctx.mapper.toEntity(dtoCaptor.capture())).thenReturn(entity);
+            Mockito.when(ctx.repo.insert(Mockito.same(dto), Mockito.eq(userId), nowCaptor.capture()))
+                .thenReturn(true);
+            Mockito.when(ctx.mapper.toEntity(dto)).thenReturn(entity);
             Mockito.when(ctx.mapper.toDto(eCaptor.capture())).thenReturn(dtoExpected);
         });
 
         var dtoRet = service.create(dto, Context.of(userId));
 
-        assertSame(dto, dtoCaptor.getValue());
         assertSame(dtoExpected, dtoRet);
-        assertEquals(2, eCaptor.getAllValues().size());
-        assertEquals(userId, eCaptor.getAllValues().getFirst().getCreatedBy());
-        assertEquals(userId, eCaptor.getAllValues().getLast().getCreatedBy());
+        assertSame(entity, eCaptor.getValue());
+        assertEquals(userId, entity.getCreatedBy());
+        assertEquals(nowCaptor.getValue(), entity.getCreatedAt());
+        assertEquals(nowCaptor.getValue(), entity.getUpdatedAt());
+        assertNull(entity.getUpdatedBy());
+        assertEquals(0L, entity.getVersion());
+        assertEquals(ApplicationChangeType.CREATED, context.firedEvent().type());
+        assertEquals(entity.getName(), context.firedEvent().name());
+        assertEquals(0L, context.firedEvent().version());
 
         context.verify(ctx -> {
-            Mockito.verify(ctx.repo, Mockito.times(1)).persist(Mockito.any(ApplicationEntity.class));
-            Mockito.verify(ctx.mapper, Mockito.times(1)).toDto(Mockito.any(ApplicationEntity.class));
-            Mockito.verify(ctx.mapper, Mockito.times(1)).toEntity(Mockito.any(Application.class));
+            Mockito.verify(ctx.repo, Mockito.only()).insert(Mockito.any(), Mockito.any(), Mockito.any());
+        });
+    }
+
+    @Test
+    void create_keyTaken_ConflictWithoutEvent() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.insert(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(false);
+        });
+
+        var error = assertThrowsExactly(ConflictError.class, () -> service.create(dto, Context.of(UUID.randomUUID())));
+
+        assertEquals("CONFLICT", error.getError().code());
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.never()).persist(Mockito.any(ApplicationEntity.class));
+            Mockito.verifyNoInteractions(ctx.mapper, ctx.events);
         });
     }
 
@@ -111,7 +416,7 @@ class ApplicationServiceTest {
     void update_whenAppExisting_updateIt() {
         var context = ApplicationServiceContext.builder().build();
         var service = context.toService();
-        var force = new Random().nextBoolean();
+        var force = false;
         var userId = UUID.randomUUID();
         var entity = ApplicationEntityCreator.create();
         var dto = ApplicationCreator.createApplication();
@@ -124,12 +429,14 @@ class ApplicationServiceTest {
             Mockito.doNothing().when(ctx.mapper).updateEntity(dtoCaptor.capture(), entityCaptor.capture());
         });
 
-        service.update(dto.applicationKey(), dto, force, Context.of(userId));
+        service.update(dto.applicationKey(), dto, force, null, Context.of(userId));
 
         assertEquals(userId, entity.getUpdatedBy());
         assertSame(dto, dtoCaptor.getValue());
         assertSame(entity, entityCaptor.getValue());
         assertEquals(dto.applicationKey(), keyCaptor.getValue());
+        assertEquals(ApplicationChangeType.UPDATED, context.firedEvent().type());
+        assertEquals(entity.getVersion() + 1, context.firedEvent().version());
 
         context.verify(ctx -> {
             Mockito.verify(ctx.repo, Mockito.times(1)).findByKeyWithLock(Mockito.anyString());
@@ -155,7 +462,7 @@ class ApplicationServiceTest {
         });
 
         assertThrowsExactly(NotFoundError.class, () -> {
-            service.update(dto.applicationKey(), dto, force, Context.of(userId));
+            service.update(dto.applicationKey(), dto, force, null, Context.of(userId));
         });
 
         assertEquals(dto.applicationKey(), keyCaptor.getValue());
@@ -168,43 +475,268 @@ class ApplicationServiceTest {
     }
 
     @Test
-    void update_whenAppNotExistingWithForce_CreateIt() {
+    void update_whenAppNotExistingWithForce_UpsertCreatesIt() {
         var context = ApplicationServiceContext.builder().build();
         var service = context.toService();
-        var force = true;
         var userId = UUID.randomUUID();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.upsert(Mockito.same(dto), Mockito.eq(userId), Mockito.any(Instant.class)))
+                .thenReturn(written(dto, true, 0L));
+        });
+
+        service.update(dto.applicationKey(), dto, true, null, Context.of(userId));
+
+        assertEquals(ApplicationChangeType.CREATED, context.firedEvent().type());
+        assertEquals(0L, context.firedEvent().version());
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.only()).upsert(Mockito.any(), Mockito.any(), Mockito.any());
+            Mockito.verifyNoInteractions(ctx.mapper);
+        });
+    }
+
+    @Test
+    void update_whenAppExistingWithForce_UpsertUpdatesIt() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var userId = UUID.randomUUID();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.upsert(Mockito.same(dto), Mockito.eq(userId), Mockito.any(Instant.class)))
+                .thenReturn(written(dto, false, 4L));
+        });
+
+        service.update(dto.applicationKey(), dto, true, null, Context.of(userId));
+
+        assertEquals(ApplicationChangeType.UPDATED, context.firedEvent().type());
+        assertEquals(4L, context.firedEvent().version());
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.only()).upsert(Mockito.any(), Mockito.any(), Mockito.any());
+        });
+    }
+
+    @Test
+    void update_whenVersionMismatchLocked_PreconditionFailed() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
         var entity = ApplicationEntityCreator.create();
         var dto = ApplicationCreator.createApplication();
-        var keyCaptor = ArgumentCaptor.forClass(String.class);
-        var dtoCaptor = ArgumentCaptor.forClass(Application.class);
-        var entityCaptor = ArgumentCaptor.forClass(ApplicationEntity.class);
+        var ifMatch = ETags.of(dto.applicationKey(), entity.getVersion() + 1);
 
         context.setup(ctx -> {
-            Mockito.when(ctx.repo.findByKeyWithLock(keyCaptor.capture())).thenReturn(Optional.empty());
-            Mockito.when(ctx.mapper.toEntity(dtoCaptor.capture())).thenReturn(entity);
-            Mockito.doNothing().when(ctx.repo).persist(entityCaptor.capture());
+            Mockito.when(ctx.repo.findByKeyWithLock(dto.applicationKey())).thenReturn(Optional.of(entity));
         });
 
-        service.update(dto.applicationKey(), dto, force, Context.of(userId));
-        assertSame(dto, dtoCaptor.getValue());
-        assertSame(entity, entityCaptor.getValue());
-        assertEquals(dto.applicationKey(), keyCaptor.getValue());
-        assertEquals(userId, entity.getCreatedBy());
+        assertThrowsExactly(PreconditionFailedError.class, () -> {
+            service.update(dto.applicationKey(), dto, true, ifMatch, Context.of(UUID.randomUUID()));
+        });
 
         context.verify(ctx -> {
-            Mockito.verify(ctx.repo, Mockito.times(1)).findByKeyWithLock(Mockito.anyString());
-            Mockito.verify(ctx.repo, Mockito.times(1)).persist(Mockito.any(ApplicationEntity.class));
-            Mockito.verify(ctx.mapper, Mockito.times(1)).toEntity(Mockito.any(Application.class));
             Mockito.verify(ctx.mapper, Mockito.never()).updateEntity(Mockito.any(Application.class), Mockito.any(ApplicationEntity.class));
+            Mockito.verifyNoInteractions(ctx.events);
+        });
+    }
+
+    @Test
+    void update_optimistic_singleStatement() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var userId = UUID.randomUUID();
+        var dto = ApplicationCreator.createApplication();
+        var ifMatch = ETags.of(dto.applicationKey(), dto.version());
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.updateByKey(Mockito.eq(dto.applicationKey()), Mockito.same(dto),
+                Mockito.eq(userId), Mockito.any(Instant.class), Mockito.eq(List.of(dto.version()))))
+                .thenReturn(Optional.of(dto.version() + 1));
+        });
+
+        service.update(dto.applicationKey(), dto, false, ifMatch, Context.of(userId));
+
+        assertEquals(ApplicationChangeType.UPDATED, context.firedEvent().type());
+        assertEquals(dto.version() + 1, context.firedEvent().version());
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.never()).findByKeyWithLock(Mockito.anyString());
+            Mockito.verify(ctx.repo, Mockito.never()).existsByKey(Mockito.anyString());
+        });
+    }
+
+    @Test
+    void update_optimisticUnconditional_eventCarriesWrittenVersion() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var userId = UUID.randomUUID();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.updateByKey(Mockito.eq(dto.applicationKey()), Mockito.same(dto),
+                Mockito.eq(userId), Mockito.any(Instant.class), Mockito.isNull()))
+                .thenReturn(Optional.of(7L));
         });
+
+        service.update(dto.applicationKey(), dto, false, null, Context.of(userId));
+
+        assertEquals(7L, context.firedEvent().version());
     }
 
     @Test
-    void patch_whenAppExisting_patchIt() {
+    void update_optimisticStaleVersion_PreconditionFailed() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+        var ifMatch = ETags.of(dto.applicationKey(), dto.version());
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.updateByKey(Mockito.anyString(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+            Mockito.when(ctx.repo.existsByKey(dto.applicationKey())).thenReturn(true);
+        });
+
+        assertThrowsExactly(PreconditionFailedError.class, () -> {
+            service.update(dto.applicationKey(), dto, true, ifMatch, Context.of(UUID.randomUUID()));
+        });
+
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.never()).persist(Mockito.any(ApplicationEntity.class));
+            Mockito.verifyNoInteractions(ctx.events);
+        });
+    }
+
+    @Test
+    void update_optimisticForeignTag_PreconditionFailedWithoutWrite() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+        var ifMatch = ETags.of("another", dto.version());
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.existsByKey(dto.applicationKey())).thenReturn(true);
+        });
+
+        assertThrowsExactly(PreconditionFailedError.class, () -> {
+            service.update(dto.applicationKey(), dto, false, ifMatch, Context.of(UUID.randomUUID()));
+        });
+
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.never()).updateByKey(Mockito.anyString(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any());
+        });
+    }
+
+    @Test
+    void update_optimisticNotExistingNoForce_NotFound() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.updateByKey(Mockito.anyString(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.isNull())).thenReturn(Optional.empty());
+        });
+
+        assertThrowsExactly(NotFoundError.class, () -> {
+            service.update(dto.applicationKey(), dto, false, null, Context.of(UUID.randomUUID()));
+        });
+    }
+
+    @Test
+    void patch_withoutName_eventCarriesNoName() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var userId = UUID.randomUUID();
+        var patcher = Patcher
+            .<ApplicationPatcher>builder()
+            .fields(List.of("description"))
+            .data(ApplicationCreator.createApplicationPatcher())
+            .build();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.patchByKey(Mockito.eq("key"), Mockito.same(patcher),
+                Mockito.eq(userId), Mockito.any(Instant.class), Mockito.isNull())).thenReturn(Optional.of(2L));
+        });
+
+        service.patch("key", patcher, null, Context.of(userId));
+
+        assertNull(context.firedEvent().name());
+        assertEquals(2L, context.firedEvent().version());
+    }
+
+    @Test
+    void patch_invalidName_validationErrorWithoutStatement() {
+        var names = new ArrayList<String>();
+        names.add("");
+        names.add("   ");
+        names.add(null);
+        names.add("n".repeat(256));
+
+        for (var name : names) {
+            var context = ApplicationServiceContext.builder().build();
+            var service = context.toService();
+            var patcher = Patcher
+                .<ApplicationPatcher>builder()
+                .fields(List.of("name"))
+                .data(ApplicationPatcher.builder().name(name).build())
+                .build();
+
+            var error = assertThrowsExactly(ConstraintViolationException.class,
+                () -> service.patch("key", patcher, null, Context.of(UUID.randomUUID())));
+
+            assertEquals("name", error.getConstraintViolations().iterator().next()
+                .getPropertyPath().toString());
+            context.verify(ctx -> {
+                Mockito.verifyNoInteractions(ctx.repo);
+                Mockito.verifyNoInteractions(ctx.events);
+            });
+        }
+    }
+
+    @Test
+    void patch_nullOwnerId_validationError() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var patcher = Patcher
+            .<ApplicationPatcher>builder()
+            .fields(List.of("ownerId", "description"))
+            .data(ApplicationPatcher.builder().description(null).ownerId(null).build())
+            .build();
+
+        var error = assertThrowsExactly(ConstraintViolationException.class,
+            () -> service.patch("key", patcher, null, Context.of(UUID.randomUUID())));
+
+        assertEquals(1, error.getConstraintViolations().size());
+        assertEquals("ownerId", error.getConstraintViolations().iterator().next()
+            .getPropertyPath().toString());
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.repo));
+    }
+
+    @Test
+    void patch_unpatchedInvalidValues_notValidated() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var userId = UUID.randomUUID();
+        var patcher = Patcher
+            .<ApplicationPatcher>builder()
+            .fields(List.of("description"))
+            .data(ApplicationPatcher.builder().name("").description("new").build())
+            .build();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.patchByKey(Mockito.eq("key"), Mockito.same(patcher),
+                Mockito.eq(userId), Mockito.any(Instant.class), Mockito.isNull())).thenReturn(Optional.of(2L));
+        });
+
+        service.patch("key", patcher, null, Context.of(userId));
+
+        assertEquals(ApplicationChangeType.UPDATED, context.firedEvent().type());
+    }
+
+    @Test
+    void patch_whenAppExisting_singleStatement() {
         var context = ApplicationServiceContext.builder().build();
         var service = context.toService();
         var userId = UUID.randomUUID();
-        var entity = ApplicationEntityCreator.create();
         var dto = ApplicationCreator.createApplication();
         var appPatcher = ApplicationCreator.createApplicationPatcher();
         var patcher = Patcher
@@ -212,21 +744,19 @@ class ApplicationServiceTest {
             .fields(List.of("name", "description", "ownerId", "managementGroupId"))
             .data(appPatcher)
             .build();
-        var keyCaptor = ArgumentCaptor.forClass(String.class);
 
         context.setup(ctx -> {
-            Mockito.when(ctx.repo.findByKeyWithLock(keyCaptor.capture())).thenReturn(Optional.of(entity));
+            Mockito.when(ctx.repo.patchByKey(Mockito.eq(dto.applicationKey()), Mockito.same(patcher),
+                Mockito.eq(userId), Mockito.any(Instant.class), Mockito.isNull())).thenReturn(Optional.of(2L));
         });
 
-        service.patch(dto.applicationKey(), patcher, Context.of(userId));
-
-        assertEquals(appPatcher.name(), entity.getName());
-        assertEquals(appPatcher.description(), entity.getDescription());
-        assertEquals(appPatcher.ownerId(), entity.getOwnerId());
-        assertEquals(appPatcher.managementGroupId(), entity.getManagementGroupId());
+        service.patch(dto.applicationKey(), patcher, null, Context.of(userId));
 
+        assertEquals(ApplicationChangeType.UPDATED, context.firedEvent().type());
+        assertEquals(appPatcher.name(), context.firedEvent().name());
         context.verify( ctx -> {
-            Mockito.verify(ctx.repo, Mockito.only()).findByKeyWithLock(Mockito.anyString());
+            Mockito.verify(ctx.repo, Mockito.only()).patchByKey(Mockito.anyString(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any());
         });
 
     }
@@ -236,7 +766,6 @@ class ApplicationServiceTest {
         var context = ApplicationServiceContext.builder().build();
         var service = context.toService();
         var userId = UUID.randomUUID();
-        var entity = ApplicationEntityCreator.create();
         var dto = ApplicationCreator.createApplication();
         var appPatcher = ApplicationCreator.createApplicationPatcher();
         var patcher = Patcher
@@ -244,27 +773,51 @@ class ApplicationServiceTest {
             .fields(List.of("name", "description", "ownerId", "managementGroupId"))
             .data(appPatcher)
             .build();
-        var keyCaptor = ArgumentCaptor.forClass(String.class);
 
         context.setup(ctx -> {
-            Mockito.when(ctx.repo.findByKeyWithLock(keyCaptor.capture())).thenReturn(Optional.empty());
+            Mockito.when(ctx.repo.patchByKey(Mockito.anyString(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
         });
 
         assertThrowsExactly(NotFoundError.class, () -> {
-            service.patch(dto.applicationKey(), patcher, Context.of(userId));
+            service.patch(dto.applicationKey(), patcher, null, Context.of(userId));
         });
 
-        assertNotEquals(appPatcher.name(), entity.getName());
-        assertNotEquals(appPatcher.description(), entity.getDescription());
-        assertNotEquals(appPatcher.ownerId(), entity.getOwnerId());
-        assertNotEquals(appPatcher.managementGroupId(), entity.getManagementGroupId());
-
         context.verify( ctx -> {
-            Mockito.verify(ctx.repo, Mockito.only()).findByKeyWithLock(Mockito.anyString());
+            Mockito.verify(ctx.repo, Mockito.only()).patchByKey(Mockito.anyString(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any());
+            Mockito.verifyNoInteractions(ctx.events);
         });
 
     }
 
+    @Test
+    void patch_whenVersionMismatch_PreconditionFailed() {
+        var context = ApplicationServiceContext.builder().build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+        var patcher = Patcher
+            .<ApplicationPatcher>builder()
+            .fields(List.of("name"))
+            .data(ApplicationCreator.createApplicationPatcher())
+            .build();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.patchByKey(Mockito.anyString(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.eq(List.of(dto.version())))).thenReturn(Optional.empty());
+            Mockito.when(ctx.repo.existsByKey(dto.applicationKey())).thenReturn(true);
+        });
+
+        assertThrowsExactly(PreconditionFailedError.class, () -> {
+            service.patch(dto.applicationKey(), patcher,
+                ETags.of(dto.applicationKey(), dto.version()), Context.of(UUID.randomUUID()));
+        });
+
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.never()).findByKeyWithLock(Mockito.anyString());
+        });
+    }
+
     @Test
     void delete_whenAppExisting_deleteIt() {
         var context = ApplicationServiceContext.builder().build();
@@ -280,12 +833,16 @@ class ApplicationServiceTest {
             Mockito.doNothing().when(ctx.repo).delete(eCaptor.capture());
         });
 
-        service.delete(dto.applicationKey(), Context.of(userId));
+        service.delete(dto.applicationKey(), null, Context.of(userId));
         assertSame(entity, eCaptor.getValue());
+        assertEquals(dto.applicationKey(), context.firedEvent().applicationKey());
+        assertEquals(ApplicationChangeType.DELETED, context.firedEvent().type());
+        assertNull(context.firedEvent().name());
 
         context.verify( ctx -> {
             Mockito.verify(ctx.repo, Mockito.times(1)).findByKeyWithLock(Mockito.anyString());
             Mockito.verify(ctx.repo, Mockito.times(1)).delete(Mockito.any(ApplicationEntity.class));
+            Mockito.verify(ctx.repo).tombstone(dto.applicationKey());
         });
     }
 
@@ -304,7 +861,7 @@ class ApplicationServiceTest {
         });
 
         assertThrowsExactly(NotFoundError.class, () -> {
-            service.delete(dto.applicationKey(), Context.of(userId));
+            service.delete(dto.applicationKey(), null, Context.of(userId));
         });
 
         context.verify( ctx -> {
@@ -313,12 +870,69 @@ class ApplicationServiceTest {
         });
     }
 
+    @Test
+    void patch_optimisticNotExisting_NotFound() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+        var patcher = Patcher
+            .<ApplicationPatcher>builder()
+            .fields(List.of("name"))
+            .data(ApplicationCreator.createApplicationPatcher())
+            .build();
+        var ifMatch = ETags.of(dto.applicationKey(), dto.version());
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.patchByKey(Mockito.anyString(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+            Mockito.when(ctx.repo.existsByKey(dto.applicationKey())).thenReturn(false);
+        });
+
+        assertThrowsExactly(NotFoundError.class, () -> {
+            service.patch(dto.applicationKey(), patcher, ifMatch, Context.of(UUID.randomUUID()));
+        });
+        context.verify(ctx -> Mockito.verifyNoInteractions(ctx.events));
+    }
+
+    @Test
+    void delete_optimistic_singleStatement() {
+        var context = ApplicationServiceContext.builder().mode(ConcurrencyMode.OPTIMISTIC).build();
+        var service = context.toService();
+        var dto = ApplicationCreator.createApplication();
+
+        context.setup(ctx -> {
+            Mockito.when(ctx.repo.deleteByKey(dto.applicationKey(), (List<Long>) null)).thenReturn(1);
+        });
+
+        service.delete(dto.applicationKey(), null, Context.of(UUID.randomUUID()));
+
+        assertEquals(ApplicationChangeType.DELETED, context.firedEvent().type());
+        context.verify(ctx -> {
+            Mockito.verify(ctx.repo, Mockito.never()).findByKeyWithLock(Mockito.anyString());
+            Mockito.verify(ctx.repo).tombstone(dto.applicationKey());
+        });
+    }
+
+    private static ApplicationWrite written(Application application, boolean inserted, long version) {
+        return ApplicationWrite.builder()
+            .applicationKey(application.applicationKey())
+            .inserted(inserted)
+            .version(version)
+            .build();
+    }
+
     @Builder(toBuilder = true)
     record ApplicationServiceContext(
         ApplicationRepo repo,
-        ApplicationMapper mapper
+        ApplicationMapper mapper,
+        ApplicationCache cache,
+        ApplicationKeyFilter keys,
+        Event<ApplicationChangedEvent> events,
+        Validator validator,
+        ConcurrencyMode mode
     ) {
 
+        @SuppressWarnings("unchecked")
         public ApplicationServiceContext {
             if (Objects.isNull(repo)) {
                 repo = Mockito.mock(ApplicationRepo.class);
@@ -327,6 +941,36 @@ class ApplicationServiceTest {
             if (Objects.isNull(mapper)) {
                 mapper = Mockito.mock(ApplicationMapper.class);
             }
+
+            if (Objects.isNull(cache)) {
+                cache = new ApplicationCache(false, 0, Duration.ZERO);
+            }
+
+            if (Objects.isNull(keys)) {
+                keys = new ApplicationKeyFilter(repo, false, 0, 0.01, Duration.ZERO);
+            }
+
+            if (Objects.isNull(events)) {
+                events = Mockito.mock(Event.class);
+            }
+
+            if (Objects.isNull(validator)) {
+                validator = Validation.byDefaultProvider()
+                    .configure()
+                    .messageInterpolator(new ParameterMessageInterpolator())
+                    .buildValidatorFactory()
+                    .getValidator();
+            }
+
+            if (Objects.isNull(mode)) {
+                mode = ConcurrencyMode.PESSIMISTIC;
+            }
+        }
+
+        ApplicationChangedEvent firedEvent() {
+            var captor = ArgumentCaptor.forClass(ApplicationChangedEvent.class);
+            Mockito.verify(events, Mockito.times(1)).fire(captor.capture());
+            return captor.getValue();
         }
 
 
@@ -339,7 +983,9 @@ class ApplicationServiceTest {
         }
 
         public ApplicationService toService() {
-            return new ApplicationService(repo, mapper);
+            var config = Mockito.mock(ApplicationConfig.class, Mockito.RETURNS_DEEP_STUBS);
+            Mockito.when(config.concurrency().mode()).thenReturn(mode);
+            return new ApplicationService(repo, mapper, cache, keys, events, validator, config);
         }
     }
 }
\ No newline at end of file
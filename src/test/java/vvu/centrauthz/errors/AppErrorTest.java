@@ -3,6 +3,8 @@ package vvu.centrauthz.errors;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.eclipse.microprofile.config.Config;
 import vvu.centrauthz.models.Error;
 
 import java.util.Map;
@@ -309,4 +311,23 @@ class AppErrorTest {
             assertEquals("shouldMaintainStackTrace", stackTrace[0].getMethodName());
         }
     }
+
+    @Nested
+    @DisplayName("Lightweight Mode Tests")
+    class LightweightModeTests {
+
+        @Test
+        @DisplayName("Should capture stack traces unless configured off")
+        void shouldReadStackTracesFromConfig() {
+            // Given
+            Config unset = new SmallRyeConfigBuilder().build();
+            Config disabled = new SmallRyeConfigBuilder()
+                    .withDefaultValue(AppError.STACK_TRACES, "false")
+                    .build();
+
+            // Then
+            assertTrue(AppError.stackTraces(unset));
+            assertFalse(AppError.stackTraces(disabled));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package vvu.centrauthz.errors.handlers;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Test;
 import vvu.centrauthz.errors.AppError;
@@ -13,7 +14,8 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 
 class GlobalExceptionHandlerTest {
 
-    private final GlobalExceptionHandler globalErrorHandler = new GlobalExceptionHandler();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler globalErrorHandler = new GlobalExceptionHandler(registry);
 
     @Test
     void toStatus_BadRequestError() {
@@ -26,9 +28,15 @@ class GlobalExceptionHandlerTest {
         error = ErrorUtils.createNotFoundError(UUID.randomUUID().toString());
         assertEquals(Response.Status.NOT_FOUND, GlobalExceptionHandler.toStatus(error));
 
+        error = ErrorUtils.createPreconditionFailedError(UUID.randomUUID().toString());
+        assertEquals(Response.Status.PRECONDITION_FAILED, GlobalExceptionHandler.toStatus(error));
+
         error = ErrorUtils.createNotImplementedError(UUID.randomUUID().toString());
         assertEquals(Response.Status.NOT_IMPLEMENTED, GlobalExceptionHandler.toStatus(error));
 
+        error = ErrorUtils.createServiceUnavailableError(UUID.randomUUID().toString());
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE, GlobalExceptionHandler.toStatus(error));
+
         error = new IllegalJsonValue("");
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR, GlobalExceptionHandler.toStatus(error));
     }
@@ -52,4 +60,16 @@ class GlobalExceptionHandlerTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleAppError_countedByCode() {
+        globalErrorHandler.handleAppError(ErrorUtils.createNotFoundError("a")).close();
+        globalErrorHandler.handleAppError(ErrorUtils.createNotFoundError("b")).close();
+        globalErrorHandler.handleAppError(ErrorUtils.createConflictError("c")).close();
+
+        assertEquals(2.0, registry.get(GlobalExceptionHandler.ERRORS)
+            .tag("code", "NOT_FOUND").tag("status", "404").counter().count());
+        assertEquals(1.0, registry.get(GlobalExceptionHandler.ERRORS)
+            .tag("code", "CONFLICT").tag("status", "409").counter().count());
+    }
+}
@@ -0,0 +1,38 @@
+package vvu.centrauthz.models;
+
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.errors.BadRequestError;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTokenTest {
+
+    @Test
+    void testConstructor() {
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> PageToken.builder().values(List.of()).build());
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> PageToken.builder().sort("name:ASC").build());
+    }
+
+    @Test
+    void encode_decode_roundTrip() {
+        var token = PageToken.builder()
+                .sort("name:ASC,applicationKey:ASC")
+                .values(List.of("name with spaces/+=", "key"))
+                .build();
+
+        var encoded = token.encode();
+
+        assertFalse(encoded.contains("="));
+        assertEquals(token, PageToken.decode(encoded));
+    }
+
+    @Test
+    void decode_whenMalformed_BadRequest() {
+        assertThrowsExactly(BadRequestError.class, () -> PageToken.decode("not a token"));
+        assertThrowsExactly(BadRequestError.class, () -> PageToken.decode("e30"));
+    }
+}
@@ -0,0 +1,54 @@
+package vvu.centrauthz.replicas;
+
+import org.junit.jupiter.api.Test;
+import vvu.centrauthz.errors.BadRequestError;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistencyTokensTest {
+
+    @Test
+    void testConstructor() {
+        assertThrowsExactly(IllegalStateException.class, ConsistencyTokens::new);
+    }
+
+    @Test
+    void parse() {
+        assertEquals(0L, ConsistencyTokens.parse("0/0"));
+        assertEquals(0x16B3740L, ConsistencyTokens.parse("0/16B3740"));
+        assertEquals(0x16_B374D848L, ConsistencyTokens.parse("16/B374D848"));
+        assertEquals(0x16_B374D848L, ConsistencyTokens.parse("16/b374d848"));
+        assertEquals(-1L, ConsistencyTokens.parse("FFFFFFFF/FFFFFFFF"));
+    }
+
+    @Test
+    void parse_malformed_badRequest() {
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse(null));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse(""));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("16B374D848"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("/0"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("0/"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("0/G"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("0/-1"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("1/2/3"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("100000000/0"));
+        assertThrows(BadRequestError.class, () -> ConsistencyTokens.parse("0/100000000"));
+    }
+
+    @Test
+    void format_roundTrips() {
+        assertEquals("0/0", ConsistencyTokens.format(0L));
+        assertEquals("16/B374D848", ConsistencyTokens.format(0x16_B374D848L));
+        assertEquals("FFFFFFFF/FFFFFFFF", ConsistencyTokens.format(-1L));
+        assertEquals(0x16_B374D848L, ConsistencyTokens.parse(ConsistencyTokens.format(0x16_B374D848L)));
+    }
+
+    @Test
+    void reached() {
+        assertTrue(ConsistencyTokens.reached(10L, 10L));
+        assertTrue(ConsistencyTokens.reached(11L, 10L));
+        assertFalse(ConsistencyTokens.reached(9L, 10L));
+        assertTrue(ConsistencyTokens.reached(-1L, Long.MAX_VALUE));
+        assertFalse(ConsistencyTokens.reached(Long.MAX_VALUE, -1L));
+    }
+}
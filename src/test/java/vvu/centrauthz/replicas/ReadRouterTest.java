@@ -0,0 +1,252 @@
+package vvu.centrauthz.replicas;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.enterprise.inject.Instance;
+import lombok.Builder;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import vvu.centrauthz.errors.BadRequestError;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadRouterTest {
+
+    @Test
+    void read_whenDisabled_primaryAndTokenIgnored() throws SQLException {
+        var context = ReadRouterContext.builder().enabled(false).build();
+        var router = context.toRouter();
+
+        assertSame(context.primary(), router.read("not a token", session -> session));
+        assertSame(context.primary(), router.read(null, session -> session));
+
+        Mockito.verifyNoInteractions(context.replica());
+        assertEquals(2, context.reads("primary"));
+    }
+
+    @Test
+    void read_withoutToken_replica() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+
+        assertSame(context.replicaSession(), router.read(null, session -> session));
+
+        Mockito.verify(context.connection(), Mockito.never()).prepareStatement(Mockito.anyString());
+        Mockito.verify(context.replicaSession()).close();
+        Mockito.verify(context.connection()).close();
+        assertEquals(1, context.reads("replica"));
+    }
+
+    @Test
+    void read_whenReplicaBehindToken_primary() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        context.replayed(0x5L);
+
+        assertSame(context.primary(), router.read("0/A", session -> session));
+
+        Mockito.verify(context.connection()).close();
+        assertEquals(1, context.reads("primary"));
+        assertEquals(0, context.reads("replica"));
+    }
+
+    @Test
+    void read_whenReplicaPastToken_replica() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        context.replayed(0x10L);
+
+        assertSame(context.replicaSession(), router.read("0/A", session -> session));
+        assertEquals(1, context.reads("replica"));
+    }
+
+    @Test
+    void read_tokenBelowObservedReplay_replicaNotAskedAgain() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        context.replayed(0x10L);
+
+        router.read("0/A", session -> session);
+        assertSame(context.replicaSession(), router.read("0/8", session -> session));
+        assertSame(context.replicaSession(), router.read("0/10", session -> session));
+
+        Mockito.verify(context.connection(), Mockito.times(1)).prepareStatement(Mockito.anyString());
+    }
+
+    @Test
+    void read_tokenBeyondObservedReplay_replicaAskedAgain() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        context.replayed(0x10L);
+        router.read("0/A", session -> session);
+
+        context.replayed(0x1_00000000L);
+        assertSame(context.replicaSession(), router.read("1/0", session -> session));
+
+        Mockito.verify(context.connection(), Mockito.times(2)).prepareStatement(Mockito.anyString());
+    }
+
+    @Test
+    void read_whenReplicaNotStandby_primary() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        Mockito.when(context.result().getLong(1)).thenReturn(0L);
+        Mockito.when(context.result().wasNull()).thenReturn(true);
+
+        assertSame(context.primary(), router.read("0/0", session -> session));
+    }
+
+    @Test
+    void read_whenReplicaUnavailable_primary() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        Mockito.when(context.dataSource().getConnection()).thenThrow(new SQLException("refused"));
+
+        assertSame(context.primary(), router.read(null, session -> session));
+        assertEquals(1, context.reads("primary"));
+    }
+
+    @Test
+    void read_malformedToken_badRequest() throws SQLException {
+        var router = ReadRouterContext.builder().build().toRouter();
+
+        assertThrows(BadRequestError.class, () -> router.read("16B374D848", session -> session));
+    }
+
+    @Test
+    void scroll_onReplica_localTransactionRolledBack() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        var router = context.toRouter();
+        var used = new StatelessSession[1];
+
+        router.scroll(null, session -> used[0] = session);
+
+        assertSame(context.replicaSession(), used[0]);
+        var order = Mockito.inOrder(context.connection(), context.replicaSession());
+        order.verify(context.connection()).setAutoCommit(false);
+        order.verify(context.replicaSession()).close();
+        order.verify(context.connection()).rollback();
+        order.verify(context.connection()).close();
+    }
+
+    @Test
+    void scroll_onPrimary_joinsCallerTransaction() throws SQLException {
+        var context = ReadRouterContext.builder().enabled(false).build();
+        var router = context.toRouter();
+        var used = new StatelessSession[1];
+
+        router.scroll(null, session -> used[0] = session);
+
+        assertSame(context.primary(), used[0]);
+        Mockito.verify(context.primary(), Mockito.never()).close();
+    }
+
+    @Test
+    void position_whenDisabled_empty() throws SQLException {
+        var context = ReadRouterContext.builder().enabled(false).build();
+
+        assertTrue(context.toRouter().position().isEmpty());
+        Mockito.verifyNoInteractions(context.primary());
+    }
+
+    @Test
+    void position_fromPrimary() throws SQLException {
+        var context = ReadRouterContext.builder().build();
+        Mockito.when(context.primary()
+                .createNativeQuery(Mockito.anyString(), Mockito.eq(Long.class))
+                .getSingleResult())
+            .thenReturn(0x16_B374D848L);
+
+        assertEquals(Optional.of("16/B374D848"), context.toRouter().position());
+    }
+
+    @Builder
+    record ReadRouterContext(
+        StatelessSession primary,
+        StatelessSession replicaSession,
+        SessionFactory sessions,
+        Instance<AgroalDataSource> replica,
+        AgroalDataSource dataSource,
+        Connection connection,
+        PreparedStatement statement,
+        ResultSet result,
+        Boolean enabled,
+        SimpleMeterRegistry registry
+    ) {
+
+        @SuppressWarnings("unchecked")
+        public ReadRouterContext {
+            if (Objects.isNull(primary)) {
+                primary = Mockito.mock(StatelessSession.class, Mockito.RETURNS_DEEP_STUBS);
+            }
+
+            if (Objects.isNull(replicaSession)) {
+                replicaSession = Mockito.mock(StatelessSession.class);
+            }
+
+            if (Objects.isNull(sessions)) {
+                sessions = Mockito.mock(SessionFactory.class, Mockito.RETURNS_DEEP_STUBS);
+            }
+
+            if (Objects.isNull(replica)) {
+                replica = Mockito.mock(Instance.class);
+            }
+
+            if (Objects.isNull(dataSource)) {
+                dataSource = Mockito.mock(AgroalDataSource.class);
+            }
+
+            if (Objects.isNull(connection)) {
+                connection = Mockito.mock(Connection.class);
+            }
+
+            if (Objects.isNull(statement)) {
+                statement = Mockito.mock(PreparedStatement.class);
+            }
+
+            if (Objects.isNull(result)) {
+                result = Mockito.mock(ResultSet.class);
+            }
+
+            if (Objects.isNull(enabled)) {
+                enabled = true;
+            }
+
+            if (Objects.isNull(registry)) {
+                registry = new SimpleMeterRegistry();
+            }
+        }
+
+        void replayed(long position) throws SQLException {
+            Mockito.when(result.next()).thenReturn(true);
+            Mockito.when(result.getLong(1)).thenReturn(position);
+            Mockito.when(result.wasNull()).thenReturn(false);
+        }
+
+        double reads(String target) {
+            return registry.counter("centrauthz.reads", "target", target).count();
+        }
+
+        ReadRouter toRouter() throws SQLException {
+            Mockito.when(sessions.withStatelessOptions().connection(connection).openStatelessSession())
+                .thenReturn(replicaSession);
+            Mockito.when(replica.get()).thenReturn(dataSource);
+            Mockito.when(dataSource.getConnection()).thenReturn(connection);
+            Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+            Mockito.when(statement.executeQuery()).thenReturn(result);
+
+            var config = Mockito.mock(ReplicaConfig.class);
+            Mockito.when(config.enabled()).thenReturn(enabled);
+            return new ReadRouter(primary, sessions, replica, config, registry);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package vvu.centrauthz.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_addedValues_true() {
+        var filter = BloomFilter.create(1000, 0.01);
+        var values = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        values.forEach(filter::add);
+
+        assertTrue(values.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_otherValues_mostlyFalse() {
+        var filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("app-" + i));
+
+        var falsePositives = IntStream.range(0, 10_000)
+            .filter(i -> filter.mightContain("other-" + i))
+            .count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_empty_false() {
+        assertFalse(BloomFilter.create(0, 0.5).mightContain(""));
+    }
+
+    @Test
+    void create_invalidRate_throws() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> BloomFilter.create(10, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> BloomFilter.create(10, 1));
+    }
+}
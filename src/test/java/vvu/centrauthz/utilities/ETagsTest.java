@@ -0,0 +1,48 @@
+package vvu.centrauthz.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void testConstructor() {
+        assertThrowsExactly(IllegalStateException.class, ETags::new);
+    }
+
+    @Test
+    void of_isQuotedAndStable() {
+        var etag = ETags.of("app", 1234L);
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, ETags.of("app", 1234L));
+        assertNotEquals(etag, ETags.of("app", 1235L));
+        assertNotEquals(etag, ETags.of("other", 1234L));
+    }
+
+    @Test
+    void matches() {
+        var etag = ETags.of("app", 1234L);
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertTrue(ETags.matches("\"x\", " + etag, etag));
+        assertTrue(ETags.matches("W/" + etag, etag));
+        assertFalse(ETags.matches("\"x\"", etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+
+    @Test
+    void stamps() {
+        assertTrue(ETags.stamps(null, "app").isEmpty());
+        assertTrue(ETags.stamps(" ", "app").isEmpty());
+        assertTrue(ETags.stamps("*", "app").isEmpty());
+
+        var header = ETags.of("app", 3L) + ", W/" + ETags.of("app", 4L) + ", "
+            + ETags.of("other", 5L) + ", \"zz!.x\", " + ETags.of("app", 6L);
+        assertEquals(Optional.of(List.of(3L, 6L)), ETags.stamps(header, "app"));
+        assertEquals(Optional.of(List.of()), ETags.stamps("\"x\"", "app"));
+    }
+}
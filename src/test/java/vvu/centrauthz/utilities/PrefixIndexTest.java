@@ -0,0 +1,127 @@
+package vvu.centrauthz.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private static final PrefixIndex INDEX = PrefixIndex.of(Map.of(
+        "payroll", "Payroll",
+        "pay-portal", "Payments portal",
+        "billing", "Billing gateway",
+        "ledger", "PAY ledger"));
+
+    @Test
+    void find_matchesKeysAndNamesIgnoringCase() {
+        assertEquals(List.of("ledger", "pay-portal", "payroll"), keys(INDEX.find("Pay", 10)));
+        assertEquals(List.of("billing"), keys(INDEX.find("BILL", 10)));
+        assertEquals(List.of("ledger"), keys(INDEX.find("led", 10)));
+        assertTrue(INDEX.find("missing", 10).isEmpty());
+    }
+
+    @Test
+    void find_eachKeyOnceWithItsName() {
+        var matches = INDEX.find("payroll", 10);
+
+        assertEquals(List.of(new PrefixIndex.Match("payroll", "Payroll")), matches);
+    }
+
+    @Test
+    void find_limited() {
+        assertEquals(2, INDEX.find("pay", 2).size());
+    }
+
+    @Test
+    void with_addsAndRenames() {
+        var index = INDEX.with("audit", "Audit trail").with("billing", "Invoicing");
+
+        assertEquals(5, index.size());
+        assertEquals(List.of("audit"), keys(index.find("audit t", 10)));
+        assertEquals(List.of("billing"), keys(index.find("invo", 10)));
+        assertEquals(List.of("billing"), keys(index.find("bill", 10)));
+        assertTrue(index.find("billing g", 10).isEmpty());
+        assertEquals(4, INDEX.size());
+        assertTrue(INDEX.find("audit", 10).isEmpty());
+    }
+
+    @Test
+    void without_removesKeyAndName() {
+        var index = INDEX.without("ledger");
+
+        assertEquals(3, index.size());
+        assertTrue(index.find("led", 10).isEmpty());
+        assertEquals(List.of("pay-portal", "payroll"), keys(index.find("pay", 10)));
+        assertSame(index, index.without("ledger"));
+    }
+
+    @Test
+    void with_nameEqualToKey_singleEntry() {
+        var index = PrefixIndex.empty().with("Payroll", "payroll");
+
+        assertEquals(1, index.size());
+        assertEquals(List.of("Payroll"), keys(index.find("p", 10)));
+        assertEquals(0, index.without("Payroll").size());
+    }
+
+    @Test
+    void without_keepsOtherKeysSharingATerm() {
+        var names = new HashMap<String, String>();
+        names.put("ops", "Billing");
+        names.put("billing", "Finance");
+        var index = PrefixIndex.of(names).without("ops");
+
+        assertEquals(List.of("billing"), keys(index.find("billing", 10)));
+        assertEquals(List.of("billing"), keys(index.find("fin", 10)));
+    }
+
+    @Test
+    void without_baseKeyAddedBack_foundUnderItsNewName() {
+        var index = INDEX.without("billing").with("billing", "Invoicing");
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("billing"), keys(index.find("bill", 10)));
+        assertEquals(List.of("billing"), keys(index.find("invo", 10)));
+        assertTrue(index.find("billing g", 10).isEmpty());
+        assertSame(index, index.without("missing"));
+    }
+
+    @Test
+    void writes_pastCompaction_matchAFreshBuild() {
+        var random = new Random(42);
+        var names = new HashMap<String, String>();
+        for (int i = 0; i < 1000; i++) {
+            names.put("app-" + i, "Name " + random.nextInt(300));
+        }
+        var index = PrefixIndex.of(names);
+
+        for (int write = 0; write < 2000; write++) {
+            var key = "app-" + random.nextInt(1200);
+            if (random.nextInt(3) == 0) {
+                names.remove(key);
+                index = index.without(key);
+            } else {
+                var name = random.nextBoolean() ? key.toUpperCase() : "Name " + random.nextInt(400);
+                names.put(key, name);
+                index = index.with(key, name);
+            }
+
+            if (write % 50 == 0) {
+                var built = PrefixIndex.of(names);
+                assertEquals(built.size(), index.size());
+                for (var prefix : List.of("app-1", "APP-", "name 1", "name 3", "n", "")) {
+                    assertEquals(built.find(prefix, 100), index.find(prefix, 100), prefix);
+                }
+            }
+        }
+    }
+
+    private static List<String> keys(List<PrefixIndex.Match> matches) {
+        return matches.stream().map(PrefixIndex.Match::key).toList();
+    }
+}